@@ -79,6 +79,42 @@ public @interface GenerateGradlePlugin {
      */
     String dependency() default "";
 
+    /**
+     * Whether the generated tasks should produce build cache entries that can be reused
+     * between machines and checkouts in different locations.
+     * File inputs then use {@link PluginTaskParameter.PathSensitivity#RELATIVE} path sensitivity
+     * unless configured explicitly, have normalized line endings and are fingerprinted only
+     * by their contents and relative paths. Tasks that are not cacheable are annotated
+     * with {@code @DisableCachingByDefault}.
+     *
+     * @return Whether the tasks are relocatable
+     */
+    boolean relocatable() default false;
+
+    /**
+     * Whether workers of tasks with {@link Isolation#PROCESS} isolation should use
+     * a class data sharing archive of the worker classpath to reduce their start-up time.
+     * A companion task maintains the archive and invalidates it when the classpath
+     * or the Java version changes. The archive is created by the first worker that exits
+     * and requires Java {@value PluginClassDataSharing#MIN_JAVA_VERSION} or newer,
+     * workers on older versions start without it.
+     *
+     * @return Whether to use class data sharing for workers
+     */
+    boolean classDataSharing() default false;
+
+    /**
+     * Whether the models, like enums and POJOs used by task parameters, should be copied
+     * to the {@code model} package of the plugin and converted back before each execution.
+     * If disabled, the tasks and extensions expose the original model types, and neither the copies
+     * nor their converters are generated. This requires all the tasks to have
+     * {@link Isolation#NONE} isolation, so the plugin sees the same task classes as the workers.
+     * Models of task inputs must then be serializable.
+     *
+     * @return Whether to copy the models
+     */
+    boolean copyModels() default true;
+
     /**
      * Enum defining the types that could be generated.
      */
@@ -89,6 +125,28 @@ public @interface GenerateGradlePlugin {
         GRADLE_PLUGIN
     }
 
+    /**
+     * Enum defining the isolation of the worker that executes a task.
+     */
+    enum Isolation {
+        /**
+         * The task is executed in the build daemon with the plugin classloader.
+         * The task classes must be on the classpath of the plugin.
+         * Suitable for lightweight trusted tasks, since no classloader is created.
+         */
+        NONE,
+        /**
+         * The task is executed in the build daemon in an isolated classloader
+         * created from the task classpath.
+         */
+        CLASSLOADER,
+        /**
+         * The task is executed in a separate worker daemon with the task classpath.
+         * The worker daemon can be configured with the fork options.
+         */
+        PROCESS
+    }
+
     /**
      * A configuration for generating a gradle task as part of the plugin.
      */
@@ -100,9 +158,20 @@ public @interface GenerateGradlePlugin {
         String namePrefix() default "";
 
         /**
-         * @return The task configuration class name that has {@link PluginTask} annotation
+         * The task configuration class name that has {@link PluginTask} annotation.
+         * Either this or {@link #sourceClass()} must be specified.
+         *
+         * @return The task configuration class name
+         */
+        String source() default "";
+
+        /**
+         * The task configuration class that has {@link PluginTask} annotation.
+         * Can be used instead of {@link #source()} when the class is available at compile time.
+         *
+         * @return The task configuration class
          */
-        String source();
+        Class<?> sourceClass() default void.class;
 
         /**
          * @return The name to use for the generated extension
@@ -114,6 +183,48 @@ public @interface GenerateGradlePlugin {
          */
         boolean cacheable() default true;
 
+        /**
+         * Whether to also generate a batch task.
+         * The batch task executes many items with the parameters of this task as parallel work
+         * items of a single Gradle task, which avoids the overhead of registering a task per item.
+         * It is created with the {@code <extensionMethodName>Batch} extension method.
+         *
+         * @return Whether to generate a batch task
+         */
+        boolean batch() default false;
+
+        /**
+         * @return The isolation of the worker that executes the task
+         */
+        Isolation isolation() default Isolation.CLASSLOADER;
+
+        /**
+         * The maximum heap size of the worker daemon, like {@code 1g}.
+         * Only applicable to {@link Isolation#PROCESS} isolation.
+         *
+         * @return The maximum heap size
+         */
+        String maxHeapSize() default "";
+
+        /**
+         * The JVM arguments of the worker daemon.
+         * Only applicable to {@link Isolation#PROCESS} isolation.
+         *
+         * @return The JVM arguments
+         */
+        String[] jvmArgs() default {};
+
+        /**
+         * A key for reusing worker daemons.
+         * Gradle reuses a worker daemon only for work with compatible fork options,
+         * so tasks with different keys never share a worker daemon, while tasks with
+         * the same key and options can run in the same warm daemon.
+         * Only applicable to {@link Isolation#PROCESS} isolation.
+         *
+         * @return The worker daemon key
+         */
+        String workerDaemonKey() default "";
+
     }
 
 
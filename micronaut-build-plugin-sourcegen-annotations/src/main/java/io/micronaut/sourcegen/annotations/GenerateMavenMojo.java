@@ -46,9 +46,20 @@ public @interface GenerateMavenMojo {
     String namePrefix() default "";
 
     /**
-     * @return The task configuration class name that has {@link PluginTask} annotation
+     * The task configuration class name that has {@link PluginTask} annotation.
+     * Either this or {@link #sourceClass()} must be specified.
+     *
+     * @return The task configuration class name
+     */
+    String source() default "";
+
+    /**
+     * The task configuration class that has {@link PluginTask} annotation.
+     * Can be used instead of {@link #source()} when the class is available at compile time.
+     *
+     * @return The task configuration class
      */
-    String source();
+    Class<?> sourceClass() default void.class;
 
     /**
      * @return Whether to extend abstract micronaut mojo.
@@ -63,6 +74,74 @@ public @interface GenerateMavenMojo {
      */
     String mavenPropertyPrefix() default "";
 
+    /**
+     * The goal of the Mojo.
+     * If specified, a concrete {@code Default<prefix>Mojo} annotated with {@code @Mojo} is generated in
+     * addition to the abstract Mojo, so the plugin descriptor does not need to be written by hand.
+     * The generated descriptor is thread-safe if the task is {@link PluginTask#threadSafe()}, and
+     * requires the narrowest dependency resolution scope used by the parameter default values.
+     * The task must not have internal parameters, as only a hand-written Mojo can provide them.
+     *
+     * @return The goal
+     */
+    String goal() default "";
+
+    /**
+     * The lifecycle phase the goal is bound to by default, like {@code generate-sources}.
+     * Only used if the {@link #goal()} is specified.
+     *
+     * @return The default phase
+     */
+    String defaultPhase() default "";
+
+    /**
+     * The plugin dependency with the task implementation, in the {@code groupId:artifactId} format.
+     * If specified, the task is executed in a class loader isolated from Maven, similarly to the
+     * Gradle worker API. The classpath consists of the plugin artifacts that the dependency requires.
+     * The class loader is cached by its classpath, so it is reused by all modules of a build,
+     * and between builds of the Maven daemon.
+     * All the task parameters must be serializable.
+     *
+     * @see PluginTaskIsolation
+     * @return The isolated dependency
+     */
+    String isolatedDependency() default "";
+
+    /**
+     * The artifact id of the Maven plugin.
+     * If specified together with the {@link #goal()}, a {@code maven-build-cache-extension} configuration
+     * is generated to {@code META-INF/maven/build-cache/<trigger class name>.xml}.
+     * It declares the file inputs with their {@link PluginTaskParameter#pathSensitivity()}, the parameter
+     * values and the output directories, so the goal executions can be restored from the build cache.
+     *
+     * @return The plugin artifact id
+     */
+    String pluginArtifactId() default "";
+
+    /**
+     * Whether to also generate a batch Mojo, like {@code <prefix>BatchMojo}.
+     * The batch Mojo executes many items with the parameters of the task concurrently in a single
+     * execution, and reports the failures of all the items together.
+     * If the {@link #goal()} is specified, the goal of the batch Mojo is {@code <goal>Batch}.
+     * The task must be declared thread-safe with {@link PluginTask#threadSafe()}.
+     *
+     * @see PluginTaskBatch
+     * @return Whether to generate a batch Mojo
+     */
+    boolean batch() default false;
+
+    /**
+     * Whether the models, like enums and POJOs used by task parameters, should be copied
+     * to the {@code model} package of the plugin and converted back before each execution.
+     * If disabled, the Mojo exposes the original model types, which Maven configures directly,
+     * and neither the copies nor their converters are generated.
+     * The value must be the same for all the Mojos generated from a single type, since they share the models.
+     * Models cannot be used without copying together with an {@link #isolatedDependency()}.
+     *
+     * @return Whether to copy the models
+     */
+    boolean copyModels() default true;
+
     /**
      * A container for repeated MavenMojo.
      */
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilities for the class data sharing archives of the worker classpath,
+ * used by plugins generated with {@link GenerateGradlePlugin#classDataSharing()}.
+ *
+ * <p>Workers are started with {@code -XX:+AutoCreateSharedArchive}, so the archive is
+ * created when the first worker exits and is validated by the JVM on each start.</p>
+ *
+ * @since 1.0.x
+ */
+public final class PluginClassDataSharing {
+
+    /**
+     * The minimal Java feature version that supports automatic archives.
+     */
+    public static final int MIN_JAVA_VERSION = 19;
+
+    private PluginClassDataSharing() {
+    }
+
+    /**
+     * @return Whether the current JVM supports automatic class data sharing archives
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= MIN_JAVA_VERSION;
+    }
+
+    /**
+     * Invalidate the archive after the worker classpath or the Java version changed.
+     * The digest describing the archive inputs is written.
+     *
+     * @param archive The archive file
+     * @param digest The digest file
+     * @param javaVersion The Java version
+     * @param classpath The worker classpath
+     */
+    public static void reset(File archive, File digest, String javaVersion, Iterable<File> classpath) {
+        List<String> lines = new ArrayList<>();
+        lines.add(javaVersion);
+        for (File file: classpath) {
+            lines.add(file.getAbsolutePath() + " " + file.length() + " " + file.lastModified());
+        }
+        try {
+            Files.deleteIfExists(archive.toPath());
+            Files.createDirectories(digest.toPath().getParent());
+            Files.write(digest.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reset the class data sharing archive " + archive, e);
+        }
+    }
+
+    /**
+     * Get the JVM arguments that make a worker use the archive.
+     *
+     * @param archive The archive file or null
+     * @return The arguments, empty if the archive is not configured or not supported
+     */
+    public static List<String> jvmArgs(File archive) {
+        if (archive == null || !isSupported()) {
+            return List.of();
+        }
+        return List.of(
+            "-XX:SharedArchiveFile=" + archive.getAbsolutePath(),
+            "-XX:+AutoCreateSharedArchive"
+        );
+    }
+
+}
@@ -35,4 +35,15 @@ import static java.lang.annotation.RetentionPolicy.CLASS;
 @Target({ ElementType.TYPE })
 public @interface PluginTask {
 
+    /**
+     * Whether multiple executions of the task can run concurrently.
+     * Only enable it if the task does not share mutable state, like static fields, between executions.
+     * Maven Mojos of thread-safe tasks are marked as {@code threadSafe}, so they do not serialize
+     * parallel builds.
+     * Batch Mojos, which execute items concurrently, can only be generated for thread-safe tasks.
+     *
+     * @return Whether the task is thread-safe
+     */
+    boolean threadSafe() default false;
+
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Utilities for executing the items of batch Maven Mojos generated with {@link GenerateMavenMojo#batch()}.
+ *
+ * <p>All the items are executed concurrently and the failures are aggregated, so a batch takes
+ * roughly as long as its slowest item. Without a configured parallelism, each item is executed
+ * in a virtual thread if the JVM supports them, and in a pool with a thread per processor otherwise.</p>
+ *
+ * @since 1.0.x
+ */
+public final class PluginTaskBatch {
+
+    private PluginTaskBatch() {
+    }
+
+    /**
+     * Execute the task actions of batch items concurrently.
+     *
+     * @param name The name of the batch, used in the failure message
+     * @param actions The task actions of the items
+     * @param parallelism The maximum number of items executed at a time, or null for the default
+     * @param isolatedClasspath The classpath to execute the actions in isolation with, or null
+     * @see PluginTaskIsolation#run(Runnable, Collection)
+     */
+    public static void run(String name, List<Runnable> actions, Integer parallelism, Collection<File> isolatedClasspath) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        if (parallelism != null && parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism of " + name + " must be positive, but is " + parallelism);
+        }
+        ExecutorService executor = executor(parallelism == null ? null : Math.min(parallelism, actions.size()));
+        List<Future<?>> futures = new ArrayList<>(actions.size());
+        try {
+            for (Runnable action : actions) {
+                futures.add(executor.submit(isolatedClasspath == null
+                    ? action
+                    : () -> PluginTaskIsolation.run(action, isolatedClasspath)));
+            }
+            List<String> failed = new ArrayList<>();
+            List<Throwable> failures = new ArrayList<>();
+            for (int i = 0; i < futures.size(); ++i) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed.add(String.valueOf(i + 1));
+                    failures.add(e.getCause());
+                }
+            }
+            if (!failures.isEmpty()) {
+                IllegalStateException exception = new IllegalStateException(failures.size() + " of " + actions.size()
+                    + " items of " + name + " failed (items " + String.join(", ", failed) + "): " + failures.get(0).getMessage(),
+                    failures.get(0));
+                for (int i = 1; i < failures.size(); ++i) {
+                    exception.addSuppressed(failures.get(i));
+                }
+                throw exception;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing " + name, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService executor(Integer parallelism) {
+        if (parallelism != null) {
+            return Executors.newFixedThreadPool(parallelism);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads require Java 21
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes of incremental task parameters since the previous task execution.
+ * Can be declared as a parameter of the {@link PluginTaskExecutable} method
+ * to only process the files that changed in the directories of parameters configured with
+ * {@link PluginTaskParameter#incremental()}.
+ *
+ * <p>If the changes are not incremental, for example on the first execution, after the outputs
+ * were modified or when the plugin implementation does not support incremental execution,
+ * all the files must be processed.</p>
+ *
+ * @since 1.0.x
+ */
+public final class PluginTaskChanges implements Serializable {
+
+    private final boolean incremental;
+    private final Map<String, Map<ChangeType, List<File>>> changes = new HashMap<>();
+
+    /**
+     * Create the changes.
+     *
+     * @param incremental Whether the changes are incremental
+     */
+    public PluginTaskChanges(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * @return Changes that require processing all the files
+     */
+    public static PluginTaskChanges full() {
+        return new PluginTaskChanges(false);
+    }
+
+    /**
+     * Whether the changes are incremental.
+     * If not, all the files of the incremental parameters must be processed.
+     *
+     * @return Whether incremental
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Register a change of a file.
+     *
+     * @param parameter The name of the parameter
+     * @param file The changed file
+     * @param type The type of the change
+     */
+    public void addChange(String parameter, File file, ChangeType type) {
+        changes.computeIfAbsent(parameter, p -> new HashMap<>())
+            .computeIfAbsent(type, t -> new ArrayList<>())
+            .add(file);
+    }
+
+    /**
+     * @param parameter The name of the parameter
+     * @return The files added to the parameter directory
+     */
+    public List<File> getAdded(String parameter) {
+        return getChanges(parameter, ChangeType.ADDED);
+    }
+
+    /**
+     * @param parameter The name of the parameter
+     * @return The files modified in the parameter directory
+     */
+    public List<File> getModified(String parameter) {
+        return getChanges(parameter, ChangeType.MODIFIED);
+    }
+
+    /**
+     * @param parameter The name of the parameter
+     * @return The files removed from the parameter directory
+     */
+    public List<File> getRemoved(String parameter) {
+        return getChanges(parameter, ChangeType.REMOVED);
+    }
+
+    private List<File> getChanges(String parameter, ChangeType type) {
+        Map<ChangeType, List<File>> parameterChanges = changes.get(parameter);
+        if (parameterChanges == null || !parameterChanges.containsKey(type)) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(parameterChanges.get(type));
+    }
+
+    /**
+     * The type of file change.
+     */
+    public enum ChangeType {
+        /** The file was added. **/
+        ADDED,
+        /** The file was modified. **/
+        MODIFIED,
+        /** The file was removed. **/
+        REMOVED
+    }
+
+}
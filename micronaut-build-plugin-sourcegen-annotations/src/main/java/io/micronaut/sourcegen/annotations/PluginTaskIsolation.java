@@ -0,0 +1,243 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utilities for executing tasks of Maven Mojos generated with
+ * {@link GenerateMavenMojo#isolatedDependency()} in an isolated class loader.
+ *
+ * <p>The class loaders are cached by their classpath for the lifetime of the plugin realm,
+ * which Maven shares between all the modules of a build, and the Maven daemon between builds.
+ * A cached class loader is replaced once any of its classpath files is modified,
+ * and closed once no execution uses it anymore.
+ * Reusing the loader avoids loading and JIT compiling the task classes again for each module.</p>
+ *
+ * @since 1.0.x
+ */
+public final class PluginTaskIsolation {
+
+    private static final Map<List<String>, CachedClassLoader> CLASS_LOADERS = new ConcurrentHashMap<>();
+
+    private PluginTaskIsolation() {
+    }
+
+    /**
+     * Whether an artifact of the plugin is required by the isolated dependency.
+     * That is the case if the dependency is on the artifact's dependency trail.
+     *
+     * @param dependencyTrail The dependency trail of the artifact, in the {@code groupId:artifactId:type:version} format
+     * @param dependency The dependency in the {@code groupId:artifactId} format
+     * @return Whether the artifact is required
+     */
+    public static boolean isRequired(List<String> dependencyTrail, String dependency) {
+        if (dependencyTrail == null) {
+            return false;
+        }
+        String prefix = dependency + ":";
+        for (String element : dependencyTrail) {
+            if (element.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run the task action in an isolated class loader.
+     * The classpath of the loader consists of the given files and the location of the action class.
+     * The action is transferred to the loader by serialization, so all its fields must be serializable.
+     *
+     * @param action The action
+     * @param classpath The classpath of the task
+     */
+    public static void run(Runnable action, Collection<File> classpath) {
+        List<File> files = new ArrayList<>(classpath.size() + 1);
+        files.add(location(action.getClass()));
+        files.addAll(classpath);
+        CachedClassLoader cached = acquire(files);
+        ClassLoader classLoader = cached.classLoader();
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            transfer(action, classLoader).run();
+        } finally {
+            thread.setContextClassLoader(previous);
+            cached.release();
+        }
+    }
+
+    /**
+     * Get the class loader for the classpath and register an execution using it.
+     * The map serializes the acquisition and replacement of the loader of a classpath,
+     * so a replaced loader is never acquired again.
+     */
+    private static CachedClassLoader acquire(List<File> files) {
+        List<String> paths = new ArrayList<>(files.size());
+        List<Long> fingerprint = new ArrayList<>(files.size() * 2);
+        for (File file : files) {
+            paths.add(file.getAbsolutePath());
+            fingerprint.add(file.lastModified());
+            fingerprint.add(file.length());
+        }
+        return CLASS_LOADERS.compute(paths, (key, cached) -> {
+            if (cached != null && cached.fingerprint().equals(fingerprint)) {
+                cached.acquire();
+                return cached;
+            }
+            if (cached != null) {
+                cached.replace();
+            }
+            CachedClassLoader created = new CachedClassLoader(fingerprint, new URLClassLoader(
+                "plugin-task-isolation", urls(files), ClassLoader.getPlatformClassLoader()
+            ));
+            created.acquire();
+            return created;
+        });
+    }
+
+    private static Runnable transfer(Runnable action, ClassLoader classLoader) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(action);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize the parameters of " + action.getClass().getName(), e);
+        }
+        try (ObjectInputStream input = new IsolatedObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()), classLoader)) {
+            return (Runnable) input.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not transfer " + action.getClass().getName() + " to the isolated class loader", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("The isolated classpath of " + action.getClass().getName() + " is missing a class", e);
+        }
+    }
+
+    private static File location(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            throw new IllegalStateException("Could not find the location of " + type.getName());
+        }
+        try {
+            return new File(codeSource.getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Could not find the location of " + type.getName(), e);
+        }
+    }
+
+    private static URL[] urls(List<File> files) {
+        URL[] urls = new URL[files.size()];
+        for (int i = 0; i < urls.length; ++i) {
+            try {
+                urls[i] = files.get(i).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid classpath file " + files.get(i), e);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * A cached class loader with the number of executions using it.
+     */
+    private static final class CachedClassLoader {
+
+        private final List<Long> fingerprint;
+        private final URLClassLoader classLoader;
+        private int executions;
+        private boolean replaced;
+
+        CachedClassLoader(List<Long> fingerprint, URLClassLoader classLoader) {
+            this.fingerprint = fingerprint;
+            this.classLoader = classLoader;
+        }
+
+        List<Long> fingerprint() {
+            return fingerprint;
+        }
+
+        URLClassLoader classLoader() {
+            return classLoader;
+        }
+
+        synchronized void acquire() {
+            ++executions;
+        }
+
+        synchronized void release() {
+            --executions;
+            closeIfUnused();
+        }
+
+        /**
+         * Mark the loader as replaced, so that it is closed once the last execution using it finishes.
+         */
+        synchronized void replace() {
+            replaced = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if (replaced && executions == 0) {
+                try {
+                    classLoader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not close the isolated class loader", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * An object input stream that resolves classes only in the isolated class loader.
+     * Falling back to the loader of the caller would silently run the task with classes
+     * of the plugin realm, so a class missing from the isolated classpath fails the transfer.
+     */
+    private static final class IsolatedObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        IsolatedObjectInputStream(InputStream input, ClassLoader classLoader) throws IOException {
+            super(input);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws ClassNotFoundException {
+            return Class.forName(desc.getName(), false, classLoader);
+        }
+    }
+}
@@ -84,6 +84,25 @@ public @interface PluginTaskParameter {
      */
     boolean directory() default false;
 
+    /**
+     * Whether the task can process changes of the directory incrementally.
+     * Will only work for input parameters of type {@link java.io.File} that are directories.
+     * The {@link PluginTaskExecutable} method must then accept {@link PluginTaskChanges} as
+     * a parameter, which would contain the files added, modified and removed since the
+     * previous execution. Maven Mojos always perform a full execution.
+     *
+     * @return Whether the directory is processed incrementally
+     */
+    boolean incremental() default false;
+
+    /**
+     * Whether the task should be skipped if the files are empty.
+     * Will only work for input parameters that are lists or sets of {@link java.io.File}.
+     *
+     * @return Whether to skip the task when there are no files
+     */
+    boolean skipWhenEmpty() default false;
+
     /**
      * Whether the parameter is output of the task.
      * Most likely, the parameter is a file or directory.
@@ -95,7 +114,9 @@ public @interface PluginTaskParameter {
     /**
      * @return Path sensitivity to use for file parameters. This would reflect on how
      * task executions are cached. If the path is considered equal, task won't be executed again.
-     * This has no effect for Maven.
+     * For Maven, parameters with {@link PathSensitivity#NONE} are excluded from the generated build cache
+     * configuration, while other file parameters are hashed relative to the project.
+     * @see GenerateMavenMojo#pluginArtifactId()
      */
     PathSensitivity pathSensitivity() default PathSensitivity.ABSOLUTE;
 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * An annotation that marks a static factory method of a resource that is expensive to create,
+ * like parsed schemas or compiled templates.
+ * Should be inside a type annotated with {@link PluginTask}.
+ *
+ * <p>The method must have no parameters. The {@link PluginTaskExecutable} method can accept
+ * the created resource as a parameter. A Gradle plugin shares a single resource instance
+ * between all the tasks of a build using a build service, which requires tasks without worker
+ * isolation. The build service closes the resource at the end of the build if it is
+ * {@link AutoCloseable}. A Maven Mojo creates the resource for each execution.</p>
+ *
+ * @since 1.0.x
+ */
+@Documented
+@Retention(CLASS)
+@Target({ ElementType.METHOD })
+public @interface PluginTaskResource {
+
+}
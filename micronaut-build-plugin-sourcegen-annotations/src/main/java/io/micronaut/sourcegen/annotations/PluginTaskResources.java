@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+/**
+ * Utilities for the resources created by {@link PluginTaskResource} methods.
+ *
+ * @since 1.0.x
+ */
+public final class PluginTaskResources {
+
+    private PluginTaskResources() {
+    }
+
+    /**
+     * Close a resource if it is {@link AutoCloseable}.
+     * Called by the generated Gradle build services when Gradle closes them at the end of the build.
+     *
+     * @param resource The resource, or null if it was not created
+     */
+    public static void close(Object resource) {
+        if (resource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not close the task resource " + resource.getClass().getName(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.annotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * The state of a task execution, used by build tools without up-to-date checking.
+ * Task inputs and outputs are hashed and compared to the state recorded by the previous execution,
+ * so the execution can be skipped if nothing changed.
+ *
+ * <p>Files and directories are hashed by their contents, collections, maps and arrays by their
+ * elements and other {@link Serializable} values by their serialized form.
+ * If a value cannot be hashed, the execution is always considered out-of-date.</p>
+ *
+ * @since 1.0.x
+ */
+public final class PluginTaskState {
+
+    private static final String INPUT_PREFIX = "input.";
+    private static final String OUTPUT_PREFIX = "output.";
+    private static final String IMPLEMENTATION_KEY = "implementation";
+    private static final String UNHASHABLE = "unhashable";
+
+    private final File stateFile;
+    private final Map<String, Object> inputs = new LinkedHashMap<>();
+    private final Map<String, Object> outputs = new LinkedHashMap<>();
+    private Object implementation;
+
+    /**
+     * Create the state.
+     *
+     * @param stateFile The file the state is recorded in
+     */
+    public PluginTaskState(File stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Register an input of the task.
+     *
+     * @param name The parameter name
+     * @param value The value
+     * @return This state
+     */
+    public PluginTaskState input(String name, Object value) {
+        inputs.put(name, value);
+        return this;
+    }
+
+    /**
+     * Register the implementation of the task, so the state changes when the plugin is updated.
+     * The implementation is identified by the contents of the location it was loaded from.
+     *
+     * @param type The task type
+     * @return This state
+     */
+    public PluginTaskState implementation(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        implementation = type.getName();
+        if (codeSource != null && codeSource.getLocation() != null) {
+            try {
+                implementation = new File(codeSource.getLocation().toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                implementation = codeSource.getLocation().toString();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Register an output file or directory of the task.
+     *
+     * @param name The parameter name
+     * @param value The output file, directory or collection of them
+     * @return This state
+     */
+    public PluginTaskState output(String name, Object value) {
+        outputs.put(name, value);
+        return this;
+    }
+
+    /**
+     * Compare the current inputs and outputs to the recorded state.
+     *
+     * @return The reason the task must be executed or null if it is up-to-date
+     */
+    public String getOutOfDateReason() {
+        if (!stateFile.isFile()) {
+            return "there is no recorded state";
+        }
+        Properties previous = new Properties();
+        try (InputStream stream = Files.newInputStream(stateFile.toPath())) {
+            previous.load(stream);
+        } catch (IOException e) {
+            return "the recorded state could not be read";
+        }
+        Properties current = snapshot();
+        if (!previous.keySet().equals(current.keySet())) {
+            return "the parameters changed";
+        }
+        for (String key: current.stringPropertyNames()) {
+            if (current.getProperty(key).equals(UNHASHABLE)) {
+                return describe(key) + " cannot be hashed";
+            }
+            if (!current.getProperty(key).equals(previous.getProperty(key))) {
+                return describe(key) + " changed";
+            }
+        }
+        return null;
+    }
+
+    private static String describe(String key) {
+        if (key.startsWith(INPUT_PREFIX)) {
+            return "input '" + key.substring(INPUT_PREFIX.length()) + "'";
+        }
+        if (key.startsWith(OUTPUT_PREFIX)) {
+            return "output '" + key.substring(OUTPUT_PREFIX.length()) + "'";
+        }
+        return "the implementation";
+    }
+
+    /**
+     * Record the state after a successful execution.
+     */
+    public void save() {
+        Properties current = snapshot();
+        try {
+            Files.createDirectories(stateFile.toPath().getParent());
+            try (OutputStream stream = Files.newOutputStream(stateFile.toPath())) {
+                current.store(stream, null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record the task state in " + stateFile, e);
+        }
+    }
+
+    private Properties snapshot() {
+        Properties properties = new Properties();
+        if (implementation != null) {
+            properties.setProperty(IMPLEMENTATION_KEY, hash(implementation));
+        }
+        for (Map.Entry<String, Object> input: inputs.entrySet()) {
+            properties.setProperty(INPUT_PREFIX + input.getKey(), hash(input.getValue()));
+        }
+        for (Map.Entry<String, Object> output: outputs.entrySet()) {
+            properties.setProperty(OUTPUT_PREFIX + output.getKey(), hash(output.getValue()));
+        }
+        return properties;
+    }
+
+    private static String hash(Object value) {
+        byte[] digest = digest(value);
+        return digest == null ? UNHASHABLE : HexFormat.of().formatHex(digest);
+    }
+
+    /**
+     * Compute the digest of a value.
+     *
+     * @param value The value
+     * @return The digest or null if the value cannot be hashed
+     */
+    private static byte[] digest(Object value) {
+        MessageDigest digest = newDigest();
+        try {
+            if (!update(digest, value)) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return digest.digest();
+    }
+
+    private static boolean update(MessageDigest digest, Object value) throws IOException {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else if (value instanceof File file) {
+            updateFile(digest, file);
+        } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+            || value instanceof Character) {
+            digest.update((value.getClass().getName() + ':' + value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Enum<?> constant) {
+            digest.update((constant.getDeclaringClass().getName() + ':' + constant.name()).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Set<?> set && !(set instanceof SortedSet<?>)) {
+            // The iteration order of hash based sets can change between executions
+            return updateUnordered(digest, "set", set);
+        } else if (value instanceof Collection<?> collection) {
+            digest.update(("list:" + collection.size()).getBytes(StandardCharsets.UTF_8));
+            for (Object element: collection) {
+                if (!update(digest, element)) {
+                    return false;
+                }
+            }
+        } else if (value instanceof Object[] array) {
+            return update(digest, Arrays.asList(array));
+        } else if (value instanceof Map<?, ?> map) {
+            List<Object> entries = new ArrayList<>(map.size());
+            for (Map.Entry<?, ?> entry: map.entrySet()) {
+                entries.add(Arrays.asList(entry.getKey(), entry.getValue()));
+            }
+            return updateUnordered(digest, "map", entries);
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+                stream.writeObject(value);
+            } catch (ObjectStreamException e) {
+                // A field of the value is not serializable
+                return false;
+            }
+            digest.update(bytes.toByteArray());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean updateUnordered(MessageDigest digest, String kind, Collection<?> elements) {
+        List<String> hashes = new ArrayList<>(elements.size());
+        for (Object element: elements) {
+            byte[] elementDigest = digest(element);
+            if (elementDigest == null) {
+                return false;
+            }
+            hashes.add(HexFormat.of().formatHex(elementDigest));
+        }
+        Collections.sort(hashes);
+        digest.update((kind + ':' + hashes.size()).getBytes(StandardCharsets.UTF_8));
+        for (String hash: hashes) {
+            digest.update(hash.getBytes(StandardCharsets.UTF_8));
+        }
+        return true;
+    }
+
+    private static void updateFile(MessageDigest digest, File file) throws IOException {
+        digest.update(file.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child: children) {
+                    updateFile(digest, child);
+                }
+            }
+        } else if (file.isFile()) {
+            try (InputStream stream = Files.newInputStream(file.toPath())) {
+                stream.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            }
+        } else {
+            digest.update((byte) 0);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+plugins {
+    id("io.micronaut.build.internal.build-plugin-sourcegen-testsuite")
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmh(projects.micronautBuildPluginSourcegenGenerator)
+    jmh(projects.micronautBuildPluginSourcegenAnnotations)
+    jmh(mn.micronaut.inject.java.test)
+    jmh(mnSourcegen.micronaut.sourcegen.generator.java)
+    jmh(libs.jmh.core)
+    jmh(libs.jmh.generator.annprocess)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // The gc profiler reports allocation per operation next to the timings
+    profilers.add("gc")
+    includes.addAll(providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(listOf()))
+}
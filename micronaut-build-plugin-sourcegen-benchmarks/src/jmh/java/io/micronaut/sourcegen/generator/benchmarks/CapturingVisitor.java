@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.benchmarks;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.visitor.TypeElementVisitor;
+import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.sourcegen.annotations.GenerateGradlePlugin;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A visitor that hands the trigger element and the visitor context over to a benchmark.
+ * The compilation is parked inside {@link #visitClass} until the benchmark releases it,
+ * so the element stays valid while single phases of the generation are measured.
+ * It does nothing unless a capture was requested with {@link #capture()}.
+ */
+public final class CapturingVisitor implements TypeElementVisitor<GenerateGradlePlugin, Object> {
+
+    private static volatile Capture capture;
+
+    /**
+     * Request the next visited trigger to be captured.
+     *
+     * @return The capture
+     */
+    static Capture capture() {
+        Capture result = new Capture();
+        capture = result;
+        return result;
+    }
+
+    @Override
+    public @NonNull VisitorKind getVisitorKind() {
+        return VisitorKind.ISOLATING;
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationNames() {
+        return Set.of(GenerateGradlePlugin.class.getName());
+    }
+
+    @Override
+    public void visitClass(ClassElement element, VisitorContext context) {
+        Capture current = capture;
+        if (current == null || current.element != null) {
+            return;
+        }
+        capture = null;
+        current.element = element;
+        current.context = context;
+        current.captured.countDown();
+        try {
+            current.released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The captured trigger.
+     */
+    static final class Capture {
+
+        final CountDownLatch captured = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        volatile ClassElement element;
+        volatile VisitorContext context;
+
+    }
+
+}
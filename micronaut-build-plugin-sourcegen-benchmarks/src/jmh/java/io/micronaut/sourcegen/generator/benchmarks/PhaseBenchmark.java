@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.benchmarks;
+
+import io.micronaut.annotation.processing.test.JavaParser;
+import io.micronaut.inject.annotation.AbstractAnnotationMetadataBuilder;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.sourcegen.generator.SourceGenerator;
+import io.micronaut.sourcegen.generator.SourceGenerators;
+import io.micronaut.sourcegen.generator.benchmarks.SyntheticSources.Trigger;
+import io.micronaut.sourcegen.generator.visitors.ModelRegistry;
+import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils;
+import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradlePluginConfig;
+import io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleExtensionBuilder;
+import io.micronaut.sourcegen.generator.visitors.gradle.builder.GradlePluginBuilder;
+import io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleSpecificationBuilder;
+import io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleTaskBuilder;
+import io.micronaut.sourcegen.generator.visitors.maven.MavenMojoBuilder;
+import io.micronaut.sourcegen.generator.visitors.maven.MavenPluginUtils;
+import io.micronaut.sourcegen.generator.visitors.maven.MavenPluginUtils.MavenTaskConfig;
+import io.micronaut.sourcegen.model.ObjectDef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks single phases of the plugin generation for a synthetic task.
+ * The compilation is kept open by {@link CapturingVisitor}, so all the phases
+ * run against real compiler elements. Run with the {@code gc} profiler to
+ * get allocation per phase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmark {
+
+    @Param({"5", "50", "200", "1000"})
+    int parameters;
+
+    private CapturingVisitor.Capture capture;
+    private Thread compilation;
+    private ClassElement element;
+    private VisitorContext context;
+    private GradlePluginConfig pluginConfig;
+    private List<MavenTaskConfig> mavenConfigs;
+    private List<ObjectDef> definitions;
+    private SourceGenerator sourceGenerator;
+
+    @Setup
+    public void setup() throws Exception {
+        String source = SyntheticSources.source(parameters, Trigger.ALL);
+        capture = CapturingVisitor.capture();
+        compilation = new Thread(() -> {
+            AbstractAnnotationMetadataBuilder.clearMutated();
+            try (JavaParser parser = new JavaParser()) {
+                parser.generate(SyntheticSources.TASK, source);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, "benchmark-compilation");
+        compilation.start();
+        capture.captured.await();
+        element = capture.element;
+        context = capture.context;
+
+        pluginConfig = gradleConfigExtraction();
+        mavenConfigs = mavenConfigExtraction();
+        definitions = new ArrayList<>();
+        definitions.addAll(new GradleTaskBuilder().build(pluginConfig));
+        definitions.addAll(new GradleExtensionBuilder().build(pluginConfig));
+        definitions.addAll(new GradleSpecificationBuilder().build(pluginConfig));
+        definitions.addAll(new GradlePluginBuilder().build(pluginConfig));
+        for (MavenTaskConfig mavenConfig : mavenConfigs) {
+            definitions.add(new MavenMojoBuilder().build(mavenConfig));
+        }
+        sourceGenerator = SourceGenerators.findByLanguage(context.getLanguage()).orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        capture.released.countDown();
+        compilation.join();
+    }
+
+    @Benchmark
+    public GradlePluginConfig gradleConfigExtraction() {
+        return GradlePluginUtils.getPluginConfig(element, context);
+    }
+
+    @Benchmark
+    public List<MavenTaskConfig> mavenConfigExtraction() {
+        return MavenPluginUtils.getTaskConfigs(element, context, ModelRegistry.of(element, "Maven", MavenPluginUtils.copyModels(element)));
+    }
+
+    @Benchmark
+    public List<ObjectDef> gradleTaskBuilder() {
+        return new GradleTaskBuilder().build(pluginConfig);
+    }
+
+    @Benchmark
+    public List<ObjectDef> gradleExtensionBuilder() {
+        return new GradleExtensionBuilder().build(pluginConfig);
+    }
+
+    @Benchmark
+    public List<ObjectDef> gradleSpecificationBuilder() {
+        return new GradleSpecificationBuilder().build(pluginConfig);
+    }
+
+    @Benchmark
+    public List<ObjectDef> gradlePluginBuilder() {
+        return new GradlePluginBuilder().build(pluginConfig);
+    }
+
+    @Benchmark
+    public List<ObjectDef> mavenMojoBuilder() {
+        List<ObjectDef> result = new ArrayList<>(mavenConfigs.size());
+        for (MavenTaskConfig mavenConfig : mavenConfigs) {
+            result.add(new MavenMojoBuilder().build(mavenConfig));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long sourceGeneratorWrite() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        for (ObjectDef definition : definitions) {
+            sourceGenerator.write(definition, writer);
+        }
+        return writer.count;
+    }
+
+    /**
+     * A writer that only counts the written characters.
+     */
+    private static final class CountingWriter extends Writer {
+
+        private long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.benchmarks;
+
+import io.micronaut.annotation.processing.test.JavaParser;
+import io.micronaut.inject.annotation.AbstractAnnotationMetadataBuilder;
+import io.micronaut.sourcegen.generator.benchmarks.SyntheticSources.Trigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.JavaFileObject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a whole annotation processing run for a synthetic task.
+ * The validating visitor always runs, since the task is annotated with {@code @PluginTask},
+ * so the trigger visitors are measured on top of it.
+ * Run with {@code ./gradlew :micronaut-build-plugin-sourcegen-benchmarks:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessorBenchmark {
+
+    @Param({"5", "50", "200", "1000"})
+    int parameters;
+
+    private String validatingSource;
+    private String gradleSource;
+    private String mavenSource;
+
+    @Setup
+    public void setup() {
+        validatingSource = SyntheticSources.source(parameters, Trigger.NONE);
+        gradleSource = SyntheticSources.source(parameters, Trigger.GRADLE);
+        mavenSource = SyntheticSources.source(parameters, Trigger.MAVEN);
+    }
+
+    @Benchmark
+    public int pluginTaskConfigValidatingVisitor() throws Exception {
+        return generate(validatingSource);
+    }
+
+    @Benchmark
+    public int gradlePluginGenerationTriggerAnnotationVisitor() throws Exception {
+        return generate(gradleSource);
+    }
+
+    @Benchmark
+    public int mavenMojoGenerationTriggerAnnotationVisitor() throws Exception {
+        return generate(mavenSource);
+    }
+
+    private int generate(String source) throws Exception {
+        AbstractAnnotationMetadataBuilder.clearMutated();
+        int count = 0;
+        try (JavaParser parser = new JavaParser()) {
+            for (JavaFileObject ignored : parser.generate(SyntheticSources.TASK, source)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
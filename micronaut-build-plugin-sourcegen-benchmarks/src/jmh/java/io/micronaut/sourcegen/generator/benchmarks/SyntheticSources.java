@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.benchmarks;
+
+/**
+ * Generates synthetic sources with a {@code @PluginTask} of a configurable size.
+ * Parameters cycle through simple values, collections, enums and POJOs, where POJOs
+ * reference a nested POJO list and an enum.
+ */
+final class SyntheticSources {
+
+    static final String PACKAGE = "bench";
+    static final String TASK = PACKAGE + ".BenchTask";
+    static final String TRIGGER = PACKAGE + ".BenchTrigger";
+
+    private SyntheticSources() {
+    }
+
+    /**
+     * The triggers to add to the generated source.
+     */
+    enum Trigger {
+        NONE,
+        GRADLE,
+        MAVEN,
+        ALL
+    }
+
+    /**
+     * Generate a source with a task and the requested triggers.
+     *
+     * @param parameters The number of task parameters
+     * @param trigger The triggers to add
+     * @return The source code
+     */
+    static String source(int parameters, Trigger trigger) {
+        int models = Math.max(1, parameters / 10);
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE).append(";\n\n")
+            .append("import io.micronaut.sourcegen.annotations.*;\n")
+            .append("import java.io.File;\n")
+            .append("import java.util.List;\n")
+            .append("import java.util.Map;\n\n");
+
+        if (trigger == Trigger.GRADLE || trigger == Trigger.ALL) {
+            source.append("@GenerateGradlePlugin(micronautPlugin = false, tasks = @GenerateGradlePlugin.GenerateGradleTask(source = \"")
+                .append(TASK).append("\"))\n");
+        }
+        if (trigger == Trigger.MAVEN || trigger == Trigger.ALL) {
+            source.append("@GenerateMavenMojo(micronautPlugin = false, source = \"").append(TASK).append("\")\n");
+        }
+        source.append("final class BenchTrigger {\n}\n\n");
+
+        source.append("/**\n * A synthetic task.\n");
+        for (int i = 0; i < parameters; i++) {
+            source.append(" * @param p").append(i).append(" Parameter number ").append(i).append('\n');
+        }
+        source.append(" */\n@PluginTask\npublic record BenchTask(\n");
+        for (int i = 0; i < parameters; i++) {
+            source.append("    ").append(parameter(i, models)).append(i < parameters - 1 ? ",\n" : "\n");
+        }
+        source.append(") {\n\n")
+            .append("    /**\n     * Run the task.\n     */\n")
+            .append("    @PluginTaskExecutable\n    public void run() {\n    }\n}\n\n");
+
+        source.append("/**\n * A synthetic level.\n */\nenum Level {\n    LOW,\n    MEDIUM,\n    HIGH\n}\n\n");
+        source.append("/**\n * A synthetic item.\n *\n * @param value The value\n * @param level The level\n */\n")
+            .append("record Item(int value, Level level) {\n}\n\n");
+        for (int i = 0; i < models; i++) {
+            source.append("/**\n * A synthetic model.\n *\n * @param name The name\n * @param level The level\n * @param items The items\n */\n")
+                .append("record Model").append(i).append("(String name, Level level, List<Item> items) {\n}\n\n");
+        }
+        return source.toString();
+    }
+
+    private static String parameter(int i, int models) {
+        return switch (i % 8) {
+            case 0 -> "@PluginTaskParameter(required = true) String p" + i;
+            case 1 -> "@PluginTaskParameter(defaultValue = \"1\") Integer p" + i;
+            case 2 -> "List<String> p" + i;
+            case 3 -> "Map<String, String> p" + i;
+            case 4 -> "@PluginTaskParameter(defaultValue = \"LOW\") Level p" + i;
+            case 5 -> "Model" + (i % models) + " p" + i;
+            case 6 -> "List<Item> p" + i;
+            default -> "@PluginTaskParameter(output = true, directory = true) File p" + i;
+        };
+    }
+
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.visitors;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.FieldElement;
+import io.micronaut.inject.ast.MethodElement;
+import io.micronaut.inject.ast.ParameterElement;
+import io.micronaut.inject.ast.PropertyElement;
+import io.micronaut.inject.processing.ProcessingException;
+import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.sourcegen.annotations.PluginTask;
+import io.micronaut.sourcegen.annotations.PluginTaskChanges;
+import io.micronaut.sourcegen.annotations.PluginTaskExecutable;
+import io.micronaut.sourcegen.annotations.PluginTaskParameter;
+import io.micronaut.sourcegen.generator.visitors.JavadocUtils.TypeJavadoc;
+import io.micronaut.sourcegen.model.ClassTypeDef;
+import io.micronaut.sourcegen.model.TypeDef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The analysed structure of a type annotated with {@link PluginTask} or of a model it references.
+ * The analysis is done once per processing and shared by all the visitors and builders,
+ * so that the element is traversed only once, even if both Gradle and Maven plugins are generated for it.
+ * The data needed to generate the instantiation and execution is read from the element eagerly,
+ * so that the sources can be built without querying the element.
+ *
+ * @param source The analysed type
+ * @param type The type definition of the analysed type
+ * @param properties The bean properties
+ * @param executable The method annotated with {@link io.micronaut.sourcegen.annotations.PluginTaskExecutable},
+ *                   null for models
+ * @param executableName The name of the executable method, null for models
+ * @param executableArguments The arguments the executable method accepts in order
+ * @param resourceFactory The method annotated with {@link io.micronaut.sourcegen.annotations.PluginTaskResource},
+ *                        null if the task has no resource or for models
+ * @param resourceFactoryName The name of the resource factory method, null if there is none
+ * @param resourceType The type of the task resource, null if there is none
+ * @param constructor The constructor to use for instantiation, null for enums
+ * @param constructorParameterTypes The types of the constructor parameters in order
+ * @param constructorArguments The names of the constructor parameters in order,
+ *                             which are the properties for records
+ * @param writableProperties The properties that are set after instantiation
+ * @param javadoc The javadoc
+ * @param models The model types referenced by properties directly
+ */
+@Internal
+public record AnalysedType(
+    @NonNull ClassElement source,
+    @NonNull ClassTypeDef type,
+    @NonNull List<PropertyElement> properties,
+    @Nullable MethodElement executable,
+    @Nullable String executableName,
+    @NonNull List<ExecutableArgument> executableArguments,
+    @Nullable MethodElement resourceFactory,
+    @Nullable String resourceFactoryName,
+    @Nullable TypeDef resourceType,
+    @Nullable MethodElement constructor,
+    @NonNull List<TypeDef> constructorParameterTypes,
+    @NonNull List<String> constructorArguments,
+    @NonNull List<WritableProperty> writableProperties,
+    @NonNull TypeJavadoc javadoc,
+    @NonNull List<ClassElement> models
+) {
+
+    private static final String CONTEXT_KEY = AnalysedType.class.getName();
+
+    /**
+     * Get the analysed type for an element.
+     * The result is memoized for the current processing.
+     *
+     * @param context The visitor context
+     * @param element The element annotated with {@link PluginTask} or a model
+     * @return The analysed type
+     */
+    public static @NonNull AnalysedType of(@NonNull VisitorContext context, @NonNull ClassElement element) {
+        Map<String, AnalysedType> analysed = getAnalysed(context);
+        AnalysedType result = analysed.get(element.getName());
+        if (result == null) {
+            result = analyse(context, element);
+            AnalysedType existing = analysed.putIfAbsent(element.getName(), result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The name of the executable method, which is required for tasks
+     */
+    public @NonNull String requiredExecutableName() {
+        if (executableName == null) {
+            throw new ProcessingException(source, "Expected exactly one method annotated with @PluginTaskExecutable but found 0");
+        }
+        return executableName;
+    }
+
+    /**
+     * @return Whether the executable accepts {@link PluginTaskChanges} for incremental execution
+     */
+    public boolean acceptsChanges() {
+        return executableArguments.contains(ExecutableArgument.CHANGES);
+    }
+
+    /**
+     * @return Whether the executable accepts the task resource
+     */
+    public boolean acceptsResource() {
+        return executableArguments.contains(ExecutableArgument.RESOURCE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized Map<String, AnalysedType> getAnalysed(VisitorContext context) {
+        Map<String, AnalysedType> analysed = context.get(CONTEXT_KEY, Map.class).orElse(null);
+        if (analysed == null) {
+            analysed = new ConcurrentHashMap<>();
+            context.put(CONTEXT_KEY, analysed);
+        }
+        return analysed;
+    }
+
+    private static AnalysedType analyse(VisitorContext context, ClassElement element) {
+        TypeJavadoc javadoc = JavadocUtils.getJavadoc(context, element);
+        ClassTypeDef type = ClassTypeDef.of(element);
+        if (element.isEnum()) {
+            return new AnalysedType(
+                element, type, List.of(), null, null, List.of(), null, null, null, null, List.of(), List.of(), List.of(), javadoc, List.of()
+            );
+        }
+        boolean isTask = element.hasAnnotation(PluginTask.class)
+            || element.getMethods().stream().anyMatch(m -> m.hasAnnotation(PluginTaskExecutable.class));
+        MethodElement executable = isTask ? PluginUtils.getTaskExecutable(element) : null;
+        MethodElement resourceFactory = isTask ? PluginUtils.getTaskResourceFactory(element) : null;
+        List<ExecutableArgument> executableArguments = new ArrayList<>();
+        if (executable != null) {
+            for (ParameterElement parameter: executable.getParameters()) {
+                executableArguments.add(PluginUtils.isChangesParameter(parameter)
+                    ? ExecutableArgument.CHANGES : ExecutableArgument.RESOURCE);
+            }
+        }
+
+        List<PropertyElement> properties = element.getBeanProperties();
+        if (executable != null && Arrays.stream(executable.getParameters()).noneMatch(PluginUtils::isChangesParameter)) {
+            for (PropertyElement property: properties) {
+                if (property.booleanValue(PluginTaskParameter.class, "incremental").orElse(false)) {
+                    throw new ProcessingException(property, "Parameter " + property.getName()
+                        + " is incremental, but the @PluginTaskExecutable method does not accept "
+                        + PluginTaskChanges.class.getSimpleName());
+                }
+            }
+        }
+        Map<String, ClassElement> models = new LinkedHashMap<>();
+        for (PropertyElement property: properties) {
+            collectReferencedModels(property.getType(), models);
+        }
+
+        MethodElement constructor = element.getPrimaryConstructor().orElse(null);
+        List<TypeDef> constructorParameterTypes = new ArrayList<>();
+        List<String> constructorArguments = new ArrayList<>();
+        List<WritableProperty> writableProperties = new ArrayList<>();
+        if (constructor != null) {
+            for (ParameterElement parameter: constructor.getParameters()) {
+                constructorParameterTypes.add(TypeDef.of(parameter.getType()));
+            }
+            if (element.isRecord()) {
+                for (PropertyElement property: properties) {
+                    constructorArguments.add(property.getName());
+                }
+            } else {
+                for (ParameterElement parameter: constructor.getParameters()) {
+                    constructorArguments.add(parameter.getName());
+                }
+                for (PropertyElement property: properties) {
+                    if (!constructorArguments.contains(property.getName()) && isWritable(property)) {
+                        writableProperties.add(new WritableProperty(
+                            property.getName(),
+                            property.getWriteMethod().map(MethodElement::getName).orElse(null),
+                            property.getField().map(FieldElement::getName).orElse(property.getName()),
+                            TypeDef.of(property.getType())
+                        ));
+                    }
+                }
+            }
+        }
+        return new AnalysedType(
+            element,
+            type,
+            properties,
+            executable,
+            executable != null ? executable.getName() : null,
+            executableArguments,
+            resourceFactory,
+            resourceFactory != null ? resourceFactory.getName() : null,
+            resourceFactory != null ? TypeDef.of(resourceFactory.getReturnType()) : null,
+            constructor,
+            constructorParameterTypes,
+            constructorArguments,
+            writableProperties,
+            javadoc,
+            List.copyOf(models.values())
+        );
+    }
+
+    private static boolean isWritable(PropertyElement property) {
+        return property.getWriteMethod().isPresent()
+            || (property.getField().isPresent() && (property.isPublic() || property.isPackagePrivate()));
+    }
+
+    private static void collectReferencedModels(ClassElement type, Map<String, ClassElement> models) {
+        if (type.isArray()) {
+            collectReferencedModels(type.fromArray(), models);
+        } else if (ModelUtils.isModel(type)) {
+            models.putIfAbsent(type.getName(), type);
+        } else if (type.isAssignable(Map.class) || type.isAssignable(Collection.class)) {
+            for (ClassElement typeArgument: type.getTypeArguments().values()) {
+                collectReferencedModels(typeArgument, models);
+            }
+        }
+    }
+
+    /**
+     * The kind of argument the executable method accepts.
+     */
+    public enum ExecutableArgument {
+        /**
+         * The {@link PluginTaskChanges} for incremental execution.
+         */
+        CHANGES,
+        /**
+         * The task resource.
+         */
+        RESOURCE
+    }
+
+    /**
+     * A property that is set after instantiation.
+     *
+     * @param name The property name
+     * @param writeMethod The name of the setter, null if the field is assigned
+     * @param field The name of the field
+     * @param type The property type
+     */
+    public record WritableProperty(
+        @NonNull String name,
+        @Nullable String writeMethod,
+        @NonNull String field,
+        @NonNull TypeDef type
+    ) {
+    }
+
+}
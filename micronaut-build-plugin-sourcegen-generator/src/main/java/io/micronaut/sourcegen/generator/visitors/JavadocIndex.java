@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.visitors;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.sourcegen.generator.visitors.JavadocUtils.TypeJavadoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * A compact binary index of javadoc for all the plugin types of a compilation unit.
+ *
+ * <p>The index starts with a header of magic number, version and type count. It is followed by
+ * a type table, sorted by type name, with fixed-size entries of name and data offsets,
+ * so that a type is found with a binary search. Strings are stored as their UTF-8 length
+ * followed by the bytes, where length {@code -1} represents {@code null}.</p>
+ */
+@Internal
+public final class JavadocIndex {
+
+    private static final int MAGIC = 0x4D504A44;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int TABLE_ENTRY_SIZE = 8;
+
+    private final ByteBuffer buffer;
+    private final int count;
+
+    private JavadocIndex(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * Read an index.
+     *
+     * @param inputStream The stream with index content
+     * @return The index
+     * @throws IOException If the stream cannot be read or is not an index
+     */
+    public static @NonNull JavadocIndex read(@NonNull InputStream inputStream) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(inputStream.readAllBytes());
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a javadoc index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported javadoc index version " + buffer.getInt(4));
+        }
+        return new JavadocIndex(buffer, buffer.getInt(8));
+    }
+
+    /**
+     * Write an index.
+     *
+     * @param javadocs The javadoc by type name
+     * @return The index content
+     */
+    @NonNull
+    public static byte[] write(@NonNull SortedMap<String, TypeJavadoc> javadocs) {
+        try {
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            DataOutputStream dataOutput = new DataOutputStream(data);
+            int dataStart = HEADER_SIZE + javadocs.size() * TABLE_ENTRY_SIZE;
+            int[] offsets = new int[javadocs.size() * 2];
+            int i = 0;
+            for (Entry<String, TypeJavadoc> entry: javadocs.entrySet()) {
+                offsets[i++] = dataStart + dataOutput.size();
+                writeString(dataOutput, entry.getKey());
+                offsets[i++] = dataStart + dataOutput.size();
+                TypeJavadoc javadoc = entry.getValue();
+                writeString(dataOutput, javadoc.javadoc().orElse(null));
+                dataOutput.writeInt(javadoc.elements().size());
+                for (Entry<String, String> element: javadoc.elements().entrySet()) {
+                    writeString(dataOutput, element.getKey());
+                    writeString(dataOutput, element.getValue());
+                }
+            }
+            dataOutput.flush();
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream(dataStart + data.size());
+            DataOutputStream output = new DataOutputStream(result);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(javadocs.size());
+            for (int offset: offsets) {
+                output.writeInt(offset);
+            }
+            data.writeTo(output);
+            output.flush();
+            return result.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write javadoc index", e);
+        }
+    }
+
+    /**
+     * Find the javadoc of a type.
+     *
+     * @param typeName The type name
+     * @return The javadoc if the type is in the index
+     */
+    public @NonNull Optional<TypeJavadoc> find(@NonNull String typeName) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_SIZE + middle * TABLE_ENTRY_SIZE;
+            int comparison = readString(buffer.getInt(entry)).compareTo(typeName);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return Optional.of(readJavadoc(buffer.getInt(entry + 4)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private TypeJavadoc readJavadoc(int offset) {
+        ByteBuffer data = buffer.duplicate();
+        data.position(offset);
+        String javadoc = readString(data);
+        int size = data.getInt();
+        Map<String, String> elements = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            elements.put(readString(data), readString(data));
+        }
+        return new TypeJavadoc(Optional.ofNullable(javadoc), elements);
+    }
+
+    private String readString(int offset) {
+        ByteBuffer data = buffer.duplicate();
+        data.position(offset);
+        return readString(data);
+    }
+
+    private static @Nullable String readString(ByteBuffer data) {
+        int length = data.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(data.array(), data.arrayOffset() + data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return value;
+    }
+
+    private static void writeString(DataOutputStream output, @Nullable String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+}
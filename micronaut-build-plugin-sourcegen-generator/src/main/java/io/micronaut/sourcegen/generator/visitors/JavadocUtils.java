@@ -27,38 +27,160 @@ import io.micronaut.inject.ast.MethodElement;
 import io.micronaut.inject.ast.PropertyElement;
 import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats.Measurement;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * A utility class for javadoc.
- * Since processed task might be in a dependency, it helps with writing it javadoc info
- * in a META-INF file and reading it from the file.
+ * Since processed task might be in a dependency, it helps with writing its javadoc info
+ * in a META-INF index and reading it from the index.
  */
 @Internal
 public class JavadocUtils {
 
     public static final String META_INF_FOLDER = "micronaut-plugin-gen/";
     public static final String META_INF_EXTENSION = ".javadoc.txt";
+    public static final String INDEX_FILE = META_INF_FOLDER + "javadoc.idx";
+
+    private static final String CONTEXT_KEY = JavadocUtils.class.getName();
 
     /**
      * Get the javadoc for a task. Task class element may be in a dependency.
-     * It will read the {@code .javadoc.txt} file written by plugin task visitor.
+     * It will look the type up in the {@code javadoc.idx} indices written by plugin task visitor,
+     * falling back to the legacy {@code .javadoc.txt} files.
      *
      * @param context The visitor context
      * @param element The element annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}.
      * @return The javadoc
      */
     public static @NonNull TypeJavadoc getTaskJavadoc(VisitorContext context, ClassElement element) {
+        Caches caches = getCaches(context);
+        TypeJavadoc cached = caches.taskJavadocs.get(element.getName());
+        if (cached != null) {
+            return cached;
+        }
+        TypeJavadoc result = null;
+        try (Measurement ignored = ProcessingStats.get(context).measure(ProcessingStats.JAVADOC_LOADING)) {
+            for (JavadocIndex index: getIndices(caches, element)) {
+                Optional<TypeJavadoc> javadoc = index.find(element.getName());
+                if (javadoc.isPresent()) {
+                    result = javadoc.get();
+                    break;
+                }
+            }
+            if (result == null) {
+                result = getLegacyTaskJavadoc(context, caches, element);
+            }
+        }
+        cached = caches.taskJavadocs.putIfAbsent(element.getName(), result);
+        return cached != null ? cached : result;
+    }
+
+    /**
+     * Get the javadoc for a type analysed for plugin generation.
+     * Types of the current compilation are read from the source, since they are not in any index
+     * on the processor path, or only in a stale one of an older build of the same module.
+     * Types from binaries are looked up with {@link #getTaskJavadoc(VisitorContext, ClassElement)}.
+     *
+     * @param context The visitor context
+     * @param element The task or model element
+     * @return The javadoc
+     */
+    public static @NonNull TypeJavadoc getJavadoc(VisitorContext context, ClassElement element) {
+        Caches caches = getCaches(context);
+        if (caches.sourceTypes.contains(element.getName())) {
+            return getSourceJavadoc(caches, element);
+        }
+        return getTaskJavadoc(context, element);
+    }
+
+    /**
+     * Register a type as a source element of the current compilation,
+     * so its javadoc is read from the source.
+     *
+     * @param context The visitor context
+     * @param element The source element
+     */
+    public static void addSourceType(VisitorContext context, ClassElement element) {
+        getCaches(context).sourceTypes.add(element.getName());
+    }
+
+    /**
+     * Write the javadoc index for the given types.
+     *
+     * @param context The visitor context
+     * @param elements The source elements
+     * @return The index content
+     */
+    public static byte[] writeJavadocIndex(VisitorContext context, Collection<ClassElement> elements) {
+        Caches caches = getCaches(context);
+        SortedMap<String, TypeJavadoc> javadocs = new TreeMap<>();
+        for (ClassElement element: elements) {
+            javadocs.put(element.getName(), getSourceJavadoc(caches, element));
+        }
+        return JavadocIndex.write(javadocs);
+    }
+
+    /**
+     * Get the caches of the current compilation.
+     * They are kept in the visitor context, so compilations running concurrently in one JVM
+     * do not share them, and they are released together with the compilation.
+     *
+     * @param context The visitor context
+     * @return The caches
+     */
+    private static synchronized Caches getCaches(VisitorContext context) {
+        Caches caches = context.get(CONTEXT_KEY, Caches.class).orElse(null);
+        if (caches == null) {
+            caches = new Caches();
+            context.put(CONTEXT_KEY, caches);
+        }
+        return caches;
+    }
+
+    private static List<JavadocIndex> getIndices(Caches caches, ClassElement element) {
+        List<JavadocIndex> result = caches.indices;
+        if (result != null) {
+            return result;
+        }
+        result = new ArrayList<>();
+        ClassLoader classLoader = JavadocUtils.class.getClassLoader();
+        try {
+            Enumeration<URL> resources = classLoader.getResources("META-INF/" + INDEX_FILE);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (InputStream inputStream = resource.openStream()) {
+                    result.add(JavadocIndex.read(inputStream));
+                }
+            }
+        } catch (IOException e) {
+            throw new ProcessingException(element, "Could not read javadoc index META-INF/" + INDEX_FILE, e);
+        }
+        caches.indices = result;
+        return result;
+    }
+
+    private static @NonNull TypeJavadoc getLegacyTaskJavadoc(VisitorContext context, Caches caches, ClassElement element) {
         String javadocMetaPath = "META-INF/" + META_INF_FOLDER + element.getName() + META_INF_EXTENSION;
         ClassLoader classLoader = JavadocUtils.class.getClassLoader();
 
@@ -79,14 +201,14 @@ public class JavadocUtils {
                     }
                 }
             } else {
-                context.warn("Could not find javadoc META-INF file " + javadocMetaPath + " for type", element);
+                context.warn("Could not find javadoc index entry or META-INF file " + javadocMetaPath + " for type", element);
             }
         } catch (IOException e) {
             throw new ProcessingException(element, "Could not read javadoc META-INF file " + javadocMetaPath + " for type" , e);
         }
 
         if (javadoc == null && elements.isEmpty()) {
-            return getSourceJavadoc(element);
+            return getSourceJavadoc(caches, element);
         }
         if (javadoc != null && javadoc.isEmpty()) {
             javadoc = null;
@@ -97,71 +219,29 @@ public class JavadocUtils {
         );
     }
 
-    /**
-     * Write javadoc meta info that could be parsed from a file.
-     *
-     * @param element The source element.
-     * @return The info
-     */
-    public static String writeJavadocInfo(ClassElement element) {
-        StringBuilder result = new StringBuilder();
-
-        TypeJavadoc javadoc = getSourceJavadoc(element);
-        result.append(formatJavadocInfo(javadoc.javadoc.orElse("")))
-            .append('\n');
-        for (Entry<String, String> entry: javadoc.elements.entrySet()) {
-            result.append(entry.getKey())
-                .append(' ')
-                .append(formatJavadocInfo(entry.getValue()))
-                .append('\n');
-        }
-        return result.toString();
-    }
-
-    private static @NonNull TypeJavadoc getSourceJavadoc(ClassElement element) {
+    private static @NonNull TypeJavadoc getSourceJavadoc(Caches caches, ClassElement element) {
+        TypeJavadoc cached = caches.sourceJavadocs.get(element.getName());
+        if (cached != null) {
+            return cached;
+        }
         Javadoc parsed = StaticJavaParser.parseJavadoc(element.getDocumentation().orElse(""));
         String javadoc = parsed.getDescription().toText();
-        Map<String, String> elements = new LinkedHashMap<>();
+        Map<String, String> params = new LinkedHashMap<>();
 
         for (JavadocBlockTag tag: parsed.getBlockTags()) {
             if (tag.getType() == Type.PARAM) {
-                elements.put(tag.getName().orElse(null), tag.getContent().toText() + ".");
-            }
-        }
-        for (PropertyElement property: element.getBeanProperties()) {
-            Optional<String> propertyDoc = property.getDocumentation();
-            Optional<String> fieldDoc = property.getField().flatMap(Element::getDocumentation);
-            if (propertyDoc.isPresent()) {
-                elements.put(property.getName(), propertyDoc.get());
-            } else if (fieldDoc.isPresent()) {
-                elements.put(property.getName(), fieldDoc.get());
-            }
-        }
-        for (MethodElement method: element.getMethods()) {
-            Optional<String> methodDoc = method.getDocumentation();
-            if (methodDoc.isPresent()) {
-                String key = method.getName() + Arrays.stream(method.getParameters()).map(p -> p.getType().getName())
-                    .collect(Collectors.joining(",")) + "()";
-                elements.put(key, methodDoc.get());
+                params.put(tag.getName().orElse(null), tag.getContent().toText() + ".");
             }
         }
         if (javadoc.isEmpty()) {
             javadoc = null;
         }
-        return new TypeJavadoc(
+        TypeJavadoc result = new TypeJavadoc(
             Optional.ofNullable(javadoc),
-            elements
+            new SourceElementsJavadoc(element, params)
         );
-    }
-
-    private static String formatJavadocInfo(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value
-            .replaceAll("\n\\s+", "\n")
-            .replace("\\", "\\\\")
-            .replace("\n", "\\n");
+        cached = caches.sourceJavadocs.putIfAbsent(element.getName(), result);
+        return cached != null ? cached : result;
     }
 
     private static String parseJavadocInfo(String line) {
@@ -169,6 +249,114 @@ public class JavadocUtils {
             .replace("\\\\", "\\");
     }
 
+    /**
+     * The javadoc caches of a compilation.
+     */
+    private static final class Caches {
+
+        private final Map<String, TypeJavadoc> taskJavadocs = new ConcurrentHashMap<>();
+        private final Map<String, TypeJavadoc> sourceJavadocs = new ConcurrentHashMap<>();
+        private final Set<String> sourceTypes = ConcurrentHashMap.newKeySet();
+        private volatile List<JavadocIndex> indices;
+    }
+
+    /**
+     * The javadoc of elements of a source type.
+     * Documentation of a property or method is only read when its key is requested,
+     * so large types do not pay for documentation that is never used.
+     */
+    private static final class SourceElementsJavadoc extends AbstractMap<String, String> {
+
+        private final ClassElement element;
+        private final Map<String, String> params;
+        private final Map<String, Optional<String>> resolved = new HashMap<>();
+        private Map<String, PropertyElement> properties;
+        private Map<String, MethodElement> methods;
+        private Map<String, String> all;
+
+        private SourceElementsJavadoc(ClassElement element, Map<String, String> params) {
+            this.element = element;
+            this.params = params;
+        }
+
+        @Override
+        public synchronized String get(Object key) {
+            if (all != null) {
+                return all.get(key);
+            }
+            if (!(key instanceof String name)) {
+                return null;
+            }
+            return resolved.computeIfAbsent(name, this::resolve).orElse(null);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public synchronized Set<Entry<String, String>> entrySet() {
+            return getAll().entrySet();
+        }
+
+        private Optional<String> resolve(String key) {
+            if (methods == null) {
+                methods = new HashMap<>();
+                for (MethodElement method: element.getMethods()) {
+                    methods.putIfAbsent(methodKey(method), method);
+                }
+                properties = new HashMap<>();
+                for (PropertyElement property: element.getBeanProperties()) {
+                    properties.put(property.getName(), property);
+                }
+            }
+            MethodElement method = methods.get(key);
+            if (method != null) {
+                Optional<String> methodDoc = method.getDocumentation();
+                if (methodDoc.isPresent()) {
+                    return methodDoc;
+                }
+            }
+            PropertyElement property = properties.get(key);
+            if (property != null) {
+                Optional<String> propertyDoc = propertyDocumentation(property);
+                if (propertyDoc.isPresent()) {
+                    return propertyDoc;
+                }
+            }
+            return Optional.ofNullable(params.get(key));
+        }
+
+        private Map<String, String> getAll() {
+            if (all != null) {
+                return all;
+            }
+            Map<String, String> elements = new LinkedHashMap<>(params);
+            for (PropertyElement property: element.getBeanProperties()) {
+                propertyDocumentation(property).ifPresent(doc -> elements.put(property.getName(), doc));
+            }
+            for (MethodElement method: element.getMethods()) {
+                method.getDocumentation().ifPresent(doc -> elements.put(methodKey(method), doc));
+            }
+            all = elements;
+            return all;
+        }
+
+        private static Optional<String> propertyDocumentation(PropertyElement property) {
+            Optional<String> propertyDoc = property.getDocumentation();
+            if (propertyDoc.isPresent()) {
+                return propertyDoc;
+            }
+            return property.getField().flatMap(Element::getDocumentation);
+        }
+
+        private static String methodKey(MethodElement method) {
+            return method.getName() + Arrays.stream(method.getParameters()).map(p -> p.getType().getName())
+                .collect(Collectors.joining(",")) + "()";
+        }
+    }
+
     /**
      * A holder of javadoc for a type.
      *
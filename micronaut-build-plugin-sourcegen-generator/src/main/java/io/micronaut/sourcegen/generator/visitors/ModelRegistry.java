@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.visitors;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
+import io.micronaut.sourcegen.model.ClassTypeDef;
+import io.micronaut.sourcegen.model.MethodDef;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A registry of models copied for a single plugin trigger.
+ * Models are indexed by the source type name and shared by all tasks of the plugin,
+ * so each model type is analysed and copied only once.
+ */
+@Internal
+public final class ModelRegistry {
+
+    private final String packageName;
+    private final String convertersName;
+    private final boolean copyModels;
+    private final Map<String, GeneratedModel> models = new LinkedHashMap<>();
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    private final Map<String, MethodDef> converters = new LinkedHashMap<>();
+
+    /**
+     * Create a registry.
+     *
+     * @param packageName The package name to use for copied models
+     * @param convertersName The simple name of the class holding converters of the models
+     * @param copyModels Whether models are copied, otherwise the original types are used
+     */
+    public ModelRegistry(@NonNull String packageName, @NonNull String convertersName, boolean copyModels) {
+        this.packageName = packageName;
+        this.convertersName = convertersName;
+        this.copyModels = copyModels;
+    }
+
+    /**
+     * Create a registry for a plugin trigger.
+     * Models are copied to the {@code model} subpackage of the trigger, while converters are named
+     * after the trigger and the plugin type, so that triggers sharing a package do not overwrite them.
+     *
+     * @param trigger The element annotated with the plugin annotation
+     * @param pluginType The plugin type, like {@code Gradle} or {@code Maven}
+     * @param copyModels Whether models are copied, otherwise the original types are used
+     * @return The registry
+     */
+    public static @NonNull ModelRegistry of(@NonNull ClassElement trigger, @NonNull String pluginType, boolean copyModels) {
+        return new ModelRegistry(
+            trigger.getPackageName() + ".model",
+            trigger.getSimpleName() + pluginType + ModelUtils.CONVERTERS_CLASS_NAME,
+            copyModels
+        );
+    }
+
+    /**
+     * @return The package name to use for copied models
+     */
+    public @NonNull String packageName() {
+        return packageName;
+    }
+
+    /**
+     * @return Whether models are copied, otherwise the original types are used without conversion
+     */
+    public boolean copyModels() {
+        return copyModels;
+    }
+
+    /**
+     * @return The type of the class holding converters of all the models of the trigger
+     */
+    public @NonNull ClassTypeDef convertersType() {
+        return ClassTypeDef.of(packageName + "." + convertersName);
+    }
+
+    /**
+     * @return The type of the class holding converters to be used by tasks,
+     *     null if models are not copied, so no conversion is required
+     */
+    public @Nullable ClassTypeDef taskConvertersType() {
+        return copyModels ? convertersType() : null;
+    }
+
+    /**
+     * Get a model by the name of its source type.
+     *
+     * @param sourceName The source type name
+     * @return The model or null if it was not copied yet
+     */
+    public @Nullable GeneratedModel get(@NonNull String sourceName) {
+        return models.get(sourceName);
+    }
+
+    /**
+     * Register a copied model.
+     *
+     * @param model The model
+     * @param modelDependencies The source names of models the model references
+     */
+    void register(@NonNull GeneratedModel model, @NonNull Set<String> modelDependencies) {
+        String name = model.source().getName();
+        models.put(name, model);
+        dependencies.put(name, modelDependencies);
+    }
+
+    /**
+     * @return All the registered models in the order they were copied
+     */
+    public @NonNull Collection<GeneratedModel> models() {
+        return models.values();
+    }
+
+    /**
+     * Get a converter of arrays, collections or maps containing models.
+     *
+     * @param name The converter method name
+     * @return The converter or null if it was not registered yet
+     */
+    public @Nullable MethodDef getConverter(@NonNull String name) {
+        return converters.get(name);
+    }
+
+    /**
+     * Register a converter of arrays, collections or maps containing models.
+     * Converters are shared by all the tasks of the plugin, like models.
+     *
+     * @param converter The converter method
+     */
+    void registerConverter(@NonNull MethodDef converter) {
+        converters.put(converter.getName(), converter);
+    }
+
+    /**
+     * @return All the registered converters of arrays, collections and maps
+     */
+    public @NonNull Collection<MethodDef> converters() {
+        return converters.values();
+    }
+
+    /**
+     * @return The number of all the converter methods, including the ones of models
+     */
+    public int converterMethodsCount() {
+        return models.size() + converters.size();
+    }
+
+    /**
+     * Get the models referenced by the given source names, including the ones
+     * they reference transitively.
+     *
+     * @param sourceNames The source type names
+     * @return The models in the order they were copied
+     */
+    public @NonNull List<GeneratedModel> resolve(@NonNull Collection<String> sourceNames) {
+        Set<String> required = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(sourceNames);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (required.add(name)) {
+                queue.addAll(dependencies.getOrDefault(name, Set.of()));
+            }
+        }
+        List<GeneratedModel> result = new ArrayList<>(required.size());
+        for (GeneratedModel model: models.values()) {
+            if (required.contains(model.source().getName())) {
+                result.add(model);
+            }
+        }
+        return result;
+    }
+
+}
@@ -21,17 +21,21 @@ import io.micronaut.core.naming.NameUtils;
 import io.micronaut.inject.ast.ClassElement;
 import io.micronaut.inject.ast.EnumConstantElement;
 import io.micronaut.inject.ast.EnumElement;
+import io.micronaut.inject.ast.MethodElement;
 import io.micronaut.inject.ast.PropertyElement;
+import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.VisitorContext;
 import io.micronaut.sourcegen.generator.visitors.JavadocUtils.TypeJavadoc;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats.Measurement;
 import io.micronaut.sourcegen.model.ClassDef;
 import io.micronaut.sourcegen.model.ClassDef.ClassDefBuilder;
 import io.micronaut.sourcegen.model.ClassTypeDef;
 import io.micronaut.sourcegen.model.EnumDef;
 import io.micronaut.sourcegen.model.EnumDef.EnumDefBuilder;
 import io.micronaut.sourcegen.model.ExpressionDef;
-import io.micronaut.sourcegen.model.ExpressionDef.ComparisonOperation.OpType;
 import io.micronaut.sourcegen.model.ExpressionDef.MathBinaryOperation;
+import io.micronaut.sourcegen.model.FieldDef;
 import io.micronaut.sourcegen.model.MethodDef;
 import io.micronaut.sourcegen.model.ObjectDef;
 import io.micronaut.sourcegen.model.ParameterDef;
@@ -43,15 +47,30 @@ import io.micronaut.sourcegen.model.VariableDef.Local;
 
 import javax.lang.model.element.Modifier;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * A utility class for working with complex types, like enums and POJOs.
@@ -59,60 +78,147 @@ import java.util.Set;
 @Internal
 public class ModelUtils {
 
+    /**
+     * The suffix of the simple name of the class holding converters of the models of a plugin trigger.
+     * The class is named per trigger and plugin type, as several triggers may share a model package.
+     */
+    public static final String CONVERTERS_CLASS_NAME = "ModelConverters";
+
     private static final String CONVERT_METHOD_PREFIX = "convert";
+    private static final Map<String, String> DEFAULT_CONTAINERS = Map.of(
+        Collection.class.getName(), ArrayList.class.getName(),
+        List.class.getName(), ArrayList.class.getName(),
+        Set.class.getName(), HashSet.class.getName(),
+        SortedSet.class.getName(), TreeSet.class.getName(),
+        NavigableSet.class.getName(), TreeSet.class.getName(),
+        Queue.class.getName(), ArrayDeque.class.getName(),
+        Deque.class.getName(), ArrayDeque.class.getName(),
+        Map.class.getName(), HashMap.class.getName(),
+        SortedMap.class.getName(), TreeMap.class.getName(),
+        NavigableMap.class.getName(), TreeMap.class.getName()
+    );
+    private static final Set<String> SIZED_CONTAINERS = Set.of(
+        ArrayList.class.getName(), ArrayDeque.class.getName()
+    );
+    private static final Set<String> SIZED_HASH_CONTAINERS = Set.of(
+        HashSet.class.getName(), LinkedHashSet.class.getName(), HashMap.class.getName(), LinkedHashMap.class.getName()
+    );
 
     /**
      * A utility method for getting a parameter type.
      * Complex types, like enums and POJOs get copied and re-mapped.
+     * Arrays, collections and maps that contain models are re-mapped to the copied models
+     * and a converter is registered for each of them.
+     * If the registry does not copy models, the original type is used.
      *
      * @param context the Context
-     * @param packageName The package name to use for new created models
-     * @param element The element
-     * @param objects A mutable list that can be extended with new objects
+     * @param registry The registry of models shared by the plugin
+     * @param property The property
+     * @param usedModels A mutable set that is extended with source names of referenced models
      * @return The type
      */
     public static TypeDef getType(
-            VisitorContext context, String packageName, ClassElement element, List<GeneratedModel> objects
+            VisitorContext context, ModelRegistry registry, PropertyElement property, Set<String> usedModels
     ) {
-        Optional<GeneratedModel> exists = objects.stream()
-            .filter(v -> v.source().getName().equals(element.getName()))
-            .findFirst();
-        if (exists.isPresent()) {
-            return exists.get().type();
+        return getType(context, registry, property, property.getType(), usedModels);
+    }
+
+    private static TypeDef getType(
+            VisitorContext context, ModelRegistry registry, PropertyElement property, ClassElement element, Set<String> usedModels
+    ) {
+        if (!registry.copyModels()) {
+            return TypeDef.of(element);
+        }
+        if (element.isArray()) {
+            if (!requiresConversion(element)) {
+                return TypeDef.of(element);
+            }
+            TypeDef componentType = getType(context, registry, property, element.fromArray(), usedModels);
+            TypeDef type = componentType.array();
+            if (registry.getConverter(CONVERT_METHOD_PREFIX + shapeName(element)) == null) {
+                registry.registerConverter(convertArrayMethod(registry.convertersType(), componentType, element));
+            }
+            return type;
+        }
+        GeneratedModel exists = registry.get(element.getName());
+        if (exists != null) {
+            usedModels.add(element.getName());
+            return exists.type();
         }
         if (element.isEnum()) {
             context.info("Copying plugin model for enum: " + element.getName());
-            return copyEnum(context, packageName, element, objects);
+            usedModels.add(element.getName());
+            try (Measurement ignored = ProcessingStats.get(context).measure(ProcessingStats.MODEL_COPYING)) {
+                return copyEnum(context, registry, element);
+            }
         }
         if (isPOJO(element)) {
             context.info("Copying plugin model for POJO: " + element.getName());
-            return copyPOJO(context, packageName, element, objects);
+            usedModels.add(element.getName());
+            try (Measurement ignored = ProcessingStats.get(context).measure(ProcessingStats.MODEL_COPYING)) {
+                return copyPOJO(context, registry, element);
+            }
+        }
+        if (!requiresConversion(element)) {
+            return TypeDef.of(element);
         }
         Map<String, ClassElement> typeArgs = element.getTypeArguments();
-        if (element.isAssignable(Collection.class) && typeArgs.containsKey("E") && isModel(typeArgs.get("E"))
-        ) {
-            return TypeDef.parameterized(ClassTypeDef.of(element.getType()), getType(
-                context, packageName, typeArgs.get("E"), objects
-            ));
+        String converterName = CONVERT_METHOD_PREFIX + shapeName(element);
+        if (element.isAssignable(Map.class)) {
+            TypeDef keyType = getType(context, registry, property, typeArgs.get("K"), usedModels);
+            TypeDef valueType = getType(context, registry, property, typeArgs.get("V"), usedModels);
+            TypeDef type = TypeDef.parameterized(ClassTypeDef.of(element.getType()), keyType, valueType);
+            if (registry.getConverter(converterName) == null) {
+                registry.registerConverter(convertMapMethod(registry.convertersType(), type, keyType, valueType, element, property));
+            }
+            return type;
+        }
+        TypeDef elementType = getType(context, registry, property, typeArgs.get("E"), usedModels);
+        TypeDef type = TypeDef.parameterized(ClassTypeDef.of(element.getType()), elementType);
+        if (registry.getConverter(converterName) == null) {
+            registry.registerConverter(convertCollectionMethod(registry.convertersType(), type, elementType, element, property));
         }
-        return TypeDef.of(element);
+        return type;
+    }
+
+    /**
+     * Whether a value of the type needs to be converted before it is passed to the task.
+     * This is the case for models and for arrays, collections and maps that contain models,
+     * possibly nested.
+     *
+     * @param type The type
+     * @return Whether conversion is required
+     */
+    public static boolean requiresConversion(ClassElement type) {
+        if (type.isArray()) {
+            return requiresConversion(type.fromArray());
+        }
+        if (isModel(type)) {
+            return true;
+        }
+        Map<String, ClassElement> typeArgs = type.getTypeArguments();
+        if (type.isAssignable(Map.class)) {
+            return typeArgs.containsKey("K") && typeArgs.containsKey("V")
+                && (requiresConversion(typeArgs.get("K")) || requiresConversion(typeArgs.get("V")));
+        }
+        return type.isAssignable(Collection.class) && typeArgs.containsKey("E")
+            && requiresConversion(typeArgs.get("E"));
     }
 
     /**
      * Copy an existing enum to the plugin generated sources.
      *
      * @param context The visitor context
-     * @param packageName The package name to copy to
+     * @param registry The registry, where enum will be added to
      * @param element The element to copy
-     * @param objects A mutable list of objects, where enum will be added to
      * @return The type of copied enum
      */
     private static ClassTypeDef copyEnum(
-            VisitorContext context, String packageName, ClassElement element, List<GeneratedModel> objects
+            VisitorContext context, ModelRegistry registry, ClassElement element
     ) {
-        EnumDefBuilder enumDefBuilder = EnumDef.builder(packageName + "." + getSimpleName(element))
+        EnumDefBuilder enumDefBuilder = EnumDef.builder(registry.packageName() + "." + getSimpleName(element))
             .addModifiers(Modifier.PUBLIC)
-            .addJavadoc(JavadocUtils.getTaskJavadoc(context, element).javadoc().orElse(element.getName() + " enum."));
+            .addJavadoc(AnalysedType.of(context, element).javadoc().javadoc().orElse(element.getName() + " enum."));
         if (element instanceof EnumElement enumElement) {
             for (EnumConstantElement constant: enumElement.elements()) {
                 enumDefBuilder.addEnumConstant(constant.getName());
@@ -120,7 +226,9 @@ public class ModelUtils {
         }
         EnumDef enumDef = enumDefBuilder.build();
         ClassTypeDef type = enumDef.asTypeDef();
-        objects.add(new GeneratedModel(enumDef, element, convertEnumMethod(type, element), type));
+        registry.register(new GeneratedModel(
+            enumDef, element, convertEnumMethod(registry.convertersType(), type, element), convertEnumTable(element), type
+        ), Set.of());
         return type;
     }
 
@@ -128,25 +236,26 @@ public class ModelUtils {
      * Copy an existing POJO to the plugin generated sources.
      *
      * @param context The visitor context
-     * @param packageName The package name to copy to
+     * @param registry The registry, where POJO will be added to
      * @param element The element to copy
-     * @param objects A mutable list of objects, where enum will be added to
      * @return The type of copied POJO
      */
     private static TypeDef copyPOJO(
-            VisitorContext context, String packageName, ClassElement element, List<GeneratedModel> objects
+            VisitorContext context, ModelRegistry registry, ClassElement element
     ) {
-        TypeJavadoc javadoc = JavadocUtils.getTaskJavadoc(context, element);
-        ClassDefBuilder classDefBuilder = ClassDef.builder(packageName + "." + getSimpleName(element))
+        AnalysedType analysed = AnalysedType.of(context, element);
+        TypeJavadoc javadoc = analysed.javadoc();
+        ClassDefBuilder classDefBuilder = ClassDef.builder(registry.packageName() + "." + getSimpleName(element))
             .addModifiers(Modifier.PUBLIC)
             .addJavadoc(javadoc.javadoc().orElse(element.getName() + " class."))
             .addSuperinterface(TypeDef.of(Serializable.class));
         List<PropertyDef> properties = new ArrayList<>();
-        for (PropertyElement property: element.getBeanProperties()) {
+        Set<String> dependencies = new HashSet<>();
+        for (PropertyElement property: analysed.properties()) {
             String propertyDoc = javadoc.elements().containsKey(property.getName()) ?
                 javadoc.elements().get(property.getName()) :
                 property.getName() + " property.";
-            TypeDef type = getType(context, packageName, property.getType(), objects);
+            TypeDef type = getType(context, registry, property, dependencies);
             PropertyDef propertyDef = PropertyDef.builder(property.getName())
                     .addModifiers(Modifier.PUBLIC)
                     .ofType(type)
@@ -165,15 +274,40 @@ public class ModelUtils {
             .addConstructor(Collections.emptyList(), Modifier.PUBLIC)
             .build();
         ClassTypeDef type = classDef.asTypeDef();
-        objects.add(new GeneratedModel(classDef, element, convertPOJOMethod(type, element), type));
+        registry.register(new GeneratedModel(classDef, element, convertPOJOMethod(registry.convertersType(), type, analysed), null, type), dependencies);
         return type;
     }
 
+    /**
+     * Create the class with static converters of all the models in the registry.
+     * All generated tasks call the shared converters, instead of having their own copies.
+     *
+     * @param registry The model registry
+     * @return The converters class
+     */
+    public static ClassDef createConverters(ModelRegistry registry) {
+        ClassDefBuilder builder = ClassDef.builder(registry.convertersType().getName())
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addJavadoc("Converters of the plugin models to the types used by tasks.")
+            .addConstructor(Collections.emptyList(), Modifier.PRIVATE);
+        for (GeneratedModel model: registry.models()) {
+            if (model.convertorTable() != null) {
+                builder.addField(model.convertorTable());
+            }
+            builder.addMethod(model.convertorMethod());
+        }
+        for (MethodDef converter: registry.converters()) {
+            builder.addMethod(converter);
+        }
+        return builder.build();
+    }
+
     /**
      * Converts a parameter value if required.
      * Conversion is required if the value is a model, so a new type was generated for it
      * instead of the original one.
      *
+     * @param converters The type of the class holding model converters, null if models are not copied
      * @param type The type
      * @param name The name to use for local variable
      * @param statements The modifiable statements to which a local variable may be added if needed
@@ -181,49 +315,295 @@ public class ModelUtils {
      * @return The new expression for param
      */
     public static ExpressionDef convertParameterIfRequired(
-        ClassElement type, String name, List<StatementDef> statements, ExpressionDef paramExpression
+        @Nullable ClassTypeDef converters, ClassElement type, String name, List<StatementDef> statements, ExpressionDef paramExpression
     ) {
-        if (isModel(type)) {
-            ClassTypeDef requiredType = ClassTypeDef.of(type);
-            VariableDef.Local param = new VariableDef.Local(name, requiredType);
-            String simpleName = getSimpleName(type);
-            statements.add(param.defineAndAssign(new VariableDef.This()
-                .invoke(CONVERT_METHOD_PREFIX + simpleName, requiredType, paramExpression)));
-            return param;
+        if (converters == null || !requiresConversion(type)) {
+            return paramExpression;
         }
-        Map<String, ClassElement> typeArgs = type.getTypeArguments();
-        if (type.isAssignable(Collection.class) && typeArgs.containsKey("E") && isModel(typeArgs.get("E"))) {
-            Local param = new VariableDef.Local(name, ClassTypeDef.of(type));
-            return convertCollectionParameter(param, typeArgs.get("E"), param, statements, type.isAssignable(Set.class));
-        }
-        return paramExpression;
+        VariableDef.Local param = new VariableDef.Local(name, TypeDef.of(type));
+        statements.add(param.defineAndAssign(convert(converters, type, paramExpression)));
+        return param;
     }
 
-    private static ExpressionDef convertCollectionParameter(
-        Local localVar, ClassElement arg, ExpressionDef paramExpression, List<StatementDef> statements, boolean isSet
+    /**
+     * Converts a parameter value if required.
+     * Unlike {@link #convertParameterIfRequired(ClassTypeDef, ClassElement, String, List, ExpressionDef)},
+     * only uses the data read into the configuration, so it does not query the element.
+     *
+     * @param converters The type of the class holding model converters, null if models are not copied
+     * @param parameter The parameter configuration
+     * @param statements The modifiable statements to which a local variable may be added if needed
+     * @param paramExpression The current expression for param
+     * @return The new expression for param
+     */
+    public static ExpressionDef convertParameterIfRequired(
+        @Nullable ClassTypeDef converters, ParameterConfig parameter, List<StatementDef> statements, ExpressionDef paramExpression
     ) {
-        String simpleName = getSimpleName(arg);
-        statements.add(localVar.defineAndAssign(ExpressionDef.constant(null)));
-        List<StatementDef> innerStatements = new ArrayList<>();
-        innerStatements.add(localVar.assign(
-            isSet ? ClassTypeDef.of(HashSet.class).instantiate()
-                : ClassTypeDef.of(ArrayList.class).instantiate()
+        if (converters == null || parameter.converterMethod() == null) {
+            return paramExpression;
+        }
+        VariableDef.Local param = new VariableDef.Local(parameter.name() + "Param", parameter.sourceType());
+        statements.add(param.defineAndAssign(
+            converters.invokeStatic(parameter.converterMethod(), parameter.sourceType(), paramExpression)
         ));
-        Local i = new VariableDef.Local("i", TypeDef.primitive(int.class));
-        innerStatements.add(i.defineAndAssign(ExpressionDef.constant(0)));
-        innerStatements.add(new StatementDef.While(
-            i.compare(OpType.LESS_THAN, paramExpression.invoke("size", TypeDef.primitive(int.class))),
-            StatementDef.multi(
-                localVar.invoke("add", TypeDef.VOID,
-                    new VariableDef.This().invoke(CONVERT_METHOD_PREFIX + simpleName, TypeDef.of(arg),
-                        paramExpression.invoke("get", TypeDef.OBJECT, i)
+        return param;
+    }
+
+    /**
+     * Get the name of the method converting a type with copied models to the type.
+     *
+     * @param type The type
+     * @return The method name or null if the type does not require conversion
+     */
+    static @Nullable String getConverterMethodName(ClassElement type) {
+        return requiresConversion(type) ? CONVERT_METHOD_PREFIX + shapeName(type) : null;
+    }
+
+    private static ExpressionDef convert(ClassTypeDef converters, ClassElement type, ExpressionDef expression) {
+        String converterMethod = getConverterMethodName(type);
+        if (converterMethod == null) {
+            return expression;
+        }
+        return converters.invokeStatic(converterMethod, TypeDef.of(type), expression);
+    }
+
+    /**
+     * Create the converter of a collection that contains models.
+     * The result is allocated with the final size.
+     *
+     * @param converters The type of the class holding model converters
+     * @param type The type of the collection with copied models
+     * @param elementInputType The element type of the collection with copied models
+     * @param requiredType The collection type required by the task
+     * @param property The property the collection is used by
+     * @return The converter method
+     */
+    private static MethodDef convertCollectionMethod(
+        ClassTypeDef converters, TypeDef type, TypeDef elementInputType, ClassElement requiredType, PropertyElement property
+    ) {
+        ClassElement elementType = requiredType.getTypeArguments().get("E");
+        String implementation = containerImplementation(requiredType, property);
+        TypeDef outputType = TypeDef.of(requiredType);
+        return MethodDef.builder(CONVERT_METHOD_PREFIX + shapeName(requiredType))
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(outputType)
+            .addParameter("value", type)
+            .build((t, params) -> {
+                Local size = new Local("size", TypeDef.primitive(int.class));
+                Local result = new Local("result", outputType);
+                return new StatementDef.IfElse(
+                    params.get(0).isNull(),
+                    ExpressionDef.constant(null).returning(),
+                    StatementDef.multi(
+                        size.defineAndAssign(params.get(0).invoke("size", TypeDef.primitive(int.class))),
+                        result.defineAndAssign(instantiateContainer(implementation, requiredType, size)),
+                        convertElements(converters, elementType, elementInputType, params.get(0), result),
+                        result.returning()
+                    )
+                );
+            });
+    }
+
+    /**
+     * Create the converter of a map that contains models as keys or values.
+     * The entries are traversed once and the result is allocated with the final size.
+     *
+     * @param converters The type of the class holding model converters
+     * @param type The type of the map with copied models
+     * @param keyType The key type of the map with copied models
+     * @param valueType The value type of the map with copied models
+     * @param requiredType The map type required by the task
+     * @param property The property the map is used by
+     * @return The converter method
+     */
+    private static MethodDef convertMapMethod(
+        ClassTypeDef converters, TypeDef type, TypeDef keyType, TypeDef valueType, ClassElement requiredType,
+        PropertyElement property
+    ) {
+        Map<String, ClassElement> typeArgs = requiredType.getTypeArguments();
+        String implementation = containerImplementation(requiredType, property);
+        TypeDef entryType = TypeDef.parameterized(ClassTypeDef.of(Map.Entry.class), keyType, valueType);
+        TypeDef outputType = TypeDef.of(requiredType);
+        return MethodDef.builder(CONVERT_METHOD_PREFIX + shapeName(requiredType))
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(outputType)
+            .addParameter("value", type)
+            .build((t, params) -> {
+                Local size = new Local("size", TypeDef.primitive(int.class));
+                Local result = new Local("result", outputType);
+                Local iterator = new Local("iterator", TypeDef.parameterized(ClassTypeDef.of(Iterator.class), entryType));
+                Local entry = new Local("entry", entryType);
+                return new StatementDef.IfElse(
+                    params.get(0).isNull(),
+                    ExpressionDef.constant(null).returning(),
+                    StatementDef.multi(
+                        size.defineAndAssign(params.get(0).invoke("size", TypeDef.primitive(int.class))),
+                        result.defineAndAssign(instantiateContainer(implementation, requiredType, size)),
+                        iterator.defineAndAssign(params.get(0)
+                            .invoke("entrySet", TypeDef.parameterized(ClassTypeDef.of(Set.class), entryType))
+                            .invoke("iterator", iterator.type())),
+                        new StatementDef.While(
+                            iterator.invoke("hasNext", TypeDef.primitive(boolean.class)),
+                            StatementDef.multi(
+                                entry.defineAndAssign(iterator.invoke("next", entryType)),
+                                result.invoke("put", TypeDef.OBJECT,
+                                    convert(converters, typeArgs.get("K"), entry.invoke("getKey", keyType)),
+                                    convert(converters, typeArgs.get("V"), entry.invoke("getValue", valueType))
+                                )
+                            )
+                        ),
+                        result.returning()
                     )
-                ),
-                i.assign(i.math(MathBinaryOperation.OpType.ADDITION, ExpressionDef.constant(1)))
+                );
+            });
+    }
+
+    /**
+     * Create the converter of an array that contains models.
+     * The array is viewed as a list without copying, its elements are converted into a list
+     * of the final size, which is then copied once into the resulting array.
+     *
+     * @param converters The type of the class holding model converters
+     * @param componentType The component type of the array with copied models
+     * @param requiredType The array type required by the task
+     * @return The converter method
+     */
+    private static MethodDef convertArrayMethod(ClassTypeDef converters, TypeDef componentType, ClassElement requiredType) {
+        ClassElement requiredComponentType = requiredType.fromArray();
+        TypeDef outputType = TypeDef.of(requiredType);
+        TypeDef outputComponentType = TypeDef.of(requiredComponentType);
+        if (outputComponentType instanceof ClassTypeDef.Parameterized parameterized) {
+            // Generic array creation is not allowed, so the raw component type is used
+            outputComponentType = parameterized.rawType();
+        }
+        TypeDef.Array emptyArrayType = outputComponentType.array();
+        return MethodDef.builder(CONVERT_METHOD_PREFIX + shapeName(requiredType))
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(outputType)
+            .addParameter("value", componentType.array())
+            .build((t, params) -> {
+                Local values = new Local("values", TypeDef.parameterized(ClassTypeDef.of(List.class), componentType));
+                Local result = new Local("result", TypeDef.parameterized(ClassTypeDef.of(ArrayList.class), TypeDef.of(requiredComponentType)));
+                return new StatementDef.IfElse(
+                    params.get(0).isNull(),
+                    ExpressionDef.constant(null).returning(),
+                    StatementDef.multi(
+                        values.defineAndAssign(ClassTypeDef.of(Arrays.class).invokeStatic("asList", values.type(), params.get(0))),
+                        result.defineAndAssign(ClassTypeDef.of(ArrayList.class)
+                            .instantiate(values.invoke("size", TypeDef.primitive(int.class)))),
+                        convertElements(converters, requiredComponentType, componentType, values, result),
+                        result.invoke("toArray", outputType, emptyArrayType.instantiate(0)).returning()
+                    )
+                );
+            });
+    }
+
+    /**
+     * Convert all the elements of a collection by traversing it with an iterator,
+     * so the conversion is linear for any collection, and add them to the result.
+     *
+     * @param converters The type of the class holding model converters
+     * @param elementType The element type required by the task
+     * @param elementInputType The element type of the collection
+     * @param collection The collection
+     * @param result The collection to add the converted elements to
+     * @return The statement
+     */
+    private static StatementDef convertElements(
+        ClassTypeDef converters, ClassElement elementType, TypeDef elementInputType, ExpressionDef collection, Local result
+    ) {
+        Local iterator = new Local("iterator", TypeDef.parameterized(ClassTypeDef.of(Iterator.class), elementInputType));
+        return StatementDef.multi(
+            iterator.defineAndAssign(collection.invoke("iterator", iterator.type())),
+            new StatementDef.While(
+                iterator.invoke("hasNext", TypeDef.primitive(boolean.class)),
+                result.invoke("add", TypeDef.primitive(boolean.class),
+                    convert(converters, elementType, iterator.invoke("next", elementInputType))
+                )
             )
-        ));
-        statements.add(new StatementDef.If(paramExpression.compare(OpType.NOT_EQUAL_TO, ExpressionDef.constant(null)), StatementDef.multi(innerStatements)));
-        return localVar;
+        );
+    }
+
+    /**
+     * Get the class of the container for the converted values of a collection or a map.
+     * The declared type is used if it is a concrete class with a public constructor without arguments,
+     * otherwise a default implementation of the declared interface is chosen.
+     *
+     * @param requiredType The container type required by the task
+     * @param property The property the container is used by
+     * @return The name of the container class
+     */
+    private static String containerImplementation(ClassElement requiredType, PropertyElement property) {
+        String name = requiredType.getName();
+        String implementation = DEFAULT_CONTAINERS.get(name);
+        if (implementation != null) {
+            return implementation;
+        }
+        if (name.equals(EnumSet.class.getName()) || name.equals(EnumMap.class.getName())) {
+            return name;
+        }
+        if (!requiredType.isInterface() && !requiredType.isAbstract()
+            && requiredType.getDefaultConstructor().filter(MethodElement::isPublic).isPresent()) {
+            return name;
+        }
+        throw new ProcessingException(property, "Cannot convert the models of property " + property.getName()
+            + ", because " + name + " is not a concrete class with a public constructor without arguments"
+            + " and has no known implementation");
+    }
+
+    /**
+     * Instantiate the container for the converted values of a collection or a map.
+     * Array and hash based containers are allocated for the final size,
+     * so they are never resized during the conversion.
+     *
+     * @param implementation The container class
+     * @param requiredType The container type required by the task
+     * @param size The number of the elements
+     * @return The expression instantiating the container
+     */
+    private static ExpressionDef instantiateContainer(String implementation, ClassElement requiredType, ExpressionDef size) {
+        ClassTypeDef type = ClassTypeDef.of(implementation);
+        if (implementation.equals(EnumSet.class.getName())) {
+            return type.invokeStatic("noneOf", TypeDef.of(requiredType),
+                ClassTypeDef.of(requiredType.getTypeArguments().get("E")).getStaticField("class", TypeDef.CLASS));
+        }
+        if (implementation.equals(EnumMap.class.getName())) {
+            return type.instantiate(
+                ClassTypeDef.of(requiredType.getTypeArguments().get("K")).getStaticField("class", TypeDef.CLASS));
+        }
+        if (SIZED_CONTAINERS.contains(implementation)) {
+            return type.instantiate(size);
+        }
+        if (SIZED_HASH_CONTAINERS.contains(implementation)) {
+            // The capacity for the default load factor of 0.75, so the table is not rehashed
+            return type.instantiate(size
+                .math(MathBinaryOperation.OpType.ADDITION, size.math(MathBinaryOperation.OpType.DIVISION, ExpressionDef.constant(3)))
+                .math(MathBinaryOperation.OpType.ADDITION, ExpressionDef.constant(1))
+            );
+        }
+        return type.instantiate();
+    }
+
+    /**
+     * Get the name identifying the shape of a type, that is used for its converter method.
+     * For example, {@code List<Tail>} is {@code TailList} and {@code Map<String, List<Tail>>}
+     * is {@code StringToTailListMap}.
+     *
+     * @param type The type
+     * @return The shape name
+     */
+    private static String shapeName(ClassElement type) {
+        if (type.isArray()) {
+            return shapeName(type.fromArray()) + "Array";
+        }
+        Map<String, ClassElement> typeArgs = type.getTypeArguments();
+        if (type.isAssignable(Map.class) && typeArgs.containsKey("K") && typeArgs.containsKey("V")) {
+            return shapeName(typeArgs.get("K")) + "To" + shapeName(typeArgs.get("V")) + getSimpleName(type);
+        }
+        if (type.isAssignable(Collection.class) && typeArgs.containsKey("E")) {
+            return shapeName(typeArgs.get("E")) + getSimpleName(type);
+        }
+        return getSimpleName(type);
     }
 
     /**
@@ -258,38 +638,65 @@ public class ModelUtils {
             });
     }
 
-    private static MethodDef convertEnumMethod(TypeDef type, ClassElement requiredType) {
+    /**
+     * Create the table of the required enum constants indexed by the ordinals of the copied enum.
+     * The constants of the copied enum are in the same order, so no lookup by name is needed.
+     *
+     * @param requiredType The enum type required by the task
+     * @return The table field
+     */
+    private static FieldDef convertEnumTable(ClassElement requiredType) {
+        ClassTypeDef outputType = ClassTypeDef.of(requiredType);
+        TypeDef tableType = TypeDef.parameterized(ClassTypeDef.of(List.class), outputType);
+        return FieldDef.builder(enumTableName(requiredType), tableType)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer(ClassTypeDef.of(List.class).invokeStatic("of", TypeDef.of(List.class),
+                outputType.invokeStatic("values", outputType.array())
+            ))
+            .build();
+    }
+
+    private static MethodDef convertEnumMethod(ClassTypeDef converters, TypeDef type, ClassElement requiredType) {
         String simpleName = getSimpleName(requiredType);
         ClassTypeDef outputType = ClassTypeDef.of(requiredType);
+        TypeDef tableType = TypeDef.parameterized(ClassTypeDef.of(List.class), outputType);
         return MethodDef.builder(CONVERT_METHOD_PREFIX + simpleName)
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
             .returns(TypeDef.of(requiredType))
             .addParameter("value", type)
             .build((t, params) -> new StatementDef.IfElse(
                 params.get(0).isNull(),
                 ExpressionDef.constant(null).returning(),
-                outputType.invokeStatic("valueOf", outputType,
-                    params.get(0).invoke("name", TypeDef.STRING)
+                converters.getStaticField(enumTableName(requiredType), tableType).invoke("get", outputType,
+                    params.get(0).invoke("ordinal", TypeDef.primitive(int.class))
                 ).returning()
             ));
     }
 
-    private static MethodDef convertPOJOMethod(TypeDef type, ClassElement requiredType) {
+    private static String enumTableName(ClassElement requiredType) {
+        return NameUtils.underscoreSeparate(getSimpleName(requiredType)).toUpperCase(Locale.ENGLISH) + "_VALUES";
+    }
+
+    private static MethodDef convertPOJOMethod(ClassTypeDef converters, TypeDef type, AnalysedType analysed) {
+        ClassElement requiredType = analysed.source();
         String simpleName = getSimpleName(requiredType);
         return MethodDef.builder(CONVERT_METHOD_PREFIX + simpleName)
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
             .returns(TypeDef.of(requiredType))
             .addParameter("value", type)
             .build((t, params) -> {
                 List<StatementDef> statements = new ArrayList<>();
                 Map<String, ExpressionDef> args = new HashMap<>();
-                for (PropertyElement property: requiredType.getBeanProperties()) {
+                for (PropertyElement property: analysed.properties()) {
                     args.put(property.getName(), convertParameterIfRequired(
+                        converters,
                         property.getType(),
                         NameUtils.capitalize(property.getName()) + "Param",
                         statements,
                         params.get(0).invoke("get" + NameUtils.capitalize(property.getName()), TypeDef.OBJECT)
                     ));
                 }
-                Local result = PluginUtils.instantiateType(requiredType, "result", args, statements);
+                Local result = PluginUtils.instantiateType(analysed, "result", args, statements);
                 statements.add(result.returning());
 
                 return new StatementDef.IfElse(
@@ -318,6 +725,7 @@ public class ModelUtils {
     public static boolean isPOJO(ClassElement element) {
         return !element.isEnum()
             && !element.isPrimitive()
+            && !element.isArray()
             && !element.getPackageName().equals("java.util")
             && !element.getPackageName().equals("java.lang")
             && !element.getPackageName().equals("java.io");
@@ -338,13 +746,16 @@ public class ModelUtils {
      *
      * @param model The generated model object def
      * @param source The source of the model
-     * @param convertorMethod The method that converts model to source
+     * @param convertorMethod The static method that converts model to source,
+     *                        generated in the {@value #CONVERTERS_CLASS_NAME} class of the trigger
+     * @param convertorTable The static field used by the convertor method, null if not required
      * @param type The type of the mode
      */
     public record GeneratedModel(
         ObjectDef model,
         ClassElement source,
         MethodDef convertorMethod,
+        @Nullable FieldDef convertorTable,
         TypeDef type
     ) {
     }
@@ -18,18 +18,23 @@ package io.micronaut.sourcegen.generator.visitors;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.inject.ast.ClassElement;
-import io.micronaut.inject.ast.PropertyElement;
 import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.TypeElementVisitor;
 import io.micronaut.inject.visitor.VisitorContext;
 import io.micronaut.sourcegen.annotations.PluginTask;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * The visitor that validates a PluginTaskConfig annotated type.
- * It also creates a META-INF file with javadoc that will be used for plugin generation.
+ * It also creates a META-INF javadoc index of all the tasks and their models that will be used
+ * for plugin generation.
  *
  * @author Andriy Dmytruk
  * @since 1.0.x
@@ -38,15 +43,19 @@ import java.util.Set;
 public final class PluginTaskConfigValidatingVisitor implements TypeElementVisitor<PluginTask, Object> {
 
     private final Set<String> processed = new HashSet<>();
+    private final Map<String, ClassElement> documented = new LinkedHashMap<>();
+    private final List<ClassElement> tasks = new ArrayList<>();
 
     @Override
     public @NonNull VisitorKind getVisitorKind() {
-        return VisitorKind.ISOLATING;
+        return VisitorKind.AGGREGATING;
     }
 
     @Override
     public void start(VisitorContext visitorContext) {
         processed.clear();
+        documented.clear();
+        tasks.clear();
     }
 
     @Override
@@ -59,40 +68,49 @@ public final class PluginTaskConfigValidatingVisitor implements TypeElementVisit
         if (processed.contains(element.getName())) {
             return;
         }
+        processed.add(element.getName());
+        JavadocUtils.addSourceType(context, element);
 
-        // Verify that method is present
-        PluginUtils.getTaskExecutable(element);
+        // Analysing the task verifies that the executable is present
+        AnalysedType task = AnalysedType.of(context, element);
 
-        writeJavaDocForType(context, element);
+        tasks.add(element);
+        addJavaDocForType(context, task);
     }
 
-    private void writeJavaDocForType(VisitorContext context, ClassElement element) {
-        writeJavaDocMetaInfFile(element, context);
+    @Override
+    public void finish(VisitorContext context) {
+        if (documented.isEmpty()) {
+            return;
+        }
+        writeJavaDocIndex(context);
+        documented.clear();
+        tasks.clear();
+    }
 
-        for (PropertyElement property: element.getBeanProperties()) {
-            ClassElement propertyType = property.getType();
-            if (processed.contains(propertyType.getName())) {
-                continue;
-            }
-            if (!ModelUtils.isModel(propertyType)) {
+    private void addJavaDocForType(VisitorContext context, AnalysedType type) {
+        documented.put(type.source().getName(), type.source());
+
+        for (ClassElement model: type.models()) {
+            if (processed.contains(model.getName())) {
                 continue;
             }
-            processed.add(propertyType.getName());
-            writeJavaDocForType(context, propertyType);
+            processed.add(model.getName());
+            // The models are documented in the index of this module, so their javadoc is read from the source
+            JavadocUtils.addSourceType(context, model);
+            addJavaDocForType(context, AnalysedType.of(context, model));
         }
     }
 
-    private void writeJavaDocMetaInfFile(ClassElement element, VisitorContext context) {
-        context.info("Writing javadoc META-INF file for " + element.getName());
-        String fileName = JavadocUtils.META_INF_FOLDER + element.getName() + JavadocUtils.META_INF_EXTENSION;
-        context.visitMetaInfFile(fileName, element)
+    private void writeJavaDocIndex(VisitorContext context) {
+        context.info("Writing javadoc index for " + documented.size() + " types");
+        ClassElement[] originatingElements = tasks.toArray(new ClassElement[0]);
+        context.visitMetaInfFile(JavadocUtils.INDEX_FILE, originatingElements)
             .ifPresent(generatedFile -> {
-                try {
-                    generatedFile.write(writer ->
-                        writer.write(JavadocUtils.writeJavadocInfo(element))
-                    );
+                try (OutputStream outputStream = generatedFile.openOutputStream()) {
+                    outputStream.write(JavadocUtils.writeJavadocIndex(context, documented.values()));
                 } catch (Exception e) {
-                    throw new ProcessingException(element, "Failed to generate '" + fileName + "': " + e.getMessage(), e);
+                    throw new ProcessingException(originatingElements[0], "Failed to generate '" + JavadocUtils.INDEX_FILE + "': " + e.getMessage(), e);
                 }
             });
     }
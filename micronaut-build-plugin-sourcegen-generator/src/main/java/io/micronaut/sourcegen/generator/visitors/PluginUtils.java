@@ -20,27 +20,37 @@ import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.inject.ast.ClassElement;
-import io.micronaut.inject.ast.FieldElement;
+import io.micronaut.inject.ast.Element;
 import io.micronaut.inject.ast.MethodElement;
 import io.micronaut.inject.ast.ParameterElement;
 import io.micronaut.inject.ast.PropertyElement;
 import io.micronaut.inject.processing.ProcessingException;
+import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.sourcegen.annotations.PluginTaskChanges;
 import io.micronaut.sourcegen.annotations.PluginTaskExecutable;
 import io.micronaut.sourcegen.annotations.PluginTaskParameter;
 import io.micronaut.sourcegen.annotations.PluginTaskParameter.PathSensitivity;
+import io.micronaut.sourcegen.annotations.PluginTaskResource;
+import io.micronaut.sourcegen.generator.visitors.AnalysedType.ExecutableArgument;
+import io.micronaut.sourcegen.generator.visitors.AnalysedType.WritableProperty;
+import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
 import io.micronaut.sourcegen.model.ClassTypeDef;
 import io.micronaut.sourcegen.model.ExpressionDef;
+import io.micronaut.sourcegen.model.ObjectDef;
 import io.micronaut.sourcegen.model.StatementDef;
 import io.micronaut.sourcegen.model.TypeDef;
 import io.micronaut.sourcegen.model.VariableDef;
 import io.micronaut.sourcegen.model.VariableDef.Local;
 
+import java.io.File;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Common utility methods for plugin generation.
@@ -48,6 +58,8 @@ import java.util.Set;
 @Internal
 public class PluginUtils {
 
+    private static final String GENERATED_CONTEXT_KEY = PluginUtils.class.getName() + ".generated";
+
     /**
      * Validate and get the method name of the task executable.
      *
@@ -62,8 +74,12 @@ public class PluginUtils {
         if (executables.size() != 1) {
             throw new ProcessingException(source, "Expected exactly one method annotated with @PluginTaskExecutable but found " + executables.size());
         }
-        if (executables.get(0).getParameters().length != 0) {
-            throw new ProcessingException(source, "Expected @PluginTaskExecutable method to have no parameters");
+        MethodElement resourceFactory = getTaskResourceFactory(source);
+        for (ParameterElement parameter: executables.get(0).getParameters()) {
+            if (!isChangesParameter(parameter) && !isResourceParameter(resourceFactory, parameter)) {
+                throw new ProcessingException(source, "Expected @PluginTaskExecutable method parameters to be either "
+                    + PluginTaskChanges.class.getSimpleName() + " or the type created by the @PluginTaskResource method");
+            }
         }
         if (!executables.get(0).getReturnType().isVoid()) {
             throw new ProcessingException(source, "Expected @PluginTaskExecutable to have void return type");
@@ -71,6 +87,75 @@ public class PluginUtils {
         return executables.get(0);
     }
 
+    /**
+     * Validate and get the factory method of the task resource.
+     *
+     * @param source The source element annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
+     * @return The method annotated with {@link PluginTaskResource} or null if there is none
+     */
+    public static @Nullable MethodElement getTaskResourceFactory(ClassElement source) {
+        List<MethodElement> factories = source.getMethods().stream()
+            .filter(m -> m.hasAnnotation(PluginTaskResource.class))
+            .toList();
+
+        if (factories.isEmpty()) {
+            return null;
+        }
+        if (factories.size() != 1) {
+            throw new ProcessingException(source, "Expected at most one method annotated with @PluginTaskResource but found " + factories.size());
+        }
+        MethodElement factory = factories.get(0);
+        if (!factory.isStatic() || factory.getParameters().length != 0) {
+            throw new ProcessingException(source, "Expected @PluginTaskResource method to be static and have no parameters");
+        }
+        if (factory.getReturnType().isVoid() || factory.getReturnType().isPrimitive()) {
+            throw new ProcessingException(source, "Expected @PluginTaskResource method to return the resource");
+        }
+        return factory;
+    }
+
+    /**
+     * @param parameter The parameter of the task executable
+     * @return Whether the parameter receives {@link PluginTaskChanges}
+     */
+    static boolean isChangesParameter(ParameterElement parameter) {
+        return parameter.getType().isAssignable(PluginTaskChanges.class);
+    }
+
+    /**
+     * @param resourceFactory The factory method of the task resource
+     * @param parameter The parameter of the task executable
+     * @return Whether the parameter receives the task resource
+     */
+    static boolean isResourceParameter(@Nullable MethodElement resourceFactory, ParameterElement parameter) {
+        return resourceFactory != null && resourceFactory.getReturnType().isAssignable(parameter.getType());
+    }
+
+    /**
+     * Get the task source type configured in a plugin annotation.
+     * The type can be specified either with the {@code sourceClass} class reference or
+     * with the {@code source} class name.
+     *
+     * @param element The element annotated with the plugin annotation
+     * @param annotation The plugin annotation value
+     * @param context The visitor context
+     * @return The source type annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
+     */
+    public static @NonNull ClassElement getTaskSource(
+        @NonNull ClassElement element, @NonNull AnnotationValue<?> annotation, @NonNull VisitorContext context
+    ) {
+        Optional<String> sourceName = annotation.stringValue("sourceClass")
+            .filter(name -> !name.equals("void"))
+            .or(() -> annotation.stringValue("source"));
+        if (sourceName.isEmpty()) {
+            throw new ProcessingException(element, "Either source or sourceClass must be specified in @"
+                + annotation.getAnnotationName());
+        }
+        return sourceName.flatMap(context::getClassElement)
+            .orElseThrow(() -> new ProcessingException(element, "Could not load source type defined in @"
+                + annotation.getAnnotationName() + ": " + sourceName.get()));
+    }
+
     /**
      * Get configuration for a plugin parameter.
      *
@@ -81,20 +166,56 @@ public class PluginUtils {
      */
     public static @NonNull ParameterConfig getParameterConfig(
             @NonNull JavadocUtils.TypeJavadoc sourceJavadoc, @NonNull PropertyElement property, @Nullable TypeDef type
+    ) {
+        return getParameterConfig(sourceJavadoc, property, type, PathSensitivity.ABSOLUTE);
+    }
+
+    /**
+     * Get configuration for a plugin parameter.
+     *
+     * @param sourceJavadoc The javadoc for the task type
+     * @param property The property representing the parameter
+     * @param type The type to use for parameter
+     * @param defaultPathSensitivity The path sensitivity to use if not configured for the parameter
+     * @return THe configuration
+     */
+    public static @NonNull ParameterConfig getParameterConfig(
+            @NonNull JavadocUtils.TypeJavadoc sourceJavadoc, @NonNull PropertyElement property, @Nullable TypeDef type,
+            @NonNull PathSensitivity defaultPathSensitivity
     ) {
         AnnotationValue<PluginTaskParameter> annotation = property.getAnnotation(PluginTaskParameter.class);
         String javadoc = sourceJavadoc.elements().get(property.getName());
         if (javadoc == null) {
             javadoc = "Configurable " + property.getName() + " parameter.";
         }
+        TypeDef sourceType = TypeDef.of(property.getType());
         if (type == null) {
-            type = TypeDef.of(property.getType());
+            type = sourceType;
         }
+        ParameterKind kind = ParameterKind.of(property.getType());
+        String converterMethod = ModelUtils.getConverterMethodName(property.getType());
         if (annotation == null) {
-            return new ParameterConfig(property, false, null, false, false, false, null, javadoc, type, PathSensitivity.ABSOLUTE);
+            return new ParameterConfig(
+                property, property.getName(), kind, false, null, false, false, false, null, javadoc, type, sourceType,
+                converterMethod, defaultPathSensitivity, false, false
+            );
+        }
+        boolean incremental = annotation.booleanValue("incremental").orElse(false);
+        if (incremental && (!property.getType().isAssignable(File.class)
+                || !annotation.booleanValue("directory").orElse(false)
+                || annotation.booleanValue("output").orElse(false))) {
+            throw new ProcessingException(property, "Parameter " + property.getName()
+                + " can only be incremental if it is an input directory of type " + File.class.getName());
+        }
+        boolean skipWhenEmpty = annotation.booleanValue("skipWhenEmpty").orElse(false);
+        if (skipWhenEmpty && (!isFileCollection(property.getType()) || annotation.booleanValue("output").orElse(false))) {
+            throw new ProcessingException(property, "Parameter " + property.getName()
+                + " can only be skipped when empty if it is an input list or set of " + File.class.getName());
         }
         return new ParameterConfig(
             property,
+            property.getName(),
+            kind,
             annotation.booleanValue("required").orElse(false),
             annotation.stringValue("defaultValue").orElse(null),
             annotation.booleanValue("internal").orElse(false),
@@ -103,52 +224,52 @@ public class PluginUtils {
             annotation.stringValue("globalProperty").orElse(null),
             javadoc,
             type,
-            annotation.enumValue("pathSensitivity", PathSensitivity.class).orElse(PathSensitivity.ABSOLUTE)
+            sourceType,
+            converterMethod,
+            annotation.enumValue("pathSensitivity", PathSensitivity.class).orElse(defaultPathSensitivity),
+            incremental,
+            skipWhenEmpty
         );
     }
 
+    /**
+     * Whether the type is a collection of files.
+     *
+     * @param type The type
+     * @return Whether it is a list or a set of files
+     */
+    public static boolean isFileCollection(@NonNull ClassElement type) {
+        if (!type.isAssignable(List.class) && !type.isAssignable(Set.class)) {
+            return false;
+        }
+        ClassElement elementType = type.getTypeArguments().get("E");
+        return elementType != null && elementType.isAssignable(File.class);
+    }
+
     /**
      * Instantiate a type.
      *
-     * @param element The class element
+     * @param type The analysed type
      * @param name The name to use for the local variable
      * @param arguments The arguments provided for type creation corresponding to properties
      * @param statements A mutable statements list
      * @return The local variable representing the instantiated type
      */
     public static VariableDef.Local instantiateType(
-        ClassElement element, String name, Map<String, ExpressionDef> arguments, List<StatementDef> statements
+        AnalysedType type, String name, Map<String, ExpressionDef> arguments, List<StatementDef> statements
     )  {
-        ClassTypeDef taskType = ClassTypeDef.of(element);
-        Local local = new Local(name, taskType);
-
-        MethodElement constructor = element.getPrimaryConstructor().orElse(null);
-        if (constructor == null) {
-            throw new ProcessingException(element, "No constructor found for " + element.getName());
-        }
-        if (element.isRecord()) {
-            List<ExpressionDef> argsSorted = element.getBeanProperties().stream()
-                .map(prop -> arguments.get(prop.getName()))
-                .toList();
-            statements.add(new StatementDef.DefineAndAssign(local,
-                taskType.instantiate(constructor, argsSorted)
-            ));
-        } else {
-            Set<String> fulfilledArgs = new HashSet<>();
-
-            constructor.getParameters();
-            List<ExpressionDef> constructorArgs = new ArrayList<>();
-            for (ParameterElement param : constructor.getParameters()) {
-                fulfilledArgs.add(param.getName());
-                constructorArgs.add(arguments.containsKey(param.getName())
-                    ? arguments.get(param.getName()) : ExpressionDef.constant(null));
-            }
-            statements.add(local.defineAndAssign(
-                taskType.instantiate(constructor, constructorArgs)));
-
-            for (PropertyElement property : element.getBeanProperties()) {
-                setProperty(property, fulfilledArgs, arguments, local, statements);
-            }
+        Local local = new Local(name, type.type());
+        if (type.constructor() == null) {
+            throw new ProcessingException(type.source(), "No constructor found for " + type.source().getName());
+        }
+        List<ExpressionDef> constructorArgs = new ArrayList<>(type.constructorArguments().size());
+        for (String argument : type.constructorArguments()) {
+            constructorArgs.add(arguments.containsKey(argument)
+                ? arguments.get(argument) : ExpressionDef.constant(null));
+        }
+        statements.add(local.defineAndAssign(type.type().instantiate(type.constructorParameterTypes(), constructorArgs)));
+        for (WritableProperty property : type.writableProperties()) {
+            setProperty(property, arguments, local, statements);
         }
         return local;
     }
@@ -156,55 +277,173 @@ public class PluginUtils {
     /**
      * Set a property.
      *
-     * @param property The property
-     * @param fulfilledArgs The values that were fulfilled already
+     * @param property The property, that has a write method or an accessible field
      * @param arguments The argument values
      * @param owner The owner to set property to
      * @param statements The modifiable statements
      */
     private static void setProperty(
-        PropertyElement property, Set<String> fulfilledArgs,
-        Map<String, ExpressionDef> arguments, Local owner, List<StatementDef> statements
+        WritableProperty property, Map<String, ExpressionDef> arguments, Local owner, List<StatementDef> statements
     ) {
-        if (fulfilledArgs.contains(property.getName())
-            || !arguments.containsKey(property.getName())
-        ) {
+        if (!arguments.containsKey(property.name())) {
             return;
         }
-        Optional<MethodElement> writeMethod = property.getWriteMethod();
-        Optional<FieldElement> field = property.getField();
-        if (writeMethod.isPresent()) {
-            statements.add(owner.invoke(writeMethod.get(), arguments.get(property.getName())));
-            fulfilledArgs.add(property.getName());
-        } else if (field.isPresent()
-            && (property.isPublic() || property.isPackagePrivate())
-        ) {
-            statements.add(owner.field(field.get()).assign(arguments.get(property.getName())));
-            fulfilledArgs.add(property.getName());
+        if (property.writeMethod() != null) {
+            statements.add(owner.invoke(property.writeMethod(), TypeDef.VOID, arguments.get(property.name())));
+        } else {
+            statements.add(owner.field(property.field(), property.type()).assign(arguments.get(property.name())));
         }
     }
 
     /**
      * A common method for executing the main task executable.
+     * If the executable accepts changes, a full execution is requested.
+     * If it accepts the task resource, the resource is created for the execution.
      *
-     * @param source The source annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
-     * @param methodName The name of the method annotated with {@link PluginTaskExecutable}
+     * @param task The analysed source annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
      * @param arguments The prepared arguments for the task by name
      * @return The statements to execute the task method
      */
     public static StatementDef executeTaskMethod(
-            ClassElement source, String methodName, Map<String, ExpressionDef> arguments
+            AnalysedType task, Map<String, ExpressionDef> arguments
+    ) {
+        return executeTaskMethod(task, arguments, null, null);
+    }
+
+    /**
+     * A common method for executing the main task executable.
+     *
+     * @param task The analysed source annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
+     * @param arguments The prepared arguments for the task by name
+     * @param changes The expression of {@link PluginTaskChanges} to provide to the executable,
+     *                null to request a full execution
+     * @param resource The expression of a shared task resource to provide to the executable,
+     *                 null to create the resource for the execution
+     * @return The statements to execute the task method
+     */
+    public static StatementDef executeTaskMethod(
+            AnalysedType task, Map<String, ExpressionDef> arguments,
+            @Nullable ExpressionDef changes, @Nullable ExpressionDef resource
     ) {
         List<StatementDef> statements = new ArrayList<>();
-        Local task = instantiateType(source, "task", arguments, statements);
-        statements.add(task.invoke(methodName, TypeDef.VOID));
+        Local instance = instantiateType(task, "task", arguments, statements);
+        String executableName = task.requiredExecutableName();
+        List<ExpressionDef> executableArguments = new ArrayList<>();
+        for (ExecutableArgument argument: task.executableArguments()) {
+            if (argument == ExecutableArgument.CHANGES) {
+                executableArguments.add(changes != null ? changes
+                    : ClassTypeDef.of(PluginTaskChanges.class).invokeStatic("full", ClassTypeDef.of(PluginTaskChanges.class)));
+            } else {
+                executableArguments.add(resource != null ? resource : createResource(task));
+            }
+        }
+        statements.add(instance.invoke(executableName, TypeDef.VOID, executableArguments.toArray(ExpressionDef[]::new)));
         return StatementDef.multi(statements);
     }
 
+    /**
+     * Create the task resource by calling its factory method.
+     *
+     * @param task The analysed source annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
+     * @return The expression creating the resource
+     */
+    public static ExpressionDef createResource(AnalysedType task) {
+        if (task.resourceFactoryName() == null || task.resourceType() == null) {
+            throw new ProcessingException(task.source(), "Expected a method annotated with @PluginTaskResource");
+        }
+        return task.type().invokeStatic(task.resourceFactoryName(), task.resourceType());
+    }
+
+    /**
+     * Get the elements that a generated source originates from.
+     * Includes the trigger element, the task sources and the sources of models the generated type uses,
+     * so that incremental compilation regenerates the type when any of them changes.
+     *
+     * @param trigger The element annotated with the plugin annotation
+     * @param sources The task sources
+     * @param models The models used
+     * @return The originating elements
+     */
+    public static @NonNull Element[] getOriginatingElements(
+        @NonNull ClassElement trigger, @NonNull Collection<ClassElement> sources, @NonNull Collection<GeneratedModel> models
+    ) {
+        Map<String, Element> elements = new LinkedHashMap<>();
+        elements.put(trigger.getName(), trigger);
+        for (ClassElement source: sources) {
+            elements.putIfAbsent(source.getName(), source);
+        }
+        for (GeneratedModel model: models) {
+            elements.putIfAbsent(model.source().getName(), model.source());
+        }
+        return elements.values().toArray(new Element[0]);
+    }
+
+    /**
+     * Get the definitions of the copied models and of the class with their converters.
+     *
+     * @param trigger The element annotated with the plugin annotation
+     * @param registry The model registry
+     * @return The definitions with the elements they originate from
+     */
+    public static @NonNull List<OriginatingDefinition> getModelDefinitions(
+        @NonNull ClassElement trigger, @NonNull ModelRegistry registry
+    ) {
+        List<OriginatingDefinition> definitions = new ArrayList<>();
+        for (GeneratedModel model: registry.models()) {
+            definitions.add(new OriginatingDefinition(
+                model.model(), getOriginatingElements(trigger, List.of(), List.of(model))
+            ));
+        }
+        if (!definitions.isEmpty()) {
+            definitions.add(new OriginatingDefinition(
+                ModelUtils.createConverters(registry), getOriginatingElements(trigger, List.of(), registry.models())
+            ));
+        }
+        return definitions;
+    }
+
+    /**
+     * Mark a definition as generated in the compilation.
+     * Models are shared by the Gradle and Maven triggers of a package, so each must only be written once.
+     *
+     * @param context The visitor context
+     * @param name The definition name
+     * @return Whether the definition was not generated before and should be written
+     */
+    public static boolean markGenerated(@NonNull VisitorContext context, @NonNull String name) {
+        return getGenerated(context).add(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized Set<String> getGenerated(VisitorContext context) {
+        Set<String> generated = context.get(GENERATED_CONTEXT_KEY, Set.class).orElse(null);
+        if (generated == null) {
+            generated = ConcurrentHashMap.newKeySet();
+            context.put(GENERATED_CONTEXT_KEY, generated);
+        }
+        return generated;
+    }
+
+    /**
+     * A definition to generate with the elements it originates from.
+     *
+     * @param definition The definition
+     * @param originatingElements The originating elements
+     */
+    public record OriginatingDefinition(
+        @NonNull ObjectDef definition,
+        @NonNull Element[] originatingElements
+    ) {
+    }
+
     /**
      * Configuration for a plugin parameter.
+     * The data needed to generate the parameter is read from the source eagerly,
+     * so that the sources can be built without querying the element.
      *
      * @param source The source parameter
+     * @param name The parameter name
+     * @param kind The kind of the parameter type
      * @param required Whether it is required
      * @param defaultValue The default value
      * @param internal Whether it is internal
@@ -213,10 +452,17 @@ public class PluginUtils {
      * @param globalProperty A global property
      * @param javadoc The javadoc for property
      * @param type The type to use for generated property
+     * @param sourceType The type of the source parameter
+     * @param converterMethod The name of the method converting the generated property to the source type,
+     *                        null if it does not require conversion
      * @param pathSensitivity The path sensitivity
+     * @param incremental Whether the directory changes are processed incrementally
+     * @param skipWhenEmpty Whether the task is skipped if the file collection is empty
      */
     public record ParameterConfig(
         @NonNull PropertyElement source,
+        @NonNull String name,
+        @NonNull ParameterKind kind,
         boolean required,
         @Nullable String defaultValue,
         boolean internal,
@@ -225,7 +471,77 @@ public class PluginUtils {
         @Nullable String globalProperty,
         @NonNull String javadoc,
         @NonNull TypeDef type,
-        @NonNull PathSensitivity pathSensitivity
+        @NonNull TypeDef sourceType,
+        @Nullable String converterMethod,
+        @NonNull PathSensitivity pathSensitivity,
+        boolean incremental,
+        boolean skipWhenEmpty
         ) {
+
+        /**
+         * @return Whether the parameter is a list or a set of files
+         */
+        public boolean fileCollection() {
+            return kind == ParameterKind.FILE_LIST || kind == ParameterKind.FILE_SET;
+        }
+    }
+
+    /**
+     * The kind of a parameter type, that determines how the parameter is passed to the task.
+     */
+    public enum ParameterKind {
+        /**
+         * A {@link File}.
+         */
+        FILE,
+        /**
+         * A list of files.
+         */
+        FILE_LIST,
+        /**
+         * A set of files.
+         */
+        FILE_SET,
+        /**
+         * A map.
+         */
+        MAP,
+        /**
+         * A list.
+         */
+        LIST,
+        /**
+         * A set.
+         */
+        SET,
+        /**
+         * Any other value.
+         */
+        VALUE;
+
+        /**
+         * Get the kind of a type.
+         *
+         * @param type The type
+         * @return The kind
+         */
+        public static @NonNull ParameterKind of(@NonNull ClassElement type) {
+            if (isFileCollection(type)) {
+                return type.isAssignable(List.class) ? FILE_LIST : FILE_SET;
+            }
+            if (type.isAssignable(File.class)) {
+                return FILE;
+            }
+            if (type.isAssignable(Map.class)) {
+                return MAP;
+            }
+            if (type.isAssignable(List.class)) {
+                return LIST;
+            }
+            if (type.isAssignable(Set.class)) {
+                return SET;
+            }
+            return VALUE;
+        }
     }
 }
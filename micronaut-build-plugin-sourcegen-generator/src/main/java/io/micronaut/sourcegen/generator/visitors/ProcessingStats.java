@@ -0,0 +1,330 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.visitors;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.processing.ProcessingException;
+import io.micronaut.inject.visitor.VisitorContext;
+import io.micronaut.sourcegen.generator.SourceGenerator;
+import io.micronaut.sourcegen.model.ObjectDef;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Statistics of plugin generation, written to {@value #STATS_FILE} when the
+ * {@value #OPTION} processor option is {@code true}.
+ * The statistics are shared by all visitors through the visitor context.
+ *
+ * <p>For each trigger it records wall time and allocated bytes of the generation phases.
+ * Phases may nest, for example javadoc loading happens during model copying, which happens during
+ * config extraction. A phase is only measured once when it is re-entered on the same thread.</p>
+ */
+@Internal
+public final class ProcessingStats {
+
+    public static final String OPTION = "micronaut.plugin.gen.stats";
+    public static final String STATS_FILE = JavadocUtils.META_INF_FOLDER + "stats.json";
+
+    public static final String CONFIG_EXTRACTION = "configExtraction";
+    public static final String JAVADOC_LOADING = "javadocLoading";
+    public static final String MODEL_COPYING = "modelCopying";
+    public static final String SOURCE_WRITING = "sourceWriting";
+    public static final String BUILDER_PREFIX = "builder:";
+
+    public static final String MODELS_COUNT = "models";
+    public static final String CONVERTER_METHODS_COUNT = "converterMethods";
+    public static final String GENERATED_TYPES_COUNT = "generatedTypes";
+    public static final String GENERATED_LINES_COUNT = "generatedLines";
+
+    private static final String CONTEXT_KEY = ProcessingStats.class.getName();
+    private static final TriggerStats DISABLED = new TriggerStats(null, null);
+    private static final Measurement NO_MEASUREMENT = () -> { };
+
+    private final boolean enabled;
+    private final List<TriggerStats> triggers = new ArrayList<>();
+    private volatile TriggerStats current = DISABLED;
+    private boolean written;
+
+    private ProcessingStats(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get the statistics for the current processing.
+     *
+     * @param context The visitor context
+     * @return The statistics
+     */
+    public static synchronized @NonNull ProcessingStats get(@NonNull VisitorContext context) {
+        ProcessingStats stats = context.get(CONTEXT_KEY, ProcessingStats.class).orElse(null);
+        if (stats == null) {
+            stats = new ProcessingStats(Boolean.parseBoolean(context.getOptions().get(OPTION)));
+            context.put(CONTEXT_KEY, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Start collecting statistics for a trigger.
+     * The trigger becomes current until {@link #endTrigger()} is called.
+     *
+     * @param element The trigger element
+     * @param generator The generator name, like gradle or maven
+     * @return The trigger statistics
+     */
+    public @NonNull TriggerStats startTrigger(@NonNull ClassElement element, @NonNull String generator) {
+        if (!enabled) {
+            return DISABLED;
+        }
+        current = new TriggerStats(element, generator);
+        triggers.add(current);
+        return current;
+    }
+
+    /**
+     * Stop collecting statistics for the current trigger.
+     */
+    public void endTrigger() {
+        current = DISABLED;
+    }
+
+    /**
+     * Measure a phase of the current trigger.
+     *
+     * @param phase The phase name
+     * @return The measurement to close when the phase is finished
+     */
+    public @NonNull Measurement measure(@NonNull String phase) {
+        return current.measure(phase);
+    }
+
+    /**
+     * Write the statistics file, if enabled and not written yet.
+     *
+     * @param context The visitor context
+     */
+    public synchronized void write(@NonNull VisitorContext context) {
+        if (!enabled || written || triggers.isEmpty()) {
+            return;
+        }
+        written = true;
+        ClassElement[] originatingElements = triggers.stream().map(t -> t.element).toArray(ClassElement[]::new);
+        context.visitMetaInfFile(STATS_FILE, originatingElements)
+            .ifPresent(generatedFile -> {
+                try (OutputStream outputStream = generatedFile.openOutputStream()) {
+                    outputStream.write(toJson().getBytes(StandardCharsets.UTF_8));
+                } catch (Exception e) {
+                    throw new ProcessingException(originatingElements[0], "Failed to generate '" + STATS_FILE + "': " + e.getMessage(), e);
+                }
+            });
+    }
+
+    private String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"triggers\": [");
+        for (int i = 0; i < triggers.size(); i++) {
+            json.append(i == 0 ? "\n" : ",\n");
+            triggers.get(i).appendJson(json);
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads && sunThreads.isThreadAllocatedMemorySupported()) {
+            return sunThreads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * A measurement of a phase.
+     */
+    @FunctionalInterface
+    public interface Measurement extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+    /**
+     * Statistics of a single trigger.
+     * Can be used concurrently, since builders may run in parallel.
+     */
+    public static final class TriggerStats {
+
+        private final ClassElement element;
+        private final String generator;
+        private final Map<String, long[]> phases = new LinkedHashMap<>();
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private final ThreadLocal<Set<String>> activePhases = ThreadLocal.withInitial(HashSet::new);
+
+        private TriggerStats(ClassElement element, String generator) {
+            this.element = element;
+            this.generator = generator;
+        }
+
+        /**
+         * @return Whether statistics are collected
+         */
+        public boolean isEnabled() {
+            return element != null;
+        }
+
+        /**
+         * Measure a phase.
+         *
+         * @param phase The phase name
+         * @return The measurement to close when the phase is finished
+         */
+        public @NonNull Measurement measure(@NonNull String phase) {
+            if (!isEnabled() || !activePhases.get().add(phase)) {
+                return NO_MEASUREMENT;
+            }
+            long startTime = System.nanoTime();
+            long startAllocated = allocatedBytes();
+            return () -> {
+                long time = System.nanoTime() - startTime;
+                long allocated = startAllocated < 0 ? 0 : allocatedBytes() - startAllocated;
+                activePhases.get().remove(phase);
+                synchronized (this) {
+                    long[] values = phases.computeIfAbsent(phase, k -> new long[3]);
+                    values[0] += time;
+                    values[1] += allocated;
+                    values[2]++;
+                }
+            };
+        }
+
+        /**
+         * Measure a phase.
+         *
+         * @param phase The phase name
+         * @param supplier The phase
+         * @param <T> The result type
+         * @return The result of the phase
+         */
+        public <T> T measure(@NonNull String phase, @NonNull Supplier<T> supplier) {
+            try (Measurement ignored = measure(phase)) {
+                return supplier.get();
+            }
+        }
+
+        /**
+         * Add to a counter.
+         *
+         * @param name The counter name
+         * @param delta The value to add
+         */
+        public synchronized void count(@NonNull String name, long delta) {
+            if (isEnabled()) {
+                counts.merge(name, delta, Long::sum);
+            }
+        }
+
+        /**
+         * Count a generated type and its lines.
+         * The type is rendered separately from writing, so that counting does not affect
+         * the measured writing time.
+         *
+         * @param sourceGenerator The source generator
+         * @param definition The generated definition
+         */
+        public void countGenerated(@NonNull SourceGenerator sourceGenerator, @NonNull ObjectDef definition) {
+            if (!isEnabled()) {
+                return;
+            }
+            LineCountingWriter writer = new LineCountingWriter();
+            try {
+                sourceGenerator.write(definition, writer);
+            } catch (IOException e) {
+                throw new ProcessingException(element, "Could not render " + definition.getName() + ": " + e.getMessage(), e);
+            }
+            count(GENERATED_TYPES_COUNT, 1);
+            count(GENERATED_LINES_COUNT, writer.lines);
+        }
+
+        private synchronized void appendJson(StringBuilder json) {
+            json.append("    {\n")
+                .append("      \"name\": ").append(quote(element.getName())).append(",\n")
+                .append("      \"generator\": ").append(quote(generator)).append(",\n")
+                .append("      \"phases\": {");
+            boolean first = true;
+            for (Map.Entry<String, long[]> phase : phases.entrySet()) {
+                json.append(first ? "\n" : ",\n")
+                    .append("        ").append(quote(phase.getKey())).append(": {")
+                    .append("\"wallTimeNanos\": ").append(phase.getValue()[0])
+                    .append(", \"allocatedBytes\": ").append(phase.getValue()[1])
+                    .append(", \"invocations\": ").append(phase.getValue()[2])
+                    .append('}');
+                first = false;
+            }
+            json.append("\n      },\n      \"counts\": {");
+            first = true;
+            for (Map.Entry<String, Long> count : counts.entrySet()) {
+                json.append(first ? "\n" : ",\n")
+                    .append("        ").append(quote(count.getKey())).append(": ").append(count.getValue());
+                first = false;
+            }
+            json.append("\n      }\n    }");
+        }
+    }
+
+    /**
+     * A writer that only counts lines.
+     */
+    private static final class LineCountingWriter extends Writer {
+
+        private long lines;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
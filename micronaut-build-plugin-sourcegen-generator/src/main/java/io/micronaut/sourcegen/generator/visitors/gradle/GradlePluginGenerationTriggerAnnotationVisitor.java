@@ -18,6 +18,7 @@ package io.micronaut.sourcegen.generator.visitors.gradle;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.Element;
 import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.TypeElementVisitor;
 import io.micronaut.inject.visitor.VisitorContext;
@@ -25,7 +26,12 @@ import io.micronaut.sourcegen.annotations.GenerateGradlePlugin;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Type;
 import io.micronaut.sourcegen.generator.SourceGenerator;
 import io.micronaut.sourcegen.generator.SourceGenerators;
-import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
+import io.micronaut.sourcegen.generator.visitors.JavadocUtils;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.OriginatingDefinition;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats.Measurement;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats.TriggerStats;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradlePluginConfig;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradleTaskConfig;
 import io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleExtensionBuilder;
@@ -39,6 +45,9 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 /**
  * The visitor for generating Gradle plugins.
@@ -49,6 +58,17 @@ import java.util.Set;
 @Internal
 public final class GradlePluginGenerationTriggerAnnotationVisitor implements TypeElementVisitor<GenerateGradlePlugin, Object> {
 
+    /**
+     * The processor option for the number of threads used to build plugin sources.
+     * By default, the sources are built sequentially.
+     */
+    public static final String PARALLELISM_OPTION = "micronaut.plugin.gen.parallelism";
+
+    /**
+     * The maximum parallelism supported by {@link ForkJoinPool}.
+     */
+    private static final int MAX_PARALLELISM = 0x7fff;
+
     private static final List<GradleTypeBuilder> BUILDERS = List.of(
         new GradleTaskBuilder(),
         new GradleExtensionBuilder(),
@@ -56,12 +76,11 @@ public final class GradlePluginGenerationTriggerAnnotationVisitor implements Typ
         new GradlePluginBuilder()
     );
 
-    private final Set<String> generated = new HashSet<>();
     private final Set<String> processed = new HashSet<>();
 
     @Override
     public @NonNull VisitorKind getVisitorKind() {
-        return VisitorKind.ISOLATING;
+        return VisitorKind.AGGREGATING;
     }
 
     @Override
@@ -74,25 +93,40 @@ public final class GradlePluginGenerationTriggerAnnotationVisitor implements Typ
         return Set.of(GenerateGradlePlugin.class.getName());
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(PARALLELISM_OPTION, ProcessingStats.OPTION);
+    }
+
+    @Override
+    public void finish(VisitorContext visitorContext) {
+        ProcessingStats.get(visitorContext).write(visitorContext);
+    }
+
     @Override
     public void visitClass(ClassElement element, VisitorContext context) {
-        context.info("Creating plugin classes");
         if (processed.contains(element.getName()) || !element.hasAnnotation(GenerateGradlePlugin.class)) {
             return;
         }
+        JavadocUtils.addSourceType(context, element);
+        context.info("Creating plugin classes for " + element.getName());
+        ProcessingStats stats = ProcessingStats.get(context);
+        TriggerStats triggerStats = stats.startTrigger(element, "gradle");
         try {
-            List<ObjectDef> definitions = createDefinitions(context, element);
+            List<OriginatingDefinition> definitions = createDefinitions(context, element, triggerStats);
             SourceGenerator sourceGenerator = SourceGenerators.findByLanguage(context.getLanguage()).orElse(null);
             if (sourceGenerator == null) {
                 throw new ProcessingException(element, "Could not find SourceGenerator for language " + context.getLanguage());
             }
             processed.add(element.getName());
-            for (ObjectDef definition : definitions) {
-                if (generated.contains(definition.getName())) {
+            for (OriginatingDefinition definition : definitions) {
+                if (!PluginUtils.markGenerated(context, definition.definition().getName())) {
                     continue;
                 }
-                generated.add(definition.getName());
-                sourceGenerator.write(definition, context, element);
+                try (Measurement ignored = triggerStats.measure(ProcessingStats.SOURCE_WRITING)) {
+                    sourceGenerator.write(definition.definition(), context, definition.originatingElements());
+                }
+                triggerStats.countGenerated(sourceGenerator, definition.definition());
             }
         } catch (ProcessingException e) {
             throw e;
@@ -103,29 +137,112 @@ public final class GradlePluginGenerationTriggerAnnotationVisitor implements Typ
                     throw exception;
                 })
             );
+        } finally {
+            stats.endTrigger();
         }
     }
 
-    private List<ObjectDef> createDefinitions(VisitorContext context, ClassElement element) {
-        List<ObjectDef> definitions = new ArrayList<>();
-        GradlePluginConfig pluginConfig = GradlePluginUtils.getPluginConfig(element, context);
-        for (GradleTaskConfig taskConfig : pluginConfig.tasks()) {
-            definitions.addAll(taskConfig.generatedModels().stream().map(GeneratedModel::model).toList());
-        }
+    private List<OriginatingDefinition> createDefinitions(VisitorContext context, ClassElement element, TriggerStats triggerStats) {
+        List<OriginatingDefinition> definitions = new ArrayList<>();
+        GradlePluginConfig pluginConfig = triggerStats.measure(
+            ProcessingStats.CONFIG_EXTRACTION, () -> GradlePluginUtils.getPluginConfig(element, context)
+        );
+        triggerStats.count(ProcessingStats.MODELS_COUNT, pluginConfig.modelRegistry().models().size());
+        triggerStats.count(ProcessingStats.CONVERTER_METHODS_COUNT, pluginConfig.modelRegistry().converterMethodsCount());
+        definitions.addAll(PluginUtils.getModelDefinitions(element, pluginConfig.modelRegistry()));
+
+        List<BuildUnit> units = new ArrayList<>();
+        Element[] pluginOriginatingElements = PluginUtils.getOriginatingElements(
+            element,
+            pluginConfig.tasks().stream().map(GradleTaskConfig::source).toList(),
+            pluginConfig.modelRegistry().models()
+        );
         for (Type type : pluginConfig.types()) {
-            List<ObjectDef> typeDefinitions = null;
-            for (GradleTypeBuilder gradleTypeBuilder : BUILDERS) {
-                if (gradleTypeBuilder.getType().equals(type)) {
-                    typeDefinitions = gradleTypeBuilder.build(pluginConfig);
+            GradleTypeBuilder builder = getBuilder(element, type);
+            String phase = ProcessingStats.BUILDER_PREFIX + type.name();
+            if (builder.isPerTask()) {
+                for (GradleTaskConfig taskConfig : pluginConfig.tasks()) {
+                    units.add(new BuildUnit(
+                        () -> triggerStats.measure(phase, () -> builder.buildForTask(pluginConfig, taskConfig)),
+                        PluginUtils.getOriginatingElements(element, List.of(taskConfig.source()), taskConfig.generatedModels())
+                    ));
                 }
+            } else {
+                units.add(new BuildUnit(
+                    () -> triggerStats.measure(phase, () -> builder.build(pluginConfig)), pluginOriginatingElements
+                ));
             }
-            if (typeDefinitions == null) {
-                throw new ProcessingException(element, "Building plugin sources of type " + type + " not supported!");
-            }
-            definitions.addAll(typeDefinitions);
         }
 
+        int parallelism = getParallelism(context, element);
+        List<List<ObjectDef>> results = parallelism > 1
+            ? buildInParallel(units, parallelism)
+            : units.stream().map(unit -> unit.builder().get()).toList();
+        for (int i = 0; i < units.size(); i++) {
+            for (ObjectDef definition : results.get(i)) {
+                definitions.add(new OriginatingDefinition(definition, units.get(i).originatingElements()));
+            }
+        }
         return definitions;
     }
 
+    /**
+     * Build the definitions on a bounded fork-join pool.
+     * Each type, and each task for builders that generate per task, is a separate unit of work.
+     * The elements are not thread-safe, so everything the builders need is read from them into
+     * the configuration before, and the units only assemble the definitions.
+     * The results are collected in the same order as sequential building would produce.
+     */
+    private List<List<ObjectDef>> buildInParallel(List<BuildUnit> units, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<ObjectDef>>> tasks = new ArrayList<>();
+            for (BuildUnit unit : units) {
+                tasks.add(pool.submit(() -> unit.builder().get()));
+            }
+            return tasks.stream().map(ForkJoinTask::join).toList();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private GradleTypeBuilder getBuilder(ClassElement element, Type type) {
+        for (GradleTypeBuilder gradleTypeBuilder : BUILDERS) {
+            if (gradleTypeBuilder.getType().equals(type)) {
+                return gradleTypeBuilder;
+            }
+        }
+        throw new ProcessingException(element, "Building plugin sources of type " + type + " not supported!");
+    }
+
+    private int getParallelism(VisitorContext context, ClassElement element) {
+        String value = context.getOptions().get(PARALLELISM_OPTION);
+        if (value == null || value.isBlank()) {
+            return 1;
+        }
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            parallelism = 0;
+        }
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM) {
+            throw new ProcessingException(element, "Expected a number of threads between 1 and " + MAX_PARALLELISM
+                + " for option " + PARALLELISM_OPTION + " but found: " + value);
+        }
+        return parallelism;
+    }
+
+    /**
+     * A unit of building plugin sources.
+     *
+     * @param builder The builder of definitions
+     * @param originatingElements The elements the definitions originate from
+     */
+    private record BuildUnit(
+        Supplier<List<ObjectDef>> builder,
+        Element[] originatingElements
+    ) {
+    }
+
 }
@@ -18,24 +18,40 @@ package io.micronaut.sourcegen.generator.visitors.gradle;
 import io.micronaut.core.annotation.AnnotationValue;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.reflect.ClassUtils;
 import io.micronaut.inject.ast.ClassElement;
 import io.micronaut.inject.ast.PropertyElement;
 import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.VisitorContext;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.GenerateGradleTask;
+import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Type;
-import io.micronaut.sourcegen.generator.visitors.JavadocUtils;
+import io.micronaut.sourcegen.annotations.PluginTaskParameter.PathSensitivity;
+import io.micronaut.sourcegen.generator.visitors.AnalysedType;
 import io.micronaut.sourcegen.generator.visitors.JavadocUtils.TypeJavadoc;
+import io.micronaut.sourcegen.generator.visitors.ModelRegistry;
 import io.micronaut.sourcegen.generator.visitors.ModelUtils;
 import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
+import io.micronaut.sourcegen.model.ClassTypeDef;
+import io.micronaut.sourcegen.model.ClassTypeDef.ClassDefType;
+import io.micronaut.sourcegen.model.ClassTypeDef.ClassElementType;
+import io.micronaut.sourcegen.model.EnumDef;
+import io.micronaut.sourcegen.model.ExpressionDef;
+import io.micronaut.sourcegen.model.ExpressionDef.Constant;
 import io.micronaut.sourcegen.model.TypeDef;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Utility class for Gradle plugin generation.
@@ -43,6 +59,11 @@ import java.util.List;
 @Internal
 public final class GradlePluginUtils {
 
+    /**
+     * The property provided by {@code org.gradle.api.Named} of the generated specifications.
+     */
+    private static final String SPEC_NAME_PROPERTY = "name";
+
     /**
      * Get task configurations configured for a given element
      * with {@link GenerateGradlePlugin} annotation.
@@ -57,20 +78,39 @@ public final class GradlePluginUtils {
     ) {
         AnnotationValue<GenerateGradlePlugin> annotation = element.getAnnotation(GenerateGradlePlugin.class);
 
+        boolean copyModels = annotation.booleanValue("copyModels").orElse(true);
+        ModelRegistry modelRegistry = ModelRegistry.of(element, "Gradle", copyModels);
+        boolean classDataSharing = annotation.booleanValue("classDataSharing").orElse(false);
         List<GradleTaskConfig> taskConfigs = new ArrayList<>();
         for (AnnotationValue<GenerateGradleTask> taskAnn:
             annotation.getAnnotations("tasks", GenerateGradleTask.class)
         ) {
-            taskConfigs.add(getTaskConfig(element, taskAnn, context));
+            taskConfigs.add(getTaskConfig(element, taskAnn, context, modelRegistry,
+                annotation.booleanValue("relocatable").orElse(false), classDataSharing));
+        }
+        if (classDataSharing && taskConfigs.stream().noneMatch(t -> t.worker().classDataSharing())) {
+            throw new ProcessingException(element, "Class data sharing is only used by workers with "
+                + Isolation.PROCESS + " isolation, but no task of plugin " + element.getName() + " has it");
+        }
+        if (!copyModels) {
+            for (GradleTaskConfig taskConfig: taskConfigs) {
+                if (taskConfig.worker().isolation() != Isolation.NONE) {
+                    throw new ProcessingException(element, "Models can only be used without copying by tasks with "
+                        + Isolation.NONE + " isolation, but isolation of task " + taskConfig.source().getName()
+                        + " is " + taskConfig.worker().isolation());
+                }
+            }
         }
 
         return new GradlePluginConfig(
             taskConfigs,
+            modelRegistry,
             element.getPackageName(),
             annotation.stringValue("namePrefix").orElse(element.getSimpleName()),
             annotation.stringValue("taskGroup").orElse(null),
             annotation.booleanValue("micronautPlugin").orElse(true),
             annotation.stringValue("dependency").orElse(null),
+            classDataSharing,
             Arrays.stream(annotation.getRequiredValue("types", Type[].class)).toList()
         );
     }
@@ -78,40 +118,101 @@ public final class GradlePluginUtils {
     private static @NonNull GradleTaskConfig getTaskConfig(
             @NonNull ClassElement element,
             @NonNull AnnotationValue<GenerateGradleTask> annotation,
-            @NonNull VisitorContext context
+            @NonNull VisitorContext context,
+            @NonNull ModelRegistry modelRegistry,
+            boolean relocatable,
+            boolean classDataSharing
     ) {
-        ClassElement source = annotation.stringValue("source")
-            .flatMap(context::getClassElement).orElse(null);
-        if (source == null) {
-            throw new ProcessingException(element, "Could not load source type defined in @GenerateGradleTask: "
-                + annotation.stringValue("source"));
-        }
+        ClassElement source = PluginUtils.getTaskSource(element, annotation, context);
+        PathSensitivity defaultPathSensitivity = relocatable ? PathSensitivity.RELATIVE : PathSensitivity.ABSOLUTE;
 
-        List<GeneratedModel> generatedModels = new ArrayList<>();
-        TypeJavadoc javadoc = JavadocUtils.getTaskJavadoc(context, source);
+        Set<String> usedModels = new HashSet<>();
+        AnalysedType task = AnalysedType.of(context, source);
+        TypeJavadoc javadoc = task.javadoc();
         List<ParameterConfig> parameters = new ArrayList<>();
-        for (PropertyElement property: source.getBeanProperties()) {
-            TypeDef type = ModelUtils.getType(context, element.getPackageName() + ".model",
-                property.getType(), generatedModels);
-            parameters.add(PluginUtils.getParameterConfig(javadoc, property, type));
+        Map<String, ExpressionDef> defaultValues = new HashMap<>();
+        for (PropertyElement property: task.properties()) {
+            TypeDef type = ModelUtils.getType(context, modelRegistry, property, usedModels);
+            ParameterConfig parameter = PluginUtils.getParameterConfig(javadoc, property, type, defaultPathSensitivity);
+            if (!parameter.internal() && SPEC_NAME_PROPERTY.equals(property.getName())) {
+                throw new ProcessingException(source, "Parameter '" + SPEC_NAME_PROPERTY + "' of task " + source.getName()
+                    + " clashes with the name of the Gradle specification, rename it or mark it as internal");
+            }
+            parameters.add(parameter);
+            if (parameter.defaultValue() != null) {
+                ExpressionDef defaultValue = createDefault(parameter.type(), parameter.defaultValue());
+                if (defaultValue != null) {
+                    defaultValues.put(parameter.name(), defaultValue);
+                }
+            }
+        }
+
+        GradleWorkerConfig worker = getWorkerConfig(source, annotation, classDataSharing);
+        if (task.acceptsResource() && worker.isolation() != Isolation.NONE) {
+            throw new ProcessingException(source, "A task resource can only be shared by a build service with "
+                + Isolation.NONE + " isolation, but isolation of task " + source.getName() + " is " + worker.isolation());
         }
 
         String namePrefix = annotation.stringValue("namePrefix").orElse(source.getSimpleName());
-        String methodName = PluginUtils.getTaskExecutable(source).getName();
+        String methodName = task.requiredExecutableName();
         String methodJavadoc = javadoc.elements().get(methodName + "()");
         if (methodJavadoc == null) {
             methodJavadoc = "Main execution of " + namePrefix + " task.";
         }
         return new GradleTaskConfig(
-            source,
+            task,
             parameters,
+            defaultValues,
             methodName,
             namePrefix,
             annotation.stringValue("extensionMethodName").orElse(methodName),
             javadoc.javadoc().orElse(namePrefix + " Gradle task."),
             methodJavadoc,
-            generatedModels,
-            annotation.booleanValue("cacheable").orElse(true)
+            modelRegistry.resolve(usedModels),
+            modelRegistry.taskConvertersType(),
+            annotation.booleanValue("cacheable").orElse(true),
+            annotation.booleanValue("batch").orElse(false),
+            relocatable,
+            worker
+        );
+    }
+
+    /**
+     * Create the expression of a default value.
+     * The default values are created with the configuration, since it may query the element of the type.
+     *
+     * @param type The parameter type
+     * @param value The default value
+     * @return The expression or null if a default value of the type is not supported
+     */
+    private static @Nullable ExpressionDef createDefault(@NonNull TypeDef type, @NonNull String value) {
+        if (type instanceof ClassElementType classElementType) {
+            return ExpressionDef.constant(classElementType.classElement(), type, value);
+        } else if (type instanceof TypeDef.Primitive primitiveType) {
+            return ClassUtils.getPrimitiveType(primitiveType.name()).flatMap(t ->
+                ConversionService.SHARED.convert(value, t)
+            ).map(o -> new Constant(type, o)).orElse(null);
+        } else if (type instanceof ClassDefType classDefType && classDefType.objectDef() instanceof EnumDef) {
+            return classDefType.getStaticField(value, type);
+        }
+        return null;
+    }
+
+    private static @NonNull GradleWorkerConfig getWorkerConfig(
+            @NonNull ClassElement source,
+            @NonNull AnnotationValue<GenerateGradleTask> annotation,
+            boolean classDataSharing
+    ) {
+        Isolation isolation = annotation.enumValue("isolation", Isolation.class).orElse(Isolation.CLASSLOADER);
+        String maxHeapSize = annotation.stringValue("maxHeapSize").orElse(null);
+        List<String> jvmArgs = Arrays.asList(annotation.stringValues("jvmArgs"));
+        String workerDaemonKey = annotation.stringValue("workerDaemonKey").orElse(null);
+        if (isolation != Isolation.PROCESS && (maxHeapSize != null || !jvmArgs.isEmpty() || workerDaemonKey != null)) {
+            throw new ProcessingException(source, "Worker fork options can only be configured with "
+                + Isolation.PROCESS + " isolation, but isolation of task " + source.getName() + " is " + isolation);
+        }
+        return new GradleWorkerConfig(
+            isolation, maxHeapSize, jvmArgs, workerDaemonKey, classDataSharing && isolation == Isolation.PROCESS
         );
     }
 
@@ -119,20 +220,24 @@ public final class GradlePluginUtils {
      * Configuration for a gradle plugin.
      *
      * @param tasks The task configuration
+     * @param modelRegistry The models shared by all tasks
      * @param packageName The package name
      * @param namePrefix The type name prefix
      * @param taskGroup The gradle group to use
      * @param micronautPlugin Whether to extend micronaut plugin
      * @param dependency The dependency
+     * @param classDataSharing Whether process workers use a class data sharing archive
      * @param types The types to generate
      */
     public record GradlePluginConfig(
         List<GradleTaskConfig> tasks,
+        ModelRegistry modelRegistry,
         String packageName,
         String namePrefix,
         String taskGroup,
         boolean micronautPlugin,
         String dependency,
+        boolean classDataSharing,
         List<GenerateGradlePlugin.Type> types
     ) {
     }
@@ -140,26 +245,69 @@ public final class GradlePluginUtils {
     /**
      * Configuration for a gradle task.
      *
-     * @param source The source element
+     * @param task The analysed task source
      * @param parameters The parameters
+     * @param defaultValues The expressions of the parameter default values by parameter name
      * @param methodName The run method name
      * @param namePrefix The prefix to use for classnames
      * @param extensionMethodName The method name for gradle extension
      * @param methodJavadoc The javadoc for executable method
      * @param taskJavadoc The javadoc for the whole task
-     * @param generatedModels Additional generated models
+     * @param generatedModels The generated models used by the task
+     * @param modelConverters The type of the class with converters of the generated models,
+     *                        or null if models are not copied
      * @param cacheable Whether the task should be cacheable
+     * @param batch Whether to generate a batch task
+     * @param relocatable Whether the task caching should not depend on the build location
+     * @param worker The worker configuration
      */
     public record GradleTaskConfig (
-        @NonNull ClassElement source,
+        @NonNull AnalysedType task,
         @NonNull List<ParameterConfig> parameters,
+        @NonNull Map<String, ExpressionDef> defaultValues,
         @NonNull String methodName,
         @NonNull String namePrefix,
         @NonNull String extensionMethodName,
         @NonNull String taskJavadoc,
         @NonNull String methodJavadoc,
         @NonNull List<GeneratedModel> generatedModels,
-        boolean cacheable
+        @Nullable ClassTypeDef modelConverters,
+        boolean cacheable,
+        boolean batch,
+        boolean relocatable,
+        @NonNull GradleWorkerConfig worker
+    ) {
+
+        /**
+         * @return The source element annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
+         */
+        public @NonNull ClassElement source() {
+            return task.source();
+        }
+
+        /**
+         * @return Whether any of the parameters is processed incrementally
+         */
+        public boolean incremental() {
+            return parameters.stream().anyMatch(ParameterConfig::incremental);
+        }
+    }
+
+    /**
+     * Configuration of the worker that executes a gradle task.
+     *
+     * @param isolation The worker isolation
+     * @param maxHeapSize The maximum heap size of the worker daemon
+     * @param jvmArgs The JVM arguments of the worker daemon
+     * @param workerDaemonKey The key for reusing worker daemons
+     * @param classDataSharing Whether the worker daemon uses the class data sharing archive of the plugin
+     */
+    public record GradleWorkerConfig(
+        @NonNull Isolation isolation,
+        @Nullable String maxHeapSize,
+        @NonNull List<String> jvmArgs,
+        @Nullable String workerDaemonKey,
+        boolean classDataSharing
     ) {
     }
 
@@ -40,10 +40,10 @@ import io.micronaut.sourcegen.model.VariableDef.MethodParameter;
 
 import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleTaskBuilder.BATCH_SUFFIX;
 import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleTaskBuilder.TASK_SUFFIX;
 import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleTaskBuilder.createGradleProperty;
 
@@ -57,15 +57,21 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
     public static final String EXTENSION_NAME_SUFFIX = "Extension";
     public static final String DEFAULT_EXTENSION_NAME_PREFIX = "Default";
     public static final String TASK_CONFIGURATOR_SUFFIX = "TaskConfigurator";
+    public static final String SPEC_CONFIGURATOR_SUFFIX = "SpecConfigurator";
 
     private static final String EXECUTE_METHOD = "execute";
     private static final String CLASSPATH_FIELD = "classpath";
-    private static final TypeDef PROJECT_TYPE = TypeDef.of("org.gradle.api.Project");
-    private static final TypeDef CONFIGURATION_TYPE = TypeDef.of("org.gradle.api.artifacts.Configuration");
-    private static final FieldDef PROJECT_FIELD = FieldDef.builder("project").ofType(PROJECT_TYPE)
+    private static final String GET_OBJECTS_METHOD = "getObjects";
+    private static final TypeDef TASK_CONTAINER_TYPE = TypeDef.of("org.gradle.api.tasks.TaskContainer");
+    private static final TypeDef FILE_COLLECTION_TYPE = TypeDef.of("org.gradle.api.file.FileCollection");
+    private static final TypeDef OBJECT_FACTORY_TYPE = TypeDef.of("org.gradle.api.model.ObjectFactory");
+    private static final FieldDef TASKS_FIELD = FieldDef.builder("tasks").ofType(TASK_CONTAINER_TYPE)
         .addModifiers(Modifier.PROTECTED, Modifier.FINAL).build();
     private static final ClassTypeDef ACTION_TYPE = ClassTypeDef.of("org.gradle.api.Action");
     private static final ClassTypeDef TASK_PROVIDER_TYPE = ClassTypeDef.of("org.gradle.api.tasks.TaskProvider");
+    private static final ClassTypeDef CONTAINER_TYPE = ClassTypeDef.of("org.gradle.api.NamedDomainObjectContainer");
+    private static final ClassTypeDef NAMED_PROVIDER_TYPE = ClassTypeDef.of("org.gradle.api.NamedDomainObjectProvider");
+    private static final TypeDef NAMES_TYPE = TypeDef.parameterized(Set.class, String.class);
 
     @Override
     public Type getType() {
@@ -92,6 +98,15 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
             ClassTypeDef actionType = TypeDef.parameterized(
                 ACTION_TYPE, TypeDef.wildcardSupertypeOf(specificationType));
 
+            builder.addMethod(MethodDef.builder(specsMethodName(taskConfig))
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(TypeDef.parameterized(CONTAINER_TYPE, specificationType))
+                .addJavadoc("The specifications of " + taskConfig.extensionMethodName() + " tasks." +
+                    "\nSpecifications are configured lazily, when the corresponding task is realized." +
+                    "\n@return The container of the specifications"
+                )
+                .build()
+            );
             builder.addMethod(MethodDef.builder(taskConfig.extensionMethodName())
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                 .addParameter("name", String.class)
@@ -103,6 +118,21 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
                 )
                 .build()
             );
+            if (taskConfig.batch()) {
+                ClassTypeDef batchTaskType = ClassTypeDef.of(pluginConfig.packageName()
+                    + "." + taskConfig.namePrefix() + BATCH_SUFFIX + TASK_SUFFIX);
+                builder.addMethod(MethodDef.builder(taskConfig.extensionMethodName() + BATCH_SUFFIX)
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addParameter("name", String.class)
+                    .addParameter(ParameterDef.builder("action", batchActionType(batchTaskType)).build())
+                    .addJavadoc("Create a task that executes multiple items of " + taskConfig.extensionMethodName() + " in parallel." +
+                        "\n" + taskConfig.methodJavadoc() +
+                        "\n@param name   The unique identifier used to derive task names" +
+                        "\n@param action The action to apply on the task, that adds the items"
+                    )
+                    .build()
+                );
+            }
         }
         return builder.build();
     }
@@ -116,27 +146,27 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
             .addJavadoc("Default implementation of the {@link " + interfaceTypeName + "}.")
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
             .addSuperinterface(interfaceType)
-            .addField(
-                FieldDef.builder("names", TypeDef.parameterized(Set.class, String.class))
-                    .addModifiers(Modifier.PROTECTED, Modifier.FINAL)
-                    .initializer(ClassTypeDef.of(HashSet.class).instantiate())
-                    .build()
-            )
-            .addField(PROJECT_FIELD)
-            .addField(FieldDef.builder(CLASSPATH_FIELD, CONFIGURATION_TYPE)
+            .addField(TASKS_FIELD)
+            .addField(FieldDef.builder(CLASSPATH_FIELD, FILE_COLLECTION_TYPE)
                 .addModifiers(Modifier.PROTECTED, Modifier.FINAL).build());
 
         builder.addMethod(MethodDef.builder(MethodDef.CONSTRUCTOR)
             .addModifiers(Modifier.PUBLIC)
             .addAnnotation("javax.inject.Inject")
-            .addParameter(PROJECT_FIELD.getName(), PROJECT_TYPE)
-            .addParameter(CLASSPATH_FIELD, CONFIGURATION_TYPE)
+            .addParameter(TASKS_FIELD.getName(), TASK_CONTAINER_TYPE)
+            .addParameter(CLASSPATH_FIELD, FILE_COLLECTION_TYPE)
             .build((t, params) ->
                 StatementDef.multi(
-                    t.field(PROJECT_FIELD).assign(params.get(0)),
-                    t.field(CLASSPATH_FIELD, CONFIGURATION_TYPE).assign(params.get(1))
+                    t.field(TASKS_FIELD).assign(params.get(0)),
+                    t.field(CLASSPATH_FIELD, FILE_COLLECTION_TYPE).assign(params.get(1))
                 )
             ));
+        builder.addMethod(MethodDef.builder(GET_OBJECTS_METHOD)
+            .addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
+            .returns(OBJECT_FACTORY_TYPE)
+            .addAnnotation("javax.inject.Inject")
+            .build()
+        );
 
         for (GradleTaskConfig taskConfig: pluginConfig.tasks()) {
             ClassTypeDef specificationType = ClassTypeDef.of(pluginConfig.packageName()
@@ -158,27 +188,73 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
                 .build((t, params) -> buildConfigureSpecMethod(taskConfig, params))
             );
 
+            builder.addInnerType(buildSpecConfigurator(pluginConfig, taskConfig, specificationType));
             builder.addInnerType(buildTaskConfigurator(pluginConfig, taskConfig, specificationType));
+
+            if (taskConfig.batch()) {
+                ClassTypeDef batchTaskType = ClassTypeDef.of(pluginConfig.packageName()
+                    + "." + taskConfig.namePrefix() + BATCH_SUFFIX + TASK_SUFFIX);
+                builder.addMethod(MethodDef.builder(taskConfig.extensionMethodName() + BATCH_SUFFIX)
+                    .overrides()
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter("name", String.class)
+                    .addParameter(ParameterDef.builder("action", batchActionType(batchTaskType)).build())
+                    .build((t, params) -> buildBatchExtensionMethod(t, params, taskConfig, batchTaskType))
+                );
+                builder.addInnerType(buildBatchTaskConfigurator(pluginConfig, taskConfig, batchTaskType));
+            }
         }
 
         return builder.build();
     }
 
+    private ClassDef buildSpecConfigurator(
+            GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig, ClassTypeDef specificationType
+    ) {
+        ClassTypeDef extensionType = ClassTypeDef.of(pluginConfig.packageName() +
+            "." + DEFAULT_EXTENSION_NAME_PREFIX + pluginConfig.namePrefix() + EXTENSION_NAME_SUFFIX);
+        FieldDef extensionField = FieldDef.builder("extension", extensionType).build();
+        FieldDef actionField = FieldDef.builder("action", specActionType(specificationType)).build();
+
+        MethodDef execute = MethodDef.builder(EXECUTE_METHOD)
+            .addParameter("spec", specificationType)
+            .overrides()
+            .addModifiers(Modifier.PUBLIC)
+            .addJavadoc("The configurator for " + taskConfig.namePrefix() + " specification.")
+            .build((t, params) -> StatementDef.multi(
+                t.field(extensionField).invoke("configureSpec", TypeDef.VOID, params.get(0)),
+                t.field(actionField).invoke(EXECUTE_METHOD, TypeDef.VOID, params.get(0))
+            ));
+        return ClassDef.builder(taskConfig.namePrefix() + SPEC_CONFIGURATOR_SUFFIX)
+            .addModifiers(Modifier.STATIC, Modifier.PROTECTED)
+            .addSuperinterface(TypeDef.parameterized(ACTION_TYPE, specificationType))
+            .addField(extensionField)
+            .addField(actionField)
+            .addAllFieldsConstructor()
+            .addMethod(execute)
+            .build();
+    }
+
     private ClassDef buildTaskConfigurator(
             GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig, TypeDef specificationType
     ) {
         ClassTypeDef taskType = ClassTypeDef.of(pluginConfig.packageName() + "." + taskConfig.namePrefix() + TASK_SUFFIX);
-        FieldDef specField = FieldDef.builder("spec", specificationType).build();
-        FieldDef classpathField = FieldDef.builder(CLASSPATH_FIELD, CONFIGURATION_TYPE).build();
+        FieldDef specField = FieldDef.builder("spec", TypeDef.parameterized(NAMED_PROVIDER_TYPE, specificationType)).build();
+        FieldDef classpathField = FieldDef.builder(CLASSPATH_FIELD, FILE_COLLECTION_TYPE).build();
 
         MethodDef execute = MethodDef.builder(EXECUTE_METHOD)
             .addParameter(taskType)
             .overrides()
             .addModifiers(Modifier.PUBLIC)
-            .addJavadoc("The configurator for " + pluginConfig.namePrefix() + " task.")
+            .addJavadoc("The configurator for " + pluginConfig.namePrefix() + " task.\n" +
+                "The specification is realized only when the task is.")
             .build((t, params) -> {
                 List<StatementDef> statements = new ArrayList<>();
                 MethodParameter task = params.get(0);
+                Local spec = new Local("specValue", specificationType);
+                statements.add(new StatementDef.DefineAndAssign(
+                    spec, t.field(specField).invoke("get", specificationType)
+                ));
                 if (pluginConfig.taskGroup() != null) {
                     statements.add(task.invoke("setGroup", TypeDef.VOID, ExpressionDef.constant(pluginConfig.taskGroup())));
                 }
@@ -188,12 +264,19 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
                 statements.add(task.invoke("setDescription", TypeDef.VOID,
                     ExpressionDef.constant("Configure the " + taskConfig.extensionMethodName())));
                 for (ParameterConfig parameter: taskConfig.parameters()) {
-                    String getterName = "get" + NameUtils.capitalize(parameter.source().getName());
+                    String getterName = "get" + NameUtils.capitalize(parameter.name());
                     TypeDef getterType = createGradleProperty(parameter);
-                    if (!parameter.internal()) {
+                    if (parameter.internal()) {
+                        continue;
+                    }
+                    if (parameter.fileCollection()) {
+                        statements.add(task
+                            .invoke(getterName, getterType)
+                            .invoke("from", getterType, spec.invoke(getterName, getterType)));
+                    } else {
                         StatementDef convention = task
                             .invoke(getterName, getterType)
-                            .invoke("convention", getterType, t.field(specField).invoke(getterName, getterType));
+                            .invoke("convention", getterType, spec.invoke(getterName, getterType));
                         statements.add(convention);
                     }
                 }
@@ -209,10 +292,76 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
             .build();
     }
 
+    private ClassDef buildBatchTaskConfigurator(
+            GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig, ClassTypeDef batchTaskType
+    ) {
+        FieldDef classpathField = FieldDef.builder(CLASSPATH_FIELD, FILE_COLLECTION_TYPE).build();
+        FieldDef actionField = FieldDef.builder("action", batchActionType(batchTaskType)).build();
+
+        MethodDef execute = MethodDef.builder(EXECUTE_METHOD)
+            .addParameter(batchTaskType)
+            .overrides()
+            .addModifiers(Modifier.PUBLIC)
+            .addJavadoc("The configurator for " + pluginConfig.namePrefix() + " batch task.")
+            .build((t, params) -> {
+                List<StatementDef> statements = new ArrayList<>();
+                MethodParameter task = params.get(0);
+                if (pluginConfig.taskGroup() != null) {
+                    statements.add(task.invoke("setGroup", TypeDef.VOID, ExpressionDef.constant(pluginConfig.taskGroup())));
+                }
+                statements.add(task.invoke("getClasspath", ClassTypeDef.of("org.gradle.api.file.ConfigurableFileCollection"))
+                    .invoke("from", TypeDef.VOID, t.field(classpathField))
+                );
+                statements.add(task.invoke("setDescription", TypeDef.VOID,
+                    ExpressionDef.constant("Configure the " + taskConfig.extensionMethodName() + " batch")));
+                statements.add(t.field(actionField).invoke(EXECUTE_METHOD, TypeDef.VOID, task));
+                return StatementDef.multi(statements);
+            });
+        return ClassDef.builder(taskConfig.namePrefix() + BATCH_SUFFIX + TASK_CONFIGURATOR_SUFFIX)
+            .addModifiers(Modifier.STATIC, Modifier.PROTECTED)
+            .addSuperinterface(TypeDef.parameterized(ACTION_TYPE, batchTaskType))
+            .addField(classpathField)
+            .addField(actionField)
+            .addAllFieldsConstructor()
+            .addMethod(execute)
+            .build();
+    }
+
+    private StatementDef buildBatchExtensionMethod(
+            VariableDef t, List<VariableDef.MethodParameter> params, GradleTaskConfig taskConfig, ClassTypeDef batchTaskType
+    ) {
+        TypeDef taskProviderType = TypeDef.parameterized(TASK_PROVIDER_TYPE, batchTaskType);
+        return StatementDef.multi(
+            createUniqueNameCheck(
+                t.field(TASKS_FIELD).invoke("getNames", NAMES_TYPE),
+                params.get(0),
+                taskConfig.extensionMethodName() + BATCH_SUFFIX
+            ),
+            t.field(TASKS_FIELD)
+                .invoke("register", taskProviderType,
+                    params.get(0),
+                    batchTaskType.getStaticField("class", TypeDef.CLASS),
+                    ClassTypeDef.of(taskConfig.namePrefix() + BATCH_SUFFIX + TASK_CONFIGURATOR_SUFFIX)
+                        .instantiate(t.field(CLASSPATH_FIELD, FILE_COLLECTION_TYPE), params.get(1))
+                )
+        );
+    }
+
+    private static ClassTypeDef batchActionType(ClassTypeDef batchTaskType) {
+        return TypeDef.parameterized(ACTION_TYPE, TypeDef.wildcardSupertypeOf(batchTaskType));
+    }
+
+    private static ClassTypeDef specActionType(ClassTypeDef specificationType) {
+        return TypeDef.parameterized(ACTION_TYPE, TypeDef.wildcardSupertypeOf(specificationType));
+    }
+
+    private static String specsMethodName(GradleTaskConfig taskConfig) {
+        return "get" + taskConfig.namePrefix() + GradleSpecificationBuilder.SPECIFICATION_NAME_SUFFIX + "s";
+    }
+
     private MethodDef buildCreateTaskMethod(GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig) {
         ClassTypeDef taskType = ClassTypeDef.of(pluginConfig.packageName() + "." + taskConfig.namePrefix() + TASK_SUFFIX);
         TypeDef taskProviderType = TypeDef.parameterized(TASK_PROVIDER_TYPE, TypeDef.wildcardSubtypeOf(taskType));
-        TypeDef taskContainerType = TypeDef.of("org.gradle.api.tasks.TaskContainer");
         TypeDef pluginConfiguratorType = TypeDef.parameterized(ACTION_TYPE, taskType);
 
         return MethodDef.builder("create" + taskConfig.namePrefix() + "Task")
@@ -220,8 +369,7 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
             .addParameter("name", String.class)
             .addParameter("configurator", pluginConfiguratorType)
             .build((t, params) ->
-                    t.field(PROJECT_FIELD)
-                    .invoke("getTasks", taskContainerType)
+                    t.field(TASKS_FIELD)
                     .invoke("register", taskProviderType,
                         params.get(0),
                         taskType.getStaticField("class", TypeDef.CLASS),
@@ -233,41 +381,44 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
     private StatementDef buildConfigureSpecMethod(GradleTaskConfig taskConfig, List<VariableDef.MethodParameter> params) {
         List<StatementDef> statements = new ArrayList<>();
         for (ParameterConfig parameter: taskConfig.parameters()) {
-            String getterName = "get" + NameUtils.capitalize(parameter.source().getName());
+            String getterName = "get" + NameUtils.capitalize(parameter.name());
             TypeDef getterType = createGradleProperty(parameter);
             if (parameter.defaultValue() != null && !parameter.internal()) {
-                TypeDef type = parameter.type();
                 StatementDef convention = params.get(0)
                     .invoke(getterName, getterType)
-                    .invoke("convention", getterType, GradleTaskBuilder.createDefault(type, parameter.defaultValue()));
+                    .invoke("convention", getterType, GradleTaskBuilder.createDefault(taskConfig, parameter));
                 statements.add(convention);
             }
         }
         return StatementDef.multi(statements);
     }
 
-    private StatementDef buildExtensionMethod(
-            VariableDef t, List<VariableDef.MethodParameter> params, GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig, ClassTypeDef specificationType
-    ) {
-        StatementDef ifStatement = new StatementDef.If(
-            t.field("names", TypeDef.of(String.class)).invoke("add", TypeDef.of(boolean.class), params.get(0)).isFalse(),
+    private StatementDef createUniqueNameCheck(ExpressionDef names, ExpressionDef name, String methodName) {
+        return new StatementDef.If(
+            names.invoke("contains", TypeDef.of(boolean.class), name),
             new StatementDef.Throw(ClassTypeDef.of("org.gradle.api.GradleException")
                 .instantiate(TypeDef.STRING.invokeStatic("format", TypeDef.STRING,
-                    ExpressionDef.constant("An " + taskConfig.extensionMethodName() + " definition with name '%s' was already created"),
-                    params.get(0))
+                    ExpressionDef.constant("An " + methodName + " definition with name '%s' was already created"),
+                    name)
                 )
             )
         );
-        TypeDef objectFactoryType = TypeDef.of("org.gradle.api.type.ObjectFactory");
-        Local spec = new Local("spec", specificationType);
-        StatementDef specCreation = new StatementDef.DefineAndAssign(
+    }
+
+    private StatementDef buildExtensionMethod(
+            VariableDef t, List<VariableDef.MethodParameter> params, GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig, ClassTypeDef specificationType
+    ) {
+        TypeDef containerType = TypeDef.parameterized(CONTAINER_TYPE, specificationType);
+        ExpressionDef specs = t.invoke(specsMethodName(taskConfig), containerType);
+        StatementDef ifStatement = createUniqueNameCheck(
+            specs.invoke("getNames", NAMES_TYPE), params.get(0), taskConfig.extensionMethodName()
+        );
+        Local spec = new Local("spec", TypeDef.parameterized(NAMED_PROVIDER_TYPE, specificationType));
+        StatementDef specRegistration = new StatementDef.DefineAndAssign(
             spec,
-            t.field(PROJECT_FIELD)
-                .invoke("getObjects", objectFactoryType)
-                .invoke("newInstance", specificationType, specificationType.getStaticField("class", TypeDef.CLASS))
+            specs.invoke("register", spec.type(), params.get(0),
+                ClassTypeDef.of(taskConfig.namePrefix() + SPEC_CONFIGURATOR_SUFFIX).instantiate(t, params.get(1)))
         );
-        StatementDef configureSpec = t.invoke("configureSpec", TypeDef.VOID, spec);
-        StatementDef actionCall = params.get(1).invoke(EXECUTE_METHOD, TypeDef.VOID, spec);
 
         ClassTypeDef taskType = ClassTypeDef.of(pluginConfig.packageName() + "." + taskConfig.namePrefix() + TASK_SUFFIX);
         TypeDef taskProviderType = TypeDef.parameterized(
@@ -275,7 +426,7 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
             TypeDef.wildcardSubtypeOf(taskType)
         );
         ExpressionDef pluginConfigurator = ClassTypeDef.of(taskConfig.namePrefix() + TASK_CONFIGURATOR_SUFFIX)
-           .instantiate(spec, t.field(CLASSPATH_FIELD, CONFIGURATION_TYPE));
+           .instantiate(spec, t.field(CLASSPATH_FIELD, FILE_COLLECTION_TYPE));
         Local task = new Local("task", taskProviderType);
         StatementDef taskCreation = new StatementDef.DefineAndAssign(
             task,
@@ -284,9 +435,7 @@ public class GradleExtensionBuilder implements GradleTypeBuilder {
         // TODO source sets
         return StatementDef.multi(
             ifStatement,
-            specCreation,
-            configureSpec,
-            actionCall,
+            specRegistration,
             taskCreation
         );
     }
@@ -17,10 +17,14 @@ package io.micronaut.sourcegen.generator.visitors.gradle.builder;
 
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.naming.NameUtils;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Type;
+import io.micronaut.sourcegen.annotations.PluginClassDataSharing;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradlePluginConfig;
+import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradleTaskConfig;
 import io.micronaut.sourcegen.model.ClassDef;
 import io.micronaut.sourcegen.model.ClassDef.ClassDefBuilder;
+import io.micronaut.sourcegen.model.AnnotationDef;
 import io.micronaut.sourcegen.model.ClassTypeDef;
 import io.micronaut.sourcegen.model.ExpressionDef;
 import io.micronaut.sourcegen.model.FieldDef;
@@ -29,14 +33,19 @@ import io.micronaut.sourcegen.model.ObjectDef;
 import io.micronaut.sourcegen.model.StatementDef;
 import io.micronaut.sourcegen.model.StatementDef.DefineAndAssign;
 import io.micronaut.sourcegen.model.TypeDef;
+import io.micronaut.sourcegen.model.VariableDef;
 import io.micronaut.sourcegen.model.VariableDef.Local;
 
 import javax.lang.model.element.Modifier;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleExtensionBuilder.DEFAULT_EXTENSION_NAME_PREFIX;
 import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleExtensionBuilder.EXTENSION_NAME_SUFFIX;
+import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleTaskBuilder.BATCH_SUFFIX;
+import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleTaskBuilder.TASK_SUFFIX;
 
 /**
  * A builder for {@link Type#GRADLE_PLUGIN}.
@@ -46,6 +55,7 @@ import static io.micronaut.sourcegen.generator.visitors.gradle.builder.GradleExt
 public class GradlePluginBuilder implements GradleTypeBuilder {
 
     public static final String PLUGIN_SUFFIX = "Plugin";
+    public static final String CLASS_DATA_SHARING_SUFFIX = "ClassDataSharing";
 
     private static final String MICRONAUT_BASE_PLUGIN = "io.micronaut.gradle.MicronautBasePlugin";
     private static final String MICRONAUT_PLUGINS_HELPER = "io.micronaut.gradle.PluginsHelper";
@@ -53,6 +63,12 @@ public class GradlePluginBuilder implements GradleTypeBuilder {
     private static final ClassTypeDef PROJECT_TYPE = ClassTypeDef.of("org.gradle.api.Project");
     private static final ClassTypeDef CONFIGURATION_TYPE = ClassTypeDef.of("org.gradle.api.artifacts.Configuration");
     private static final FieldDef CLASS_STATIC_FIELD = FieldDef.builder("class", TypeDef.CLASS).build();
+    private static final ClassTypeDef PROVIDER_TYPE = ClassTypeDef.of("org.gradle.api.provider.Provider");
+    private static final TypeDef FILE_PROVIDER_TYPE = TypeDef.parameterized(PROVIDER_TYPE, ClassTypeDef.of("org.gradle.api.file.RegularFile"));
+    private static final TypeDef FILE_PROPERTY_TYPE = TypeDef.of("org.gradle.api.file.RegularFileProperty");
+    private static final TypeDef FILE_COLLECTION_TYPE = TypeDef.of("org.gradle.api.file.FileCollection");
+    private static final TypeDef CONFIGURABLE_FILE_COLLECTION_TYPE = TypeDef.of("org.gradle.api.file.ConfigurableFileCollection");
+    private static final TypeDef STRING_PROPERTY_TYPE = TypeDef.parameterized(ClassTypeDef.of("org.gradle.api.provider.Property"), String.class);
 
     @Override
     public Type getType() {
@@ -71,7 +87,180 @@ public class GradlePluginBuilder implements GradleTypeBuilder {
             ));
         builder.addMethod(createExtensionMethod(pluginConfig));
         builder.addMethod(createApplyMethod(pluginConfig));
-        return List.of(builder.build());
+        if (!pluginConfig.classDataSharing()) {
+            return List.of(builder.build());
+        }
+        for (GradleTaskConfig taskConfig: pluginConfig.tasks()) {
+            if (taskConfig.worker().classDataSharing()) {
+                builder.addInnerType(buildClassDataSharingConfigurator(pluginConfig, taskConfig.namePrefix()));
+                if (taskConfig.batch()) {
+                    builder.addInnerType(buildClassDataSharingConfigurator(pluginConfig, taskConfig.namePrefix() + BATCH_SUFFIX));
+                }
+            }
+        }
+        return List.of(builder.build(), buildClassDataSharingTask(pluginConfig));
+    }
+
+    /**
+     * Create the companion task that maintains the class data sharing archive of the worker classpath.
+     * The task is executed again and deletes the stale archive when the classpath or the Java version changes.
+     */
+    private ObjectDef buildClassDataSharingTask(GradlePluginConfig pluginConfig) {
+        return ClassDef.builder(classDataSharingTaskName(pluginConfig))
+            .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+            .superclass(ClassTypeDef.of("org.gradle.api.DefaultTask"))
+            .addAnnotation(AnnotationDef.builder(ClassTypeDef.of("org.gradle.work.DisableCachingByDefault"))
+                .addMember("because", "The archive is specific to the local JVM")
+                .build())
+            .addJavadoc("Maintains the class data sharing archive of the " + pluginConfig.namePrefix() + " worker classpath.")
+            .addMethod(MethodDef.builder(MethodDef.CONSTRUCTOR)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation("javax.inject.Inject")
+                .addParameter("classpath", FILE_COLLECTION_TYPE)
+                .addParameter("archive", FILE_PROVIDER_TYPE)
+                .addParameter("digest", FILE_PROVIDER_TYPE)
+                .build((t, params) -> StatementDef.multi(
+                    t.invoke("getClasspath", CONFIGURABLE_FILE_COLLECTION_TYPE).invoke("from", CONFIGURABLE_FILE_COLLECTION_TYPE, params.get(0)),
+                    t.invoke("getArchiveFile", FILE_PROPERTY_TYPE).invoke("set", TypeDef.VOID, params.get(1)),
+                    t.invoke("getDigestFile", FILE_PROPERTY_TYPE).invoke("set", TypeDef.VOID, params.get(2)),
+                    t.invoke("getJavaVersion", STRING_PROPERTY_TYPE).invoke("convention", STRING_PROPERTY_TYPE,
+                        t.invoke("getProject", PROJECT_TYPE)
+                            .invoke("getProviders", TypeDef.of("org.gradle.api.provider.ProviderFactory"))
+                            .invoke("systemProperty", TypeDef.parameterized(PROVIDER_TYPE, String.class),
+                                ExpressionDef.constant("java.runtime.version"))
+                    )
+                ))
+            )
+            .addMethod(MethodDef.builder("getClasspath")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(CONFIGURABLE_FILE_COLLECTION_TYPE)
+                .addAnnotation("org.gradle.api.tasks.Classpath")
+                .addJavadoc("@return The worker classpath")
+                .build()
+            )
+            .addMethod(MethodDef.builder("getJavaVersion")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(STRING_PROPERTY_TYPE)
+                .addAnnotation("org.gradle.api.tasks.Input")
+                .addJavadoc("@return The version of the Java runtime that starts the workers")
+                .build()
+            )
+            .addMethod(MethodDef.builder("getArchiveFile")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(FILE_PROPERTY_TYPE)
+                .addAnnotation("org.gradle.api.tasks.LocalState")
+                .addJavadoc("@return The archive, that is created by the first worker that exits")
+                .build()
+            )
+            .addMethod(MethodDef.builder("getDigestFile")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(FILE_PROPERTY_TYPE)
+                .addAnnotation("org.gradle.api.tasks.OutputFile")
+                .addJavadoc("@return The file describing the inputs of the archive")
+                .build()
+            )
+            .addMethod(MethodDef.builder("execute")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation("org.gradle.api.tasks.TaskAction")
+                .build((t, params) -> ClassTypeDef.of(PluginClassDataSharing.class).invokeStatic("reset", TypeDef.VOID,
+                    asFile(t.invoke("getArchiveFile", FILE_PROPERTY_TYPE)),
+                    asFile(t.invoke("getDigestFile", FILE_PROPERTY_TYPE)),
+                    t.invoke("getJavaVersion", STRING_PROPERTY_TYPE).invoke("get", TypeDef.STRING),
+                    t.invoke("getClasspath", CONFIGURABLE_FILE_COLLECTION_TYPE)
+                        .invoke("getFiles", TypeDef.parameterized(Set.class, File.class))
+                ))
+            )
+            .build();
+    }
+
+    private static ExpressionDef asFile(ExpressionDef fileProperty) {
+        return fileProperty
+            .invoke("get", ClassTypeDef.of("org.gradle.api.file.RegularFile"))
+            .invoke("getAsFile", TypeDef.of(File.class));
+    }
+
+    /**
+     * Create the configurator that makes a task depend on the class data sharing archive.
+     */
+    private ClassDef buildClassDataSharingConfigurator(GradlePluginConfig pluginConfig, String taskPrefix) {
+        ClassTypeDef taskType = ClassTypeDef.of(pluginConfig.packageName() + "." + taskPrefix + TASK_SUFFIX);
+        FieldDef archiveTaskField = FieldDef.builder("archiveTask", TypeDef.parameterized(
+            ClassTypeDef.of("org.gradle.api.tasks.TaskProvider"), ClassTypeDef.of(classDataSharingTaskName(pluginConfig))
+        )).build();
+        FieldDef archiveField = FieldDef.builder("archive", FILE_PROVIDER_TYPE).build();
+        return ClassDef.builder(taskPrefix + CLASS_DATA_SHARING_SUFFIX + "Configurator")
+            .addModifiers(Modifier.PROTECTED, Modifier.STATIC)
+            .addSuperinterface(TypeDef.parameterized(ClassTypeDef.of("org.gradle.api.Action"), taskType))
+            .addField(archiveTaskField)
+            .addField(archiveField)
+            .addAllFieldsConstructor()
+            .addMethod(MethodDef.builder("execute")
+                .addModifiers(Modifier.PUBLIC)
+                .overrides()
+                .addParameter("task", taskType)
+                .build((t, params) -> StatementDef.multi(
+                    params.get(0).invoke("dependsOn", TypeDef.of("org.gradle.api.Task"), t.field(archiveTaskField)),
+                    params.get(0).invoke("getClassDataSharingArchive", FILE_PROPERTY_TYPE)
+                        .invoke("set", TypeDef.VOID, t.field(archiveField))
+                ))
+            )
+            .build();
+    }
+
+    private static String classDataSharingTaskName(GradlePluginConfig pluginConfig) {
+        return pluginConfig.packageName() + "." + pluginConfig.namePrefix() + CLASS_DATA_SHARING_SUFFIX + TASK_SUFFIX;
+    }
+
+    /**
+     * Register the companion task maintaining the class data sharing archive,
+     * and make the tasks with process workers use it.
+     */
+    private List<StatementDef> registerClassDataSharing(
+            GradlePluginConfig pluginConfig, ExpressionDef project, VariableDef classpath
+    ) {
+        List<StatementDef> statements = new ArrayList<>();
+        ClassTypeDef archiveTaskType = ClassTypeDef.of(classDataSharingTaskName(pluginConfig));
+        TypeDef taskContainerType = TypeDef.of("org.gradle.api.tasks.TaskContainer");
+        ExpressionDef buildDirectory = project
+            .invoke("getLayout", TypeDef.of("org.gradle.api.file.ProjectLayout"))
+            .invoke("getBuildDirectory", TypeDef.of("org.gradle.api.file.DirectoryProperty"));
+        String directory = NameUtils.hyphenate(pluginConfig.namePrefix()) + "-cds/";
+
+        Local archive = new Local("classDataSharingArchive", FILE_PROVIDER_TYPE);
+        statements.add(new DefineAndAssign(archive,
+            buildDirectory.invoke("file", FILE_PROVIDER_TYPE, ExpressionDef.constant(directory + "worker.jsa"))));
+        Local digest = new Local("classDataSharingDigest", FILE_PROVIDER_TYPE);
+        statements.add(new DefineAndAssign(digest,
+            buildDirectory.invoke("file", FILE_PROVIDER_TYPE, ExpressionDef.constant(directory + "classpath.txt"))));
+        Local archiveTask = new Local("classDataSharing", TypeDef.parameterized(
+            ClassTypeDef.of("org.gradle.api.tasks.TaskProvider"), archiveTaskType
+        ));
+        statements.add(new DefineAndAssign(archiveTask, project.invoke("getTasks", taskContainerType)
+            .invoke("register", archiveTask.type(),
+                ExpressionDef.constant(NameUtils.decapitalize(pluginConfig.namePrefix()) + CLASS_DATA_SHARING_SUFFIX),
+                archiveTaskType.getStaticField(CLASS_STATIC_FIELD),
+                classpath,
+                archive,
+                digest
+            )
+        ));
+        for (GradleTaskConfig taskConfig: pluginConfig.tasks()) {
+            if (!taskConfig.worker().classDataSharing()) {
+                continue;
+            }
+            List<String> prefixes = taskConfig.batch()
+                ? List.of(taskConfig.namePrefix(), taskConfig.namePrefix() + BATCH_SUFFIX)
+                : List.of(taskConfig.namePrefix());
+            for (String prefix: prefixes) {
+                ClassTypeDef taskType = ClassTypeDef.of(pluginConfig.packageName() + "." + prefix + TASK_SUFFIX);
+                statements.add(project.invoke("getTasks", taskContainerType)
+                    .invoke("withType", TypeDef.of("org.gradle.api.tasks.TaskCollection"), taskType.getStaticField(CLASS_STATIC_FIELD))
+                    .invoke("configureEach", TypeDef.VOID,
+                        ClassTypeDef.of(prefix + CLASS_DATA_SHARING_SUFFIX + "Configurator").instantiate(archiveTask, archive))
+                );
+            }
+        }
+        return statements;
     }
 
     private MethodDef createApplyMethod(GradlePluginConfig pluginConfig) {
@@ -115,11 +304,37 @@ public class GradlePluginBuilder implements GradleTypeBuilder {
                 statements.add(classpath.invoke("setDescription", TypeDef.VOID, ExpressionDef.constant("The " + pluginConfig.namePrefix() + " worker classpath")));
                 statements.add(classpath.invoke("extendsFrom", TypeDef.VOID, dependencies));
 
+                if (pluginConfig.classDataSharing()) {
+                    statements.addAll(registerClassDataSharing(pluginConfig, params.get(0), classpath));
+                }
+                for (GradleTaskConfig taskConfig: pluginConfig.tasks()) {
+                    if (taskConfig.task().acceptsResource()) {
+                        statements.add(registerResourceService(params.get(0), pluginConfig, taskConfig));
+                    }
+                }
                 statements.add(t.invoke("createExtension", extensionType, params.get(0), classpath));
                 return StatementDef.multi(statements);
             });
     }
 
+    /**
+     * Register the build service sharing the task resource, so it can be referenced by tasks.
+     * The registration is done by the plugin, so the extension does not need to hold the project.
+     */
+    private StatementDef registerResourceService(
+            ExpressionDef project, GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig
+    ) {
+        ClassTypeDef serviceType = GradleTaskBuilder.resourceServiceType(pluginConfig.packageName(), taskConfig);
+        return project
+            .invoke("getGradle", TypeDef.of("org.gradle.api.invocation.Gradle"))
+            .invoke("getSharedServices", TypeDef.of("org.gradle.api.services.BuildServiceRegistry"))
+            .invoke("registerIfAbsent",
+                TypeDef.parameterized(ClassTypeDef.of("org.gradle.api.provider.Provider"), serviceType),
+                ExpressionDef.constant(GradleTaskBuilder.resourceServiceName(pluginConfig.packageName(), taskConfig)),
+                serviceType.getStaticField(CLASS_STATIC_FIELD)
+            );
+    }
+
     private MethodDef createExtensionMethod(GradlePluginConfig pluginConfig) {
         ClassTypeDef extensionType = ClassTypeDef.of(pluginConfig.packageName() + "." + pluginConfig.namePrefix() + EXTENSION_NAME_SUFFIX);
         ClassTypeDef defaultExtensionType = ClassTypeDef.of(pluginConfig.packageName() + "." + DEFAULT_EXTENSION_NAME_PREFIX + pluginConfig.namePrefix() + EXTENSION_NAME_SUFFIX);
@@ -140,7 +355,7 @@ public class GradlePluginBuilder implements GradleTypeBuilder {
                     extensionType.getStaticField(CLASS_STATIC_FIELD),
                     ExpressionDef.constant(pluginConfig.namePrefix()),
                     defaultExtensionType.getStaticField(CLASS_STATIC_FIELD),
-                    params.get(0),
+                    params.get(0).invoke("getTasks", ClassTypeDef.of("org.gradle.api.tasks.TaskContainer")),
                     params.get(1)
                 ));
             });
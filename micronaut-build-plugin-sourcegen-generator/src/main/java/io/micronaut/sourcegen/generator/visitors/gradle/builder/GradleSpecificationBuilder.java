@@ -22,6 +22,7 @@ import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Type;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradlePluginConfig;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradleTaskConfig;
+import io.micronaut.sourcegen.model.ClassTypeDef;
 import io.micronaut.sourcegen.model.InterfaceDef;
 import io.micronaut.sourcegen.model.InterfaceDef.InterfaceDefBuilder;
 import io.micronaut.sourcegen.model.MethodDef;
@@ -53,14 +54,26 @@ public class GradleSpecificationBuilder implements GradleTypeBuilder {
     public List<ObjectDef> build(GradlePluginConfig pluginConfig) {
         List<ObjectDef> objects = new ArrayList<>();
         for (GradleTaskConfig taskConfig: pluginConfig.tasks()) {
-            objects.add(buildForTask(pluginConfig.packageName(), taskConfig));
+            objects.addAll(buildForTask(pluginConfig, taskConfig));
         }
         return objects;
     }
 
-    private ObjectDef buildForTask(String packageName, GradleTaskConfig taskConfig) {
+    @Override
+    public boolean isPerTask() {
+        return true;
+    }
+
+    @Override
+    @NonNull
+    public List<ObjectDef> buildForTask(GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig) {
+        return List.of(buildSpecification(pluginConfig.packageName(), taskConfig));
+    }
+
+    private ObjectDef buildSpecification(String packageName, GradleTaskConfig taskConfig) {
         InterfaceDefBuilder builder = InterfaceDef.builder(packageName + "." + taskConfig.namePrefix() + SPECIFICATION_NAME_SUFFIX)
             .addModifiers(Modifier.PUBLIC)
+            .addSuperinterface(ClassTypeDef.of("org.gradle.api.Named"))
             .addJavadoc("Specification that is used for configuring " + taskConfig.namePrefix() + " task.\n" +
                 taskConfig.taskJavadoc());
         for (ParameterConfig parameter: taskConfig.parameters()) {
@@ -68,7 +81,7 @@ public class GradleSpecificationBuilder implements GradleTypeBuilder {
                 continue;
             }
             MethodDefBuilder propBuilder = MethodDef
-                .builder("get" + NameUtils.capitalize(parameter.source().getName()))
+                .builder("get" + NameUtils.capitalize(parameter.name()))
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                 .addJavadoc("@return " + parameter.javadoc())
                 .returns(createGradleProperty(parameter));
@@ -17,27 +17,27 @@ package io.micronaut.sourcegen.generator.visitors.gradle.builder;
 
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
-import io.micronaut.core.convert.ConversionService;
 import io.micronaut.core.naming.NameUtils;
-import io.micronaut.core.reflect.ClassUtils;
-import io.micronaut.inject.ast.ClassElement;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin;
+import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Type;
+import io.micronaut.sourcegen.annotations.PluginClassDataSharing;
+import io.micronaut.sourcegen.annotations.PluginTaskChanges;
+import io.micronaut.sourcegen.annotations.PluginTaskResources;
 import io.micronaut.sourcegen.generator.visitors.ModelUtils;
-import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterKind;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradlePluginConfig;
 import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradleTaskConfig;
+import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginUtils.GradleWorkerConfig;
 import io.micronaut.sourcegen.model.AnnotationDef;
 import io.micronaut.sourcegen.model.ClassDef;
 import io.micronaut.sourcegen.model.ClassDef.ClassDefBuilder;
 import io.micronaut.sourcegen.model.ClassTypeDef;
-import io.micronaut.sourcegen.model.ClassTypeDef.ClassDefType;
-import io.micronaut.sourcegen.model.ClassTypeDef.ClassElementType;
-import io.micronaut.sourcegen.model.EnumDef;
 import io.micronaut.sourcegen.model.ExpressionDef;
-import io.micronaut.sourcegen.model.ExpressionDef.Constant;
+import io.micronaut.sourcegen.model.ExpressionDef.ComparisonOperation.OpType;
+import io.micronaut.sourcegen.model.ExpressionDef.MathBinaryOperation;
 import io.micronaut.sourcegen.model.FieldDef;
 import io.micronaut.sourcegen.model.InterfaceDef;
 import io.micronaut.sourcegen.model.InterfaceDef.InterfaceDefBuilder;
@@ -48,11 +48,13 @@ import io.micronaut.sourcegen.model.ParameterDef;
 import io.micronaut.sourcegen.model.StatementDef;
 import io.micronaut.sourcegen.model.TypeDef;
 import io.micronaut.sourcegen.model.VariableDef;
+import io.micronaut.sourcegen.model.VariableDef.Local;
 
 import javax.lang.model.element.Modifier;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -67,9 +69,25 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
     public static final String TASK_SUFFIX = "Task";
     public static final String WORK_ACTION_SUFFIX = "WorkAction";
     public static final String WORK_ACTION_PARAMETERS_SUFFIX = "WorkActionParameters";
+    public static final String BATCH_SUFFIX = "Batch";
+    public static final String BATCH_ITEM_SUFFIX = "BatchItem";
+    public static final String RESOURCE_SERVICE_SUFFIX = "ResourceService";
 
     private static final String GET_CLASSPATH_METHOD = "getClasspath";
     private static final String EXECUTE_METHOD = "execute";
+    private static final String WORKER_DAEMON_KEY_PROPERTY = "micronaut.plugin.gen.worker.daemon.key";
+    private static final TypeDef WORKER_EXECUTOR_TYPE = TypeDef.of("org.gradle.workers.WorkerExecutor");
+    private static final TypeDef WORK_QUEUE_TYPE = TypeDef.of("org.gradle.workers.WorkQueue");
+    private static final TypeDef INPUT_CHANGES_TYPE = TypeDef.of("org.gradle.work.InputChanges");
+    private static final ClassTypeDef TASK_CHANGES_TYPE = ClassTypeDef.of(PluginTaskChanges.class);
+    private static final TypeDef TASK_CHANGES_PROPERTY_TYPE = TypeDef.parameterized(
+        ClassTypeDef.of("org.gradle.api.provider.Property"), TASK_CHANGES_TYPE
+    );
+    private static final String GET_TASK_CHANGES_METHOD = "getTaskChanges";
+    private static final String GET_RESOURCE_SERVICE_METHOD = "getResourceService";
+    private static final String GET_CLASS_DATA_SHARING_ARCHIVE_METHOD = "getClassDataSharingArchive";
+    private static final TypeDef REGULAR_FILE_PROPERTY_TYPE = TypeDef.of("org.gradle.api.file.RegularFileProperty");
+    private static final String NORMALIZE_LINE_ENDINGS_ANNOTATION = "org.gradle.work.NormalizeLineEndings";
 
     @Override
     public Type getType() {
@@ -81,29 +99,339 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
     public List<ObjectDef> build(GradlePluginConfig pluginConfig) {
         List<ObjectDef> objects = new ArrayList<>();
         for (GradleTaskConfig taskConfig: pluginConfig.tasks()) {
-            objects.addAll(buildTask(pluginConfig.packageName(), taskConfig));
+            objects.addAll(buildForTask(pluginConfig, taskConfig));
         }
         return objects;
     }
 
-    private List<ObjectDef> buildTask(String packageName, GradleTaskConfig taskConfig) {
-        String taskType = packageName + "." + taskConfig.namePrefix() + TASK_SUFFIX;
+    @Override
+    public boolean isPerTask() {
+        return true;
+    }
+
+    @Override
+    @NonNull
+    public List<ObjectDef> buildForTask(GradlePluginConfig pluginConfig, GradleTaskConfig taskConfig) {
+        List<ObjectDef> objects = new ArrayList<>();
+        objects.add(buildTask(pluginConfig.packageName(), taskConfig));
+        if (taskConfig.task().acceptsResource()) {
+            objects.add(buildResourceService(pluginConfig.packageName(), taskConfig));
+        }
+        if (taskConfig.batch()) {
+            objects.add(buildBatchItem(pluginConfig.packageName(), taskConfig));
+            objects.add(buildBatchTask(pluginConfig.packageName(), taskConfig));
+        }
+        return objects;
+    }
+
+    private ObjectDef buildTask(String packageName, GradleTaskConfig taskConfig) {
+        String prefix = taskConfig.namePrefix();
+        String taskType = packageName + "." + prefix + TASK_SUFFIX;
+        ClassDefBuilder builder = createTaskBuilder(packageName, taskType, prefix, taskConfig, TypeDef.of(taskType), "task", taskConfig.incremental())
+            .addJavadoc(taskConfig.taskJavadoc());
+
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            builder.addMethod(createParameterGetter(parameter, taskConfig.relocatable()));
+        }
+        addWorkerMethods(builder, taskConfig);
+        addResourceServiceMethod(builder, packageName, taskConfig);
+
+        MethodDefBuilder executeBuilder = MethodDef.builder(EXECUTE_METHOD)
+            .returns(TypeDef.VOID)
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation("org.gradle.api.tasks.TaskAction")
+            .addJavadoc(taskConfig.methodJavadoc());
+        if (taskConfig.incremental()) {
+            executeBuilder.addParameter("inputChanges", INPUT_CHANGES_TYPE);
+        }
+        builder.addMethod(executeBuilder.build((t, params) -> {
+            if (!taskConfig.incremental()) {
+                return createWorkQueue(t, prefix, taskConfig).invoke("submit", TypeDef.VOID,
+                    ClassTypeDef.of(prefix + WORK_ACTION_SUFFIX).getStaticField("class", TypeDef.CLASS),
+                    ClassTypeDef.of(prefix + "WorkActionParameterConfigurator")
+                        .instantiate(configuratorArguments(packageName, taskConfig, t, t, null))
+                );
+            }
+            Local changes = new Local("changes", TASK_CHANGES_TYPE);
+            return StatementDef.multi(
+                collectChanges(t, params.get(0), changes, taskConfig),
+                createWorkQueue(t, prefix, taskConfig).invoke("submit", TypeDef.VOID,
+                    ClassTypeDef.of(prefix + WORK_ACTION_SUFFIX).getStaticField("class", TypeDef.CLASS),
+                    ClassTypeDef.of(prefix + "WorkActionParameterConfigurator")
+                        .instantiate(configuratorArguments(packageName, taskConfig, t, t, changes))
+                )
+            );
+        }));
+        return builder.build();
+    }
+
+    /**
+     * Collect the changes of incremental parameters.
+     * Changes are only collected if Gradle can execute the task incrementally,
+     * otherwise a full execution is requested.
+     */
+    private StatementDef collectChanges(VariableDef.This t, ExpressionDef inputChanges, Local changes, GradleTaskConfig taskConfig) {
+        TypeDef booleanType = TypeDef.primitive(boolean.class);
+        ClassTypeDef fileChangeType = ClassTypeDef.of("org.gradle.work.FileChange");
+        ClassTypeDef fileType = ClassTypeDef.of("org.gradle.api.file.FileType");
+        ClassTypeDef changeType = ClassTypeDef.of(PluginTaskChanges.ChangeType.class);
+        TypeDef iteratorType = TypeDef.parameterized(ClassTypeDef.of(Iterator.class), fileChangeType);
+
+        List<StatementDef> collect = new ArrayList<>();
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            if (!parameter.incremental()) {
+                continue;
+            }
+            String name = parameter.name();
+            Local iterator = new Local(name + "Changes", iteratorType);
+            Local change = new Local("change", fileChangeType);
+            collect.add(iterator.defineAndAssign(inputChanges
+                .invoke("getFileChanges", TypeDef.parameterized(ClassTypeDef.of(Iterable.class), fileChangeType),
+                    t.invoke("get" + NameUtils.capitalize(name), createGradleProperty(parameter)))
+                .invoke("iterator", iteratorType)
+            ));
+            collect.add(new StatementDef.While(
+                iterator.invoke("hasNext", booleanType),
+                StatementDef.multi(
+                    change.defineAndAssign(iterator.invoke("next", fileChangeType)),
+                    new StatementDef.If(
+                        change.invoke("getFileType", fileType)
+                            .compare(OpType.NOT_EQUAL_TO, fileType.getStaticField("DIRECTORY", fileType)),
+                        changes.invoke("addChange", TypeDef.VOID,
+                            ExpressionDef.constant(name),
+                            change.invoke("getFile", TypeDef.of(File.class)),
+                            changeType.invokeStatic("valueOf", changeType, change
+                                .invoke("getChangeType", ClassTypeDef.of("org.gradle.work.ChangeType"))
+                                .invoke("name", TypeDef.STRING))
+                        )
+                    )
+                )
+            ));
+        }
+        return StatementDef.multi(
+            changes.defineAndAssign(TASK_CHANGES_TYPE.instantiate(inputChanges.invoke("isIncremental", booleanType))),
+            new StatementDef.If(changes.invoke("isIncremental", booleanType), StatementDef.multi(collect))
+        );
+    }
+
+    /**
+     * Create the item of a batch task.
+     * It has the same parameters as the task, so each item is fingerprinted separately
+     * as a nested input of the batch task.
+     */
+    private ObjectDef buildBatchItem(String packageName, GradleTaskConfig taskConfig) {
+        InterfaceDefBuilder builder = InterfaceDef.builder(packageName + "." + taskConfig.namePrefix() + BATCH_ITEM_SUFFIX)
+            .addModifiers(Modifier.PUBLIC)
+            .addJavadoc("An item of the " + taskConfig.namePrefix() + BATCH_SUFFIX + TASK_SUFFIX + ".\n"
+                + taskConfig.taskJavadoc());
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            builder.addMethod(createParameterGetter(parameter, taskConfig.relocatable()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create a batch task, that executes all its items as parallel work items of a single task.
+     * All the items are submitted at once, and Gradle runs at most {@code org.gradle.workers.max} of them at a time.
+     */
+    private ObjectDef buildBatchTask(String packageName, GradleTaskConfig taskConfig) {
+        String prefix = taskConfig.namePrefix() + BATCH_SUFFIX;
+        String taskType = packageName + "." + prefix + TASK_SUFFIX;
+        ClassTypeDef itemType = ClassTypeDef.of(packageName + "." + taskConfig.namePrefix() + BATCH_ITEM_SUFFIX);
+        TypeDef itemsType = TypeDef.parameterized(ClassTypeDef.of(List.class), itemType);
+        TypeDef objectFactoryType = TypeDef.of("org.gradle.api.model.ObjectFactory");
+        FieldDef itemsField = FieldDef.builder("items", itemsType)
+            .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+            .initializer(ClassTypeDef.of(ArrayList.class).instantiate())
+            .build();
+
+        ClassDefBuilder builder = createTaskBuilder(packageName, taskType, prefix, taskConfig, itemType, "item", false)
+            .addJavadoc("Executes multiple items of " + taskConfig.namePrefix() + " in parallel.\n"
+                + taskConfig.taskJavadoc())
+            .addField(itemsField);
+
+        builder.addMethod(MethodDef.builder("getItems")
+            .addModifiers(Modifier.PUBLIC)
+            .returns(itemsType)
+            .addAnnotation("org.gradle.api.tasks.Nested")
+            .addJavadoc("@return The items to execute")
+            .build((t, params) -> t.field(itemsField).returning())
+        );
+        addWorkerMethods(builder, taskConfig);
+        addResourceServiceMethod(builder, packageName, taskConfig);
+        builder.addMethod(MethodDef.builder("getObjects")
+            .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+            .returns(objectFactoryType)
+            .addAnnotation("javax.inject.Inject")
+            .build()
+        );
+        builder.addMethod(MethodDef.builder("item")
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter("action", TypeDef.parameterized(ClassTypeDef.of("org.gradle.api.Action"), TypeDef.wildcardSupertypeOf(itemType)))
+            .addJavadoc("Add an item to execute.\n@param action The action to configure the item")
+            .build((t, params) -> {
+                Local item = new Local("item", itemType);
+                return StatementDef.multi(
+                    item.defineAndAssign(t.invoke("getObjects", objectFactoryType)
+                        .invoke("newInstance", itemType, itemType.getStaticField("class", TypeDef.CLASS))),
+                    params.get(0).invoke(EXECUTE_METHOD, TypeDef.VOID, item),
+                    t.field(itemsField).invoke("add", TypeDef.of(boolean.class), item)
+                );
+            })
+        );
+
+        builder.addMethod(MethodDef.builder(EXECUTE_METHOD)
+            .returns(TypeDef.VOID)
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation("org.gradle.api.tasks.TaskAction")
+            .addJavadoc(taskConfig.methodJavadoc())
+            .build((t, params) -> {
+                TypeDef intType = TypeDef.primitive(int.class);
+                Local queue = new Local("queue", WORK_QUEUE_TYPE);
+                Local i = new Local("i", intType);
+                ExpressionDef items = t.field(itemsField);
+                return StatementDef.multi(
+                    queue.defineAndAssign(createWorkQueue(t, prefix, taskConfig)),
+                    i.defineAndAssign(ExpressionDef.constant(0)),
+                    new StatementDef.While(
+                        i.compare(OpType.LESS_THAN, items.invoke("size", intType)),
+                        StatementDef.multi(
+                            queue.invoke("submit", TypeDef.VOID,
+                                ClassTypeDef.of(prefix + WORK_ACTION_SUFFIX).getStaticField("class", TypeDef.CLASS),
+                                ClassTypeDef.of(prefix + "WorkActionParameterConfigurator")
+                                    .instantiate(configuratorArguments(packageName, taskConfig, t, items.invoke("get", itemType, i), null))
+                            ),
+                            i.assign(i.math(MathBinaryOperation.OpType.ADDITION, ExpressionDef.constant(1)))
+                        )
+                    )
+                );
+            })
+        );
+        return builder.build();
+    }
+
+    /**
+     * Create a build service that creates the task resource once and shares it between all the tasks of a build.
+     */
+    private ObjectDef buildResourceService(String packageName, GradleTaskConfig taskConfig) {
+        TypeDef resourceType = taskConfig.task().resourceType();
+        FieldDef resourceField = FieldDef.builder("resource", resourceType)
+            .addModifiers(Modifier.PRIVATE)
+            .build();
+        return ClassDef.builder(resourceServiceName(packageName, taskConfig))
+            .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+            .addSuperinterface(TypeDef.parameterized(
+                ClassTypeDef.of("org.gradle.api.services.BuildService"),
+                ClassTypeDef.of("org.gradle.api.services.BuildServiceParameters.None")
+            ))
+            .addSuperinterface(ClassTypeDef.of(AutoCloseable.class))
+            .addJavadoc("A build service sharing the resource of " + taskConfig.namePrefix() + " tasks.\n"
+                + "Gradle closes the service at the end of the build, which closes the resource if it is AutoCloseable.")
+            .addField(resourceField)
+            .addMethod(MethodDef.builder("getResource")
+                .addModifiers(Modifier.PUBLIC, Modifier.SYNCHRONIZED)
+                .returns(resourceType)
+                .addJavadoc("@return The resource, that is created on first use")
+                .build((t, params) -> StatementDef.multi(
+                    new StatementDef.If(
+                        t.field(resourceField).compare(OpType.EQUAL_TO, ExpressionDef.constant(null)),
+                        t.field(resourceField).assign(PluginUtils.createResource(taskConfig.task()))
+                    ),
+                    t.field(resourceField).returning()
+                ))
+            )
+            .addMethod(MethodDef.builder("close")
+                .addModifiers(Modifier.PUBLIC, Modifier.SYNCHRONIZED)
+                .returns(TypeDef.VOID)
+                .addJavadoc("Close the resource if it was created and is AutoCloseable.")
+                .build((t, params) -> StatementDef.multi(
+                    ClassTypeDef.of(PluginTaskResources.class)
+                        .invokeStatic("close", TypeDef.VOID, t.field(resourceField)),
+                    t.field(resourceField).assign(ExpressionDef.constant(null))
+                ))
+            )
+            .build();
+    }
+
+    /**
+     * Get the name of the resource build service.
+     * It is also used as the name the service is registered with.
+     *
+     * @param packageName The package name
+     * @param taskConfig The task configuration
+     * @return The fully qualified name
+     */
+    static String resourceServiceName(String packageName, GradleTaskConfig taskConfig) {
+        return packageName + "." + taskConfig.namePrefix() + RESOURCE_SERVICE_SUFFIX;
+    }
+
+    static ClassTypeDef resourceServiceType(String packageName, GradleTaskConfig taskConfig) {
+        return ClassTypeDef.of(resourceServiceName(packageName, taskConfig));
+    }
+
+    private static TypeDef resourceServicePropertyType(String packageName, GradleTaskConfig taskConfig) {
+        return TypeDef.parameterized(
+            ClassTypeDef.of("org.gradle.api.provider.Property"), resourceServiceType(packageName, taskConfig)
+        );
+    }
+
+    private void addResourceServiceMethod(ClassDefBuilder builder, String packageName, GradleTaskConfig taskConfig) {
+        if (!taskConfig.task().acceptsResource()) {
+            return;
+        }
+        builder.addMethod(MethodDef.builder(GET_RESOURCE_SERVICE_METHOD)
+            .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+            .returns(resourceServicePropertyType(packageName, taskConfig))
+            .addAnnotation(AnnotationDef.builder(ClassTypeDef.of("org.gradle.api.services.ServiceReference"))
+                .addMember("value", resourceServiceName(packageName, taskConfig))
+                .build())
+            .build()
+        );
+    }
+
+    /**
+     * The arguments for the configurator of work action parameters.
+     */
+    private ExpressionDef[] configuratorArguments(
+        String packageName, GradleTaskConfig taskConfig, VariableDef.This t, ExpressionDef owner, ExpressionDef changes
+    ) {
+        List<ExpressionDef> arguments = new ArrayList<>();
+        arguments.add(owner);
+        if (changes != null) {
+            arguments.add(changes);
+        }
+        if (taskConfig.task().acceptsResource()) {
+            arguments.add(t.invoke(GET_RESOURCE_SERVICE_METHOD, resourceServicePropertyType(packageName, taskConfig)));
+        }
+        return arguments.toArray(ExpressionDef[]::new);
+    }
+
+    private ClassDefBuilder createTaskBuilder(
+        String packageName, String taskType, String prefix, GradleTaskConfig taskConfig,
+        TypeDef parametersOwnerType, String parametersOwnerName, boolean withChanges
+    ) {
         ClassDefBuilder builder = ClassDef.builder(taskType)
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-            .superclass(ClassTypeDef.of("org.gradle.api.DefaultTask"))
-            .addJavadoc(taskConfig.taskJavadoc());
+            .superclass(ClassTypeDef.of("org.gradle.api.DefaultTask"));
         if (taskConfig.cacheable()) {
             builder.addAnnotation("org.gradle.api.tasks.CacheableTask");
+        } else if (taskConfig.relocatable()) {
+            builder.addAnnotation(AnnotationDef.builder(ClassTypeDef.of("org.gradle.work.DisableCachingByDefault"))
+                .addMember("because", "The task is configured as not cacheable")
+                .build());
         }
-        builder.addInnerType(createWorkAction(taskConfig));
-        builder.addInnerType(createWorkActionParameters(taskConfig));
-        builder.addInnerType(createWorkActionParameterConfigurator(TypeDef.of(taskType), taskConfig));
-        builder.addInnerType(createClasspathConfigurator(TypeDef.of(taskType), taskConfig));
-
-        for (ParameterConfig parameter: taskConfig.parameters()) {
-            builder.addMethod(createParameterGetter(parameter));
+        builder.addInnerType(createWorkAction(packageName, prefix, taskConfig));
+        builder.addInnerType(createWorkActionParameters(packageName, prefix, taskConfig));
+        builder.addInnerType(createWorkActionParameterConfigurator(
+            packageName, parametersOwnerType, parametersOwnerName, prefix, taskConfig, withChanges
+        ));
+        if (taskConfig.worker().isolation() != Isolation.NONE) {
+            builder.addInnerType(createClasspathConfigurator(TypeDef.of(taskType), prefix, taskConfig));
         }
+        return builder;
+    }
 
+    private void addWorkerMethods(ClassDefBuilder builder, GradleTaskConfig taskConfig) {
         TypeDef classpathType = TypeDef.of("org.gradle.api.file.ConfigurableFileCollection");
         builder.addMethod(MethodDef.builder(GET_CLASSPATH_METHOD)
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
@@ -111,27 +439,45 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
             .addAnnotation("org.gradle.api.tasks.Classpath")
             .build()
         );
-
-        TypeDef workerExecutorType = TypeDef.of("org.gradle.workers.WorkerExecutor");
+        if (taskConfig.worker().classDataSharing()) {
+            builder.addMethod(MethodDef.builder(GET_CLASS_DATA_SHARING_ARCHIVE_METHOD)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(REGULAR_FILE_PROPERTY_TYPE)
+                .addAnnotation("org.gradle.api.tasks.Internal")
+                .addJavadoc("@return The class data sharing archive of the worker classpath")
+                .build()
+            );
+        }
         builder.addMethod(MethodDef.builder("getWorkerExecutor")
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-            .returns(workerExecutorType)
+            .returns(WORKER_EXECUTOR_TYPE)
             .addAnnotation("javax.inject.Inject")
             .build()
         );
-
-        builder.addMethod(createExecuteMethod(taskConfig, workerExecutorType));
-        return List.of(builder.build());
     }
 
-    private MethodDef createParameterGetter(ParameterConfig parameter) {
+    private MethodDef createParameterGetter(ParameterConfig parameter, boolean relocatable) {
         MethodDefBuilder propBuilder = MethodDef
-            .builder("get" + NameUtils.capitalize(parameter.source().getName()))
+            .builder("get" + NameUtils.capitalize(parameter.name()))
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
             .addJavadoc(parameter.javadoc())
             .returns(createGradleProperty(parameter));
-        if (parameter.output()) {
-            if (parameter.source().getType().isAssignable(File.class)) {
+        if (parameter.fileCollection()) {
+            if (parameter.output()) {
+                propBuilder.addAnnotation("org.gradle.api.tasks.OutputFiles");
+            } else {
+                propBuilder.addAnnotation("org.gradle.api.tasks.InputFiles");
+                propBuilder.addAnnotation(createPathSensitive(parameter));
+                if (relocatable) {
+                    propBuilder.addAnnotation(NORMALIZE_LINE_ENDINGS_ANNOTATION);
+                }
+                propBuilder.addAnnotation("org.gradle.api.tasks.IgnoreEmptyDirectories");
+                if (parameter.skipWhenEmpty()) {
+                    propBuilder.addAnnotation("org.gradle.api.tasks.SkipWhenEmpty");
+                }
+            }
+        } else if (parameter.output()) {
+            if (parameter.kind() == ParameterKind.FILE) {
                 if (parameter.directory()) {
                     propBuilder.addAnnotation(AnnotationDef.builder(ClassTypeDef.of("org.gradle.api.tasks.OutputDirectory")).build());
                 } else {
@@ -139,19 +485,21 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
                 }
             }
         } else {
-            propBuilder.addAnnotation("org.gradle.api.tasks.Input");
-            if (parameter.source().getType().isAssignable(File.class)) {
+            if (parameter.kind() != ParameterKind.FILE) {
+                propBuilder.addAnnotation("org.gradle.api.tasks.Input");
+            } else {
                 if (parameter.directory()) {
                     propBuilder.addAnnotation(AnnotationDef.builder(ClassTypeDef.of("org.gradle.api.tasks.InputDirectory")).build());
+                    if (parameter.incremental()) {
+                        propBuilder.addAnnotation("org.gradle.work.Incremental");
+                    }
                 } else {
                     propBuilder.addAnnotation(AnnotationDef.builder(ClassTypeDef.of("org.gradle.api.tasks.InputFile")).build());
                 }
-                ClassTypeDef pathSensitivityType = ClassTypeDef.of("org.gradle.api.tasks.PathSensitivity");
-                ClassTypeDef pathSensitiveType = ClassTypeDef.of("org.gradle.api.tasks.PathSensitive");
-                propBuilder.addAnnotation(AnnotationDef.builder(pathSensitiveType)
-                    .addMember("value", pathSensitivityType.getStaticField(parameter.pathSensitivity().name(), pathSensitivityType))
-                    .build()
-                );
+                propBuilder.addAnnotation(createPathSensitive(parameter));
+                if (relocatable) {
+                    propBuilder.addAnnotation(NORMALIZE_LINE_ENDINGS_ANNOTATION);
+                }
             }
         }
 
@@ -161,16 +509,43 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
         return propBuilder.build();
     }
 
-    private ClassDef createWorkActionParameterConfigurator(TypeDef taskType, GradleTaskConfig taskConfig) {
-        TypeDef parametersType = TypeDef.of(taskConfig.namePrefix() + WORK_ACTION_PARAMETERS_SUFFIX);
-        FieldDef taskField = FieldDef.builder("task").ofType(taskType).build();
-        return ClassDef.builder(taskConfig.namePrefix() + "WorkActionParameterConfigurator")
+    private AnnotationDef createPathSensitive(ParameterConfig parameter) {
+        ClassTypeDef pathSensitivityType = ClassTypeDef.of("org.gradle.api.tasks.PathSensitivity");
+        ClassTypeDef pathSensitiveType = ClassTypeDef.of("org.gradle.api.tasks.PathSensitive");
+        return AnnotationDef.builder(pathSensitiveType)
+            .addMember("value", pathSensitivityType.getStaticField(parameter.pathSensitivity().name(), pathSensitivityType))
+            .build();
+    }
+
+    /**
+     * Create the configurator of work action parameters.
+     * It reads the parameters from the owner, which is either a task or a batch task item.
+     * The changes of incremental parameters are passed to the configurator if the owner collects them,
+     * otherwise a full execution is requested if the task accepts changes.
+     */
+    private ClassDef createWorkActionParameterConfigurator(
+        String packageName, TypeDef ownerType, String ownerName, String prefix, GradleTaskConfig taskConfig, boolean withChanges
+    ) {
+        TypeDef parametersType = TypeDef.of(prefix + WORK_ACTION_PARAMETERS_SUFFIX);
+        FieldDef taskField = FieldDef.builder(ownerName).ofType(ownerType).build();
+        FieldDef changesField = FieldDef.builder("changes").ofType(TASK_CHANGES_TYPE).build();
+        FieldDef resourceServiceField = FieldDef.builder("resourceService")
+            .ofType(resourceServicePropertyType(packageName, taskConfig))
+            .build();
+        ClassDefBuilder builder = ClassDef.builder(prefix + "WorkActionParameterConfigurator")
             .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
             .addSuperinterface(TypeDef.parameterized(
                 ClassTypeDef.of("org.gradle.api.Action"),
                 parametersType
             ))
-            .addField(taskField)
+            .addField(taskField);
+        if (withChanges) {
+            builder.addField(changesField);
+        }
+        if (taskConfig.task().acceptsResource()) {
+            builder.addField(resourceServiceField);
+        }
+        return builder
             .addAllFieldsConstructor(Modifier.PUBLIC)
             .addMethod(MethodDef.builder(EXECUTE_METHOD)
                 .addModifiers(Modifier.PUBLIC)
@@ -180,16 +555,22 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
                 .build((t, params) -> {
                     List<StatementDef> statements = new ArrayList<>();
                     for (ParameterConfig parameter: taskConfig.parameters()) {
-                        String getterName = "get" + NameUtils.capitalize(parameter.source().getName());
+                        String getterName = "get" + NameUtils.capitalize(parameter.name());
                         TypeDef getterType = createGradleProperty(parameter);
                         ExpressionDef def = t.field(taskField).invoke(getterName, getterType);
+                        if (parameter.fileCollection()) {
+                            statements.add(params.get(0)
+                                .invoke(getterName, getterType)
+                                .invoke("from", getterType, def)
+                            );
+                            continue;
+                        }
                         if (!parameter.required()) {
                             if (parameter.defaultValue() != null) {
-                                TypeDef type = parameter.type();
                                 def = def.invoke(
                                     "orElse",
-                                    type,
-                                    createDefault(type, parameter.defaultValue())
+                                    parameter.type(),
+                                    createDefault(taskConfig, parameter)
                                 );
                             } else {
                                 def = def.invoke("getOrNull", parameter.type());
@@ -200,30 +581,47 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
                             .invoke("set", TypeDef.VOID, def)
                         );
                     }
+                    if (taskConfig.task().acceptsChanges()) {
+                        ExpressionDef changes = withChanges
+                            ? t.field(changesField)
+                            : TASK_CHANGES_TYPE.invokeStatic("full", TASK_CHANGES_TYPE);
+                        statements.add(params.get(0)
+                            .invoke(GET_TASK_CHANGES_METHOD, TASK_CHANGES_PROPERTY_TYPE)
+                            .invoke("set", TypeDef.VOID, changes)
+                        );
+                    }
+                    if (taskConfig.task().acceptsResource()) {
+                        statements.add(params.get(0)
+                            .invoke(GET_RESOURCE_SERVICE_METHOD, resourceServicePropertyType(packageName, taskConfig))
+                            .invoke("set", TypeDef.VOID, t.field(resourceServiceField))
+                        );
+                    }
                     return StatementDef.multi(statements);
                 })
             )
             .build();
     }
 
-    static ExpressionDef createDefault(TypeDef type, String value) {
-        if (type instanceof ClassElementType classElementType) {
-            return ExpressionDef.constant(classElementType.classElement(), type, value);
-        } else if (type instanceof TypeDef.Primitive primitiveType) {
-            return ClassUtils.getPrimitiveType(primitiveType.name()).flatMap(t ->
-                ConversionService.SHARED.convert(value, t)
-            ).map(o -> new Constant(type, o)).orElse(null);
-        } else if (type instanceof ClassDefType classDefType && classDefType.objectDef() instanceof EnumDef) {
-            return classDefType.getStaticField(value, type);
+    static ExpressionDef createDefault(GradleTaskConfig taskConfig, ParameterConfig parameter) {
+        ExpressionDef value = taskConfig.defaultValues().get(parameter.name());
+        if (value == null) {
+            throw new UnsupportedOperationException("Cannot create default value of type " + parameter.type());
         }
-        throw new UnsupportedOperationException("Cannot create default value of type " + type);
+        return value;
     }
 
-    private ClassDef createClasspathConfigurator(TypeDef taskType, GradleTaskConfig taskConfig) {
+    /**
+     * Create the configurator of the worker spec.
+     * It sets the worker classpath and, for process isolation, the worker fork options.
+     */
+    private ClassDef createClasspathConfigurator(TypeDef taskType, String prefix, GradleTaskConfig taskConfig) {
         FieldDef taskField = FieldDef.builder("task").ofType(taskType).build();
-        TypeDef specType = TypeDef.of("org.gradle.workers.ClassLoaderWorkerSpec");
+        GradleWorkerConfig worker = taskConfig.worker();
+        TypeDef specType = worker.isolation() == Isolation.PROCESS
+            ? TypeDef.of("org.gradle.workers.ProcessWorkerSpec")
+            : TypeDef.of("org.gradle.workers.ClassLoaderWorkerSpec");
         TypeDef classpathType = TypeDef.of("org.gradle.api.file.ConfigurableFileCollection");
-        return ClassDef.builder(taskConfig.namePrefix() + "ClasspathConfigurator")
+        return ClassDef.builder(prefix + "ClasspathConfigurator")
             .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
             .addSuperinterface(TypeDef.parameterized(
                 ClassTypeDef.of("org.gradle.api.Action"),
@@ -236,115 +634,186 @@ public class GradleTaskBuilder implements GradleTypeBuilder {
                 .returns(TypeDef.VOID)
                 .overrides()
                 .addParameter(ParameterDef.of("spec", specType))
-                .build((t, params) ->
-                    params.get(0)
+                .build((t, params) -> {
+                    List<StatementDef> statements = new ArrayList<>();
+                    statements.add(params.get(0)
                         .invoke(GET_CLASSPATH_METHOD, classpathType)
                         .invoke("from", TypeDef.VOID, t.field(taskField).invoke(GET_CLASSPATH_METHOD, classpathType))
-                )
+                    );
+                    if (worker.isolation() == Isolation.PROCESS) {
+                        statements.addAll(configureForkOptions(worker, params.get(0)));
+                    }
+                    if (worker.classDataSharing()) {
+                        statements.add(configureClassDataSharing(t.field(taskField), params.get(0)));
+                    }
+                    return StatementDef.multi(statements);
+                })
             )
             .build();
     }
 
-    private InterfaceDef createWorkActionParameters(GradleTaskConfig taskConfig) {
-        InterfaceDefBuilder builder = InterfaceDef.builder(taskConfig.namePrefix() + WORK_ACTION_PARAMETERS_SUFFIX)
+    /**
+     * Make the worker daemon use the class data sharing archive, if it is supported.
+     */
+    private StatementDef configureClassDataSharing(ExpressionDef task, ExpressionDef spec) {
+        TypeDef forkOptionsType = TypeDef.of("org.gradle.process.JavaForkOptions");
+        ExpressionDef archive = task.invoke(GET_CLASS_DATA_SHARING_ARCHIVE_METHOD, REGULAR_FILE_PROPERTY_TYPE)
+            .invoke("getAsFile", TypeDef.parameterized(ClassTypeDef.of("org.gradle.api.provider.Provider"), File.class))
+            .invoke("getOrNull", TypeDef.of(File.class));
+        return spec.invoke("getForkOptions", forkOptionsType)
+            .invoke("jvmArgs", forkOptionsType, ClassTypeDef.of(PluginClassDataSharing.class)
+                .invokeStatic("jvmArgs", TypeDef.parameterized(List.class, String.class), archive));
+    }
+
+    private List<StatementDef> configureForkOptions(GradleWorkerConfig worker, ExpressionDef spec) {
+        TypeDef forkOptionsType = TypeDef.of("org.gradle.process.JavaForkOptions");
+        List<StatementDef> statements = new ArrayList<>();
+        if (worker.maxHeapSize() != null) {
+            statements.add(spec.invoke("getForkOptions", forkOptionsType)
+                .invoke("setMaxHeapSize", TypeDef.VOID, ExpressionDef.constant(worker.maxHeapSize()))
+            );
+        }
+        if (!worker.jvmArgs().isEmpty()) {
+            statements.add(spec.invoke("getForkOptions", forkOptionsType)
+                .invoke("jvmArgs", forkOptionsType, worker.jvmArgs().stream().map(ExpressionDef::constant).toArray(ExpressionDef[]::new))
+            );
+        }
+        if (worker.workerDaemonKey() != null) {
+            statements.add(spec.invoke("getForkOptions", forkOptionsType)
+                .invoke("systemProperty", forkOptionsType,
+                    ExpressionDef.constant(WORKER_DAEMON_KEY_PROPERTY), ExpressionDef.constant(worker.workerDaemonKey())
+                )
+            );
+        }
+        return statements;
+    }
+
+    private InterfaceDef createWorkActionParameters(String packageName, String prefix, GradleTaskConfig taskConfig) {
+        InterfaceDefBuilder builder = InterfaceDef.builder(prefix + WORK_ACTION_PARAMETERS_SUFFIX)
             .addModifiers(Modifier.PUBLIC)
             .addSuperinterface(ClassTypeDef.of("org.gradle.workers.WorkParameters"));
         for (ParameterConfig parameter: taskConfig.parameters()) {
             MethodDefBuilder propBuilder = MethodDef
-                .builder("get" + NameUtils.capitalize(parameter.source().getName()))
+                .builder("get" + NameUtils.capitalize(parameter.name()))
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                 .returns(createGradleProperty(parameter));
             builder.addMethod(propBuilder.build());
         }
+        if (taskConfig.task().acceptsChanges()) {
+            builder.addMethod(MethodDef.builder(GET_TASK_CHANGES_METHOD)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(TASK_CHANGES_PROPERTY_TYPE)
+                .build()
+            );
+        }
+        if (taskConfig.task().acceptsResource()) {
+            builder.addMethod(MethodDef.builder(GET_RESOURCE_SERVICE_METHOD)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(resourceServicePropertyType(packageName, taskConfig))
+                .build()
+            );
+        }
         return builder.build();
     }
 
-    private ClassDef createWorkAction(GradleTaskConfig taskConfig) {
-        ClassTypeDef parametersType = ClassTypeDef.of(taskConfig.namePrefix() + WORK_ACTION_PARAMETERS_SUFFIX);
+    private ClassDef createWorkAction(String packageName, String prefix, GradleTaskConfig taskConfig) {
+        ClassTypeDef parametersType = ClassTypeDef.of(prefix + WORK_ACTION_PARAMETERS_SUFFIX);
         MethodDef executeMethod = MethodDef
             .builder(EXECUTE_METHOD)
             .returns(TypeDef.VOID)
             .addModifiers(Modifier.PUBLIC)
             .overrides()
-            .build((t, params) -> runTask(taskConfig, t, parametersType));
-        return ClassDef.builder(taskConfig.namePrefix() + WORK_ACTION_SUFFIX)
+            .build((t, params) -> runTask(packageName, taskConfig, t, parametersType));
+        return ClassDef.builder(prefix + WORK_ACTION_SUFFIX)
             .addSuperinterface(TypeDef.parameterized(
                 ClassTypeDef.of("org.gradle.workers.WorkAction"),
                 parametersType
             ))
-            .addMethods(taskConfig.generatedModels().stream().map(GeneratedModel::convertorMethod).toList())
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT, Modifier.STATIC)
             .addMethod(executeMethod)
             .build();
     }
 
-    private MethodDef createExecuteMethod(GradleTaskConfig taskConfig, TypeDef workerExecutorType) {
-        return MethodDef.builder(EXECUTE_METHOD)
-            .returns(TypeDef.VOID)
-            .addModifiers(Modifier.PUBLIC)
-            .addAnnotation("org.gradle.api.tasks.TaskAction")
-            .addJavadoc(taskConfig.methodJavadoc())
-            .build((t, params) ->
-                t.invoke("getWorkerExecutor", workerExecutorType)
-                    .invoke("classLoaderIsolation",
-                        workerExecutorType,
-                        ClassTypeDef.of(taskConfig.namePrefix() + "ClasspathConfigurator").instantiate(t)
-                    )
-                    .invoke("submit", TypeDef.VOID,
-                        ClassTypeDef.of(taskConfig.namePrefix() + WORK_ACTION_SUFFIX).getStaticField("class", TypeDef.CLASS),
-                        ClassTypeDef.of(taskConfig.namePrefix() + "WorkActionParameterConfigurator").instantiate(t)
-                    )
+    private ExpressionDef createWorkQueue(VariableDef.This t, String prefix, GradleTaskConfig taskConfig) {
+        ExpressionDef workerExecutor = t.invoke("getWorkerExecutor", WORKER_EXECUTOR_TYPE);
+        return switch (taskConfig.worker().isolation()) {
+            case NONE -> workerExecutor.invoke("noIsolation", WORK_QUEUE_TYPE);
+            case CLASSLOADER -> workerExecutor.invoke("classLoaderIsolation", WORK_QUEUE_TYPE,
+                ClassTypeDef.of(prefix + "ClasspathConfigurator").instantiate(t)
+            );
+            case PROCESS -> workerExecutor.invoke("processIsolation", WORK_QUEUE_TYPE,
+                ClassTypeDef.of(prefix + "ClasspathConfigurator").instantiate(t)
             );
+        };
     }
 
-    private StatementDef runTask(GradleTaskConfig taskConfig, VariableDef.This t, ClassTypeDef parametersType) {
+    private StatementDef runTask(String packageName, GradleTaskConfig taskConfig, VariableDef.This t, ClassTypeDef parametersType) {
         List<StatementDef> statements = new ArrayList<>();
         Map<String, ExpressionDef> params = new HashMap<>();
         statements.add(t.invoke("getParameters", parametersType).newLocal("parameters"));
 
         for (ParameterConfig parameter: taskConfig.parameters()) {
             ExpressionDef expression = new VariableDef.Local("parameters", parametersType)
-                .invoke("get" + NameUtils.capitalize(parameter.source().getName()), createGradleProperty(parameter));
-            if (!parameter.required() && parameter.defaultValue() == null) {
+                .invoke("get" + NameUtils.capitalize(parameter.name()), createGradleProperty(parameter));
+            if (parameter.fileCollection()) {
+                expression = expression.invoke("getFiles", TypeDef.parameterized(Set.class, File.class));
+                if (parameter.kind() == ParameterKind.FILE_LIST) {
+                    expression = TypeDef.parameterized(ArrayList.class, File.class).instantiate(expression);
+                }
+            } else if (!parameter.required() && parameter.defaultValue() == null) {
                 expression = expression.invoke("getOrNull", parameter.type());
             } else {
                 expression = expression.invoke("get", parameter.type());
             }
-            if (parameter.source().getType().isAssignable(File.class)) {
+            if (parameter.kind() == ParameterKind.FILE) {
                 expression = expression.invoke("getAsFile", TypeDef.of(File.class));
             }
             params.put(
-                parameter.source().getName(),
-                ModelUtils.convertParameterIfRequired(
-                    parameter.source().getType(), parameter.source().getName() + "Param", statements, expression
-                )
+                parameter.name(),
+                ModelUtils.convertParameterIfRequired(taskConfig.modelConverters(), parameter, statements, expression)
             );
         }
-        statements.add(PluginUtils.executeTaskMethod(taskConfig.source(), taskConfig.methodName(), params));
+        ExpressionDef changes = null;
+        if (taskConfig.task().acceptsChanges()) {
+            changes = new VariableDef.Local("parameters", parametersType)
+                .invoke(GET_TASK_CHANGES_METHOD, TASK_CHANGES_PROPERTY_TYPE)
+                .invoke("get", TASK_CHANGES_TYPE);
+        }
+        ExpressionDef resource = null;
+        if (taskConfig.task().acceptsResource()) {
+            ClassTypeDef serviceType = resourceServiceType(packageName, taskConfig);
+            resource = new VariableDef.Local("parameters", parametersType)
+                .invoke(GET_RESOURCE_SERVICE_METHOD, resourceServicePropertyType(packageName, taskConfig))
+                .invoke("get", serviceType)
+                .invoke("getResource", taskConfig.task().resourceType());
+        }
+        statements.add(PluginUtils.executeTaskMethod(taskConfig.task(), params, changes, resource));
         return StatementDef.multi(statements);
     }
 
     static TypeDef createGradleProperty(ParameterConfig parameter) {
-        ClassElement type = parameter.source().getType();
-        if (type.isAssignable(File.class)) {
+        if (parameter.fileCollection()) {
+            return ClassTypeDef.of("org.gradle.api.file.ConfigurableFileCollection");
+        }
+        if (parameter.kind() == ParameterKind.FILE) {
             if (parameter.directory()) {
                 return ClassTypeDef.of("org.gradle.api.file.DirectoryProperty");
             }
             return ClassTypeDef.of("org.gradle.api.file.RegularFileProperty");
         }
         if (parameter.type() instanceof ClassTypeDef.Parameterized parameterized) {
-            if (type.isAssignable(Map.class)) {
+            if (parameter.kind() == ParameterKind.MAP) {
                 return TypeDef.parameterized(
                     ClassTypeDef.of("org.gradle.api.provider.MapProperty"),
                     parameterized.typeArguments().get(0),
                     parameterized.typeArguments().get(1)
                 );
-            } else if (type.isAssignable(List.class)) {
+            } else if (parameter.kind() == ParameterKind.LIST) {
                 return TypeDef.parameterized(
                     ClassTypeDef.of("org.gradle.api.provider.ListProperty"),
                     parameterized.typeArguments().get(0)
                 );
-            } else if (type.isAssignable(Set.class)) {
+            } else if (parameter.kind() == ParameterKind.SET) {
                 return TypeDef.parameterized(
                     ClassTypeDef.of("org.gradle.api.provider.SetProperty"),
                     parameterized.typeArguments().get(0)
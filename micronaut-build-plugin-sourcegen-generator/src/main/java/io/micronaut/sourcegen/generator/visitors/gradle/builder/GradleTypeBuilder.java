@@ -25,6 +25,8 @@ import java.util.List;
 
 /**
  * An interface for a Gradle plugin builder type.
+ * The builders may run in parallel, so they must only use the data in the configuration
+ * and must not query the elements.
  */
 @Internal
 public interface GradleTypeBuilder {
@@ -44,4 +46,29 @@ public interface GradleTypeBuilder {
      */
     @NonNull List<ObjectDef> build(@NonNull GradlePluginUtils.GradlePluginConfig pluginConfig);
 
+    /**
+     * Whether the builder generates independent objects for each task.
+     * In that case the tasks can be built separately with {@link #buildForTask}.
+     *
+     * @return Whether the objects are generated per task
+     */
+    default boolean isPerTask() {
+        return false;
+    }
+
+    /**
+     * Generate the gradle type for a single task.
+     * Is only supported if {@link #isPerTask()} is true.
+     *
+     * @param pluginConfig The configuration
+     * @param taskConfig The task configuration
+     * @return The generated objects for the task
+     */
+    default @NonNull List<ObjectDef> buildForTask(
+        @NonNull GradlePluginUtils.GradlePluginConfig pluginConfig,
+        @NonNull GradlePluginUtils.GradleTaskConfig taskConfig
+    ) {
+        throw new UnsupportedOperationException("Building " + getType() + " per task is not supported");
+    }
+
 }
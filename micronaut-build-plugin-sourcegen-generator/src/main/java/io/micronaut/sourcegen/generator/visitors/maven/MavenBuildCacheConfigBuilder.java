@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.generator.visitors.maven;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.sourcegen.annotations.PluginTaskParameter.PathSensitivity;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterKind;
+import io.micronaut.sourcegen.generator.visitors.maven.MavenPluginUtils.MavenTaskConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A builder for the configuration of the {@code maven-build-cache-extension}.
+ * The configuration declares the file inputs, parameter values and output directories of
+ * the generated Mojo goals, so their executions can be restored from the build cache.
+ */
+@Internal
+public final class MavenBuildCacheConfigBuilder {
+
+    public static final String CONFIG_DIRECTORY = "maven/build-cache/";
+
+    private static final String BUILD_DIRECTORY_PREFIX = "${project.build.directory}/";
+
+    /**
+     * Get the path of the configuration relative to {@code META-INF}.
+     *
+     * @param triggerName The name of the trigger class
+     * @return The path
+     */
+    public static @NonNull String configPath(@NonNull String triggerName) {
+        return CONFIG_DIRECTORY + triggerName + ".xml";
+    }
+
+    /**
+     * Build the configuration for Mojos that specify both the goal and the plugin artifact id.
+     *
+     * @param triggerName The name of the trigger class
+     * @param taskConfigs The Mojo configurations
+     * @return The configuration or null if no Mojo can be cached
+     */
+    public @Nullable String build(@NonNull String triggerName, @NonNull List<MavenTaskConfig> taskConfigs) {
+        List<MavenTaskConfig> cached = new ArrayList<>(taskConfigs.size());
+        for (MavenTaskConfig taskConfig: taskConfigs) {
+            if (taskConfig.goal() != null && taskConfig.pluginArtifactId() != null) {
+                cached.add(taskConfig);
+            }
+        }
+        if (cached.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Set<String>> includes = new LinkedHashMap<>();
+        Map<String, Set<String>> excludes = new LinkedHashMap<>();
+        Set<String> outputDirectories = new LinkedHashSet<>();
+        for (MavenTaskConfig taskConfig: cached) {
+            Set<String> pluginIncludes = includes.computeIfAbsent(taskConfig.pluginArtifactId(), k -> new LinkedHashSet<>());
+            Set<String> pluginExcludes = excludes.computeIfAbsent(taskConfig.pluginArtifactId(), k -> new LinkedHashSet<>());
+            for (ParameterConfig parameter: taskConfig.parameters()) {
+                if (parameter.output()) {
+                    pluginExcludes.add(parameter.name());
+                    String defaultValue = parameter.defaultValue();
+                    if (defaultValue != null && defaultValue.startsWith(BUILD_DIRECTORY_PREFIX)) {
+                        outputDirectories.add(defaultValue.substring(BUILD_DIRECTORY_PREFIX.length()));
+                    }
+                } else if (!parameter.internal() && isFile(parameter)) {
+                    if (parameter.pathSensitivity() == PathSensitivity.NONE) {
+                        pluginExcludes.add(parameter.name());
+                    } else {
+                        pluginIncludes.add(parameter.name());
+                    }
+                }
+            }
+        }
+
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<!--\n")
+            .append("  The maven-build-cache-extension configuration for the goals generated by ").append(triggerName).append(".\n")
+            .append("  Merge it into .mvn/maven-build-cache-config.xml of the projects that use the plugin.\n")
+            .append("-->\n")
+            .append("<cache xmlns=\"http://maven.apache.org/BUILD-CACHE-CONFIG/1.0.0\">\n")
+            .append("    <input>\n")
+            .append("        <plugins>\n");
+        for (Map.Entry<String, Set<String>> plugin: includes.entrySet()) {
+            xml.append("            <plugin artifactId=\"").append(plugin.getKey()).append("\">\n")
+                .append("                <dirScan mode=\"auto\">\n");
+            appendTags(xml, "includes", "include", plugin.getValue(), " recursive=\"true\"");
+            appendTags(xml, "excludes", "exclude", excludes.get(plugin.getKey()), "");
+            xml.append("                </dirScan>\n")
+                .append("            </plugin>\n");
+        }
+        xml.append("        </plugins>\n")
+            .append("    </input>\n")
+            .append("    <executionControl>\n")
+            .append("        <reconcile>\n")
+            .append("            <plugins>\n");
+        for (MavenTaskConfig taskConfig: cached) {
+            xml.append("                <plugin artifactId=\"").append(taskConfig.pluginArtifactId())
+                .append("\" goal=\"").append(taskConfig.goal()).append("\">\n")
+                .append("                    <reconciles>\n");
+            for (ParameterConfig parameter: taskConfig.parameters()) {
+                if (!parameter.output() && !parameter.internal() && !isFile(parameter)) {
+                    xml.append("                        <reconcile propertyName=\"").append(parameter.name()).append("\"/>\n");
+                }
+            }
+            xml.append("                    </reconciles>\n")
+                .append("                </plugin>\n");
+        }
+        xml.append("            </plugins>\n")
+            .append("        </reconcile>\n")
+            .append("    </executionControl>\n");
+        if (!outputDirectories.isEmpty()) {
+            xml.append("    <output>\n")
+                .append("        <attachedOutputs>\n")
+                .append("            <dirNames>\n");
+            for (String directory: outputDirectories) {
+                xml.append("                <dirName>").append(directory).append("</dirName>\n");
+            }
+            xml.append("            </dirNames>\n")
+                .append("        </attachedOutputs>\n")
+                .append("    </output>\n");
+        }
+        return xml.append("</cache>\n").toString();
+    }
+
+    private static void appendTags(StringBuilder xml, String container, String element, Set<String> tagNames, String attributes) {
+        if (tagNames.isEmpty()) {
+            return;
+        }
+        xml.append("                    <").append(container).append(">\n");
+        for (String tagName: tagNames) {
+            xml.append("                        <").append(element).append(" tagName=\"").append(tagName).append("\"")
+                .append(attributes).append("/>\n");
+        }
+        xml.append("                    </").append(container).append(">\n");
+    }
+
+    private static boolean isFile(ParameterConfig parameter) {
+        return parameter.kind() == ParameterKind.FILE || parameter.fileCollection();
+    }
+
+}
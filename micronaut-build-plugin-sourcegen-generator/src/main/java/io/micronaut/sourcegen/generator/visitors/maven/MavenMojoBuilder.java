@@ -17,28 +17,40 @@ package io.micronaut.sourcegen.generator.visitors.maven;
 
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.naming.NameUtils;
+import io.micronaut.sourcegen.annotations.PluginTaskBatch;
+import io.micronaut.sourcegen.annotations.PluginTaskIsolation;
+import io.micronaut.sourcegen.annotations.PluginTaskState;
 import io.micronaut.sourcegen.generator.visitors.ModelUtils;
-import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils;
 import io.micronaut.sourcegen.generator.visitors.maven.MavenPluginUtils.MavenTaskConfig;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterKind;
 import io.micronaut.sourcegen.model.AnnotationDef;
 import io.micronaut.sourcegen.model.AnnotationDef.AnnotationDefBuilder;
 import io.micronaut.sourcegen.model.ClassDef;
 import io.micronaut.sourcegen.model.ClassDef.ClassDefBuilder;
 import io.micronaut.sourcegen.model.ClassTypeDef;
 import io.micronaut.sourcegen.model.ExpressionDef;
+import io.micronaut.sourcegen.model.ExpressionDef.ComparisonOperation.OpType;
+import io.micronaut.sourcegen.model.ExpressionDef.MathBinaryOperation;
 import io.micronaut.sourcegen.model.FieldDef;
 import io.micronaut.sourcegen.model.MethodDef;
 import io.micronaut.sourcegen.model.StatementDef;
 import io.micronaut.sourcegen.model.TypeDef;
 import io.micronaut.sourcegen.model.VariableDef;
+import io.micronaut.sourcegen.model.VariableDef.Local;
 
 import javax.lang.model.element.Modifier;
+import java.io.File;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * A builder for Maven Mojos.
@@ -47,6 +59,46 @@ import java.util.Map;
 public class MavenMojoBuilder {
 
     public static final String MOJO_SUFFIX = "Mojo";
+    public static final String DEFAULT_PREFIX = "Default";
+    public static final String TASK_ACTION_SUFFIX = "TaskAction";
+    public static final String BATCH_SUFFIX = "Batch";
+    public static final String BATCH_ITEM_SUFFIX = "BatchItem";
+
+    private static final String ENABLED_FIELD = "enabled";
+    private static final ClassTypeDef PARAMETER_TYPE = ClassTypeDef.of("org.apache.maven.plugins.annotations.Parameter");
+    private static final ClassTypeDef MOJO_TYPE = ClassTypeDef.of("org.apache.maven.plugins.annotations.Mojo");
+    private static final ClassTypeDef LIFECYCLE_PHASE_TYPE = ClassTypeDef.of("org.apache.maven.plugins.annotations.LifecyclePhase");
+    private static final ClassTypeDef RESOLUTION_SCOPE_TYPE = ClassTypeDef.of("org.apache.maven.plugins.annotations.ResolutionScope");
+
+    /**
+     * Project expressions that require dependency resolution, mapped to the narrowest scope that provides them.
+     * The scopes are ordered from the narrowest to the widest.
+     */
+    private static final Map<String, String> RESOLUTION_SCOPES = Map.of(
+        "${project.compileClasspathElements}", "COMPILE",
+        "${project.compileArtifacts}", "COMPILE",
+        "${project.runtimeClasspathElements}", "RUNTIME",
+        "${project.runtimeArtifacts}", "RUNTIME",
+        "${project.systemClasspathElements}", "RUNTIME_PLUS_SYSTEM",
+        "${project.testClasspathElements}", "TEST",
+        "${project.testArtifacts}", "TEST",
+        "${project.artifacts}", "TEST"
+    );
+    private static final List<String> ORDERED_RESOLUTION_SCOPES = List.of(
+        "NONE", "COMPILE", "RUNTIME", "RUNTIME_PLUS_SYSTEM", "TEST"
+    );
+
+    private static final String STATE_DIRECTORY_FIELD = "stateDirectory";
+    private static final String EXECUTION_ID_FIELD = "executionId";
+    private static final String PLUGIN_ARTIFACTS_FIELD = "pluginArtifacts";
+    private static final String ISOLATED_CLASSPATH_METHOD = "getIsolatedClasspath";
+    private static final String ITEMS_FIELD = "items";
+    private static final String PARALLELISM_FIELD = "parallelism";
+    private static final ClassTypeDef LOG_TYPE = ClassTypeDef.of("org.apache.maven.plugin.logging.Log");
+    private static final ClassTypeDef TASK_STATE_TYPE = ClassTypeDef.of(PluginTaskState.class);
+    private static final ClassTypeDef TASK_ISOLATION_TYPE = ClassTypeDef.of(PluginTaskIsolation.class);
+    private static final ClassTypeDef TASK_BATCH_TYPE = ClassTypeDef.of(PluginTaskBatch.class);
+    private static final ClassTypeDef ARTIFACT_TYPE = ClassTypeDef.of("org.apache.maven.artifact.Artifact");
 
     /**
      * Method for building the Maven mojo.
@@ -56,6 +108,23 @@ public class MavenMojoBuilder {
      */
     public ClassDef build(MavenTaskConfig taskConfig) {
         String mojoName = taskConfig.packageName() + "." + taskConfig.namePrefix() + MOJO_SUFFIX;
+        ClassDefBuilder builder = createMojoBuilder(taskConfig, mojoName);
+        for (ParameterConfig parameter : taskConfig.parameters()) {
+            addParameter(taskConfig, parameter, builder);
+        }
+        if (tracksState(taskConfig)) {
+            addStateParameters(builder);
+        }
+        if (taskConfig.isolatedDependency() != null) {
+            addIsolation(taskConfig, builder);
+        }
+        builder.addMethod(createExecuteMethod(taskConfig));
+        builder.addJavadoc(taskConfig.taskJavadoc());
+
+        return builder.build();
+    }
+
+    private ClassDefBuilder createMojoBuilder(MavenTaskConfig taskConfig, String mojoName) {
         ClassDefBuilder builder = ClassDef.builder(mojoName)
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT);
         if (taskConfig.micronautPlugin()) {
@@ -63,53 +132,260 @@ public class MavenMojoBuilder {
         } else {
             builder.superclass(ClassTypeDef.of("org.apache.maven.plugin.AbstractMojo"));
         }
-
-        for (ParameterConfig parameter : taskConfig.parameters()) {
-            addParameter(taskConfig, parameter, builder);
-        }
-
         builder.addMethod(MethodDef.builder("isEnabled")
             .addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
             .returns(TypeDef.of(boolean.class))
             .addJavadoc("Determines if this mojo must be executed.\n@return true if the mojo is enabled")
             .build()
         );
-        builder.addMethods(taskConfig.generatedModels().stream().map(GeneratedModel::convertorMethod).toList());
-        builder.addMethod(createExecuteMethod(taskConfig));
-        builder.addJavadoc(taskConfig.taskJavadoc());
+        return builder;
+    }
 
+    /**
+     * Method for building the batch Maven mojo, that executes many items with the parameters of the task concurrently.
+     *
+     * @param taskConfig The config
+     * @return The class
+     */
+    public ClassDef buildBatch(MavenTaskConfig taskConfig) {
+        String prefix = taskConfig.namePrefix() + BATCH_SUFFIX;
+        ClassTypeDef itemType = ClassTypeDef.of(taskConfig.packageName() + "." + taskConfig.namePrefix() + BATCH_ITEM_SUFFIX);
+        ClassTypeDef actionType = ClassTypeDef.of(taskConfig.packageName() + "." + taskConfig.namePrefix() + TASK_ACTION_SUFFIX);
+        TypeDef itemsType = TypeDef.parameterized(ClassTypeDef.of(List.class), itemType);
+        TypeDef actionsType = TypeDef.parameterized(List.class, Runnable.class);
+        TypeDef integerType = TypeDef.of(Integer.class);
+
+        ClassDefBuilder builder = createMojoBuilder(taskConfig, taskConfig.packageName() + "." + prefix + MOJO_SUFFIX)
+            .addJavadoc("Executes multiple items of " + taskConfig.namePrefix() + " concurrently.\n" + taskConfig.taskJavadoc());
+        builder.addField(FieldDef.builder(ITEMS_FIELD)
+            .ofType(itemsType)
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(AnnotationDef.builder(PARAMETER_TYPE).addMember("required", true).build())
+            .addJavadoc("The items to execute.")
+            .build()
+        );
+        builder.addField(FieldDef.builder(PARALLELISM_FIELD)
+            .ofType(integerType)
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(AnnotationDef.builder(PARAMETER_TYPE)
+                .addMember("property", taskConfig.mavenPropertyPrefix() + ".batch." + PARALLELISM_FIELD)
+                .build())
+            .addJavadoc("The maximum number of items executed at a time.\n"
+                + "By default, each item is executed in a virtual thread if supported, and in a thread per processor otherwise.")
+            .build()
+        );
+        for (ParameterConfig parameter : taskConfig.parameters()) {
+            if (parameter.internal()) {
+                addParameter(taskConfig, parameter, builder);
+            }
+        }
+        if (taskConfig.isolatedDependency() != null) {
+            addIsolation(taskConfig, builder);
+        }
+
+        builder.addMethod(MethodDef.builder("execute")
+            .overrides()
+            .addModifiers(Modifier.PUBLIC)
+            .addJavadoc(taskConfig.methodJavadoc())
+            .build((t, params) -> {
+                Local actions = new Local("actions", actionsType);
+                Local items = new Local("itemsIterator", TypeDef.parameterized(ClassTypeDef.of(Iterator.class), itemType));
+                Local item = new Local("item", itemType);
+                List<ExpressionDef> values = new ArrayList<>();
+                for (ParameterConfig parameter: taskConfig.parameters()) {
+                    ExpressionDef value = parameter.internal()
+                        ? parameterValue(t, parameter)
+                        : item.invoke("get" + NameUtils.capitalize(parameter.name()), parameter.type());
+                    values.add(parameter.fileCollection() ? fileCollection(parameter, value) : value);
+                }
+                ExpressionDef itemsValue = t.field(ITEMS_FIELD, itemsType);
+                return t.invoke("isEnabled", TypeDef.of(boolean.class)).ifFalse(
+                    t.invoke("getLog", LOG_TYPE)
+                        .invoke("debug", TypeDef.VOID, ExpressionDef.constant(prefix + MOJO_SUFFIX + " is disabled")),
+                    StatementDef.multi(
+                        actions.defineAndAssign(TypeDef.parameterized(ArrayList.class, Runnable.class)
+                            .instantiate(itemsValue.invoke("size", TypeDef.primitive(int.class)))),
+                        items.defineAndAssign(itemsValue.invoke("iterator", items.type())),
+                        new StatementDef.While(
+                            items.invoke("hasNext", TypeDef.of(boolean.class)),
+                            StatementDef.multi(
+                                item.defineAndAssign(items.invoke("next", itemType)),
+                                actions.invoke("add", TypeDef.of(boolean.class), actionType.instantiate(values))
+                            )
+                        ),
+                        TASK_BATCH_TYPE.invokeStatic("run", TypeDef.VOID,
+                            ExpressionDef.constant(prefix + MOJO_SUFFIX),
+                            actions,
+                            t.field(PARALLELISM_FIELD, integerType),
+                            taskConfig.isolatedDependency() == null
+                                ? ExpressionDef.constant(null)
+                                : t.invoke(ISOLATED_CLASSPATH_METHOD, TypeDef.parameterized(List.class, File.class))
+                        )
+                    )
+                );
+            })
+        );
+        return builder.build();
+    }
+
+    /**
+     * Method for building an item of the batch Maven mojo.
+     * It has all the parameters of the task that are not internal.
+     *
+     * @param taskConfig The config
+     * @return The class
+     */
+    public ClassDef buildBatchItem(MavenTaskConfig taskConfig) {
+        ClassDefBuilder builder = ClassDef.builder(taskConfig.packageName() + "." + taskConfig.namePrefix() + BATCH_ITEM_SUFFIX)
+            .addModifiers(Modifier.PUBLIC)
+            .addJavadoc("An item of the " + taskConfig.namePrefix() + BATCH_SUFFIX + MOJO_SUFFIX + ".\n"
+                + "The default values and properties of the parameters do not apply to items.");
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            if (parameter.internal()) {
+                continue;
+            }
+            String name = parameter.name();
+            builder.addField(FieldDef.builder(name)
+                .ofType(parameter.type())
+                .addModifiers(Modifier.PRIVATE)
+                .addJavadoc(parameter.javadoc())
+                .build()
+            );
+            builder.addMethod(MethodDef.builder("get" + NameUtils.capitalize(name))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(parameter.type())
+                .build((t, params) -> t.field(name, parameter.type()).returning())
+            );
+            builder.addMethod(MethodDef.builder("set" + NameUtils.capitalize(name))
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(name, parameter.type())
+                .build((t, params) -> t.field(name, parameter.type()).assign(params.get(0)))
+            );
+        }
         return builder.build();
     }
 
     private void addParameter(MavenTaskConfig taskConfig, ParameterConfig parameter, ClassDefBuilder builder) {
         if (parameter.internal() || parameter.output()) {
             builder.addMethod(MethodDef
-                .builder("get" + NameUtils.capitalize(parameter.source().getName()))
+                .builder("get" + NameUtils.capitalize(parameter.name()))
                 .returns(parameter.type())
                 .addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
                 .addJavadoc(parameter.javadoc())
                 .build()
             );
         } else {
-            AnnotationDefBuilder ann = AnnotationDef.builder(ClassTypeDef.of("org.apache.maven.plugins.annotations.Parameter"));
-            if (parameter.defaultValue() != null) {
-                ann.addMember("defaultValue", parameter.defaultValue());
+            builder.addField(createParameterField(taskConfig, parameter));
+        }
+    }
+
+    private FieldDef createParameterField(MavenTaskConfig taskConfig, ParameterConfig parameter) {
+        AnnotationDefBuilder ann = AnnotationDef.builder(PARAMETER_TYPE);
+        if (parameter.defaultValue() != null) {
+            ann.addMember("defaultValue", parameter.defaultValue());
+        }
+        if (parameter.required()) {
+            ann.addMember("required", true);
+        }
+        if (parameter.globalProperty() != null) {
+            ann.addMember("property",  taskConfig.mavenPropertyPrefix()
+                + "." + MavenPluginUtils.toDotSeparated(parameter.globalProperty()));
+        }
+        return FieldDef.builder(parameter.name())
+            .ofType(parameter.type())
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(ann.build())
+            .addJavadoc(parameter.javadoc())
+            .build();
+    }
+
+    /**
+     * Method for building the concrete Mojo of a goal.
+     * The Mojo is annotated with the descriptor, so the plugin descriptor can be generated from it.
+     *
+     * @param taskConfig The config
+     * @param batch Whether to build the goal of the batch Mojo
+     * @return The class
+     */
+    public ClassDef buildGoal(MavenTaskConfig taskConfig, boolean batch) {
+        String prefix = batch ? taskConfig.namePrefix() + BATCH_SUFFIX : taskConfig.namePrefix();
+        String goal = batch ? taskConfig.goal() + BATCH_SUFFIX : taskConfig.goal();
+        ClassDefBuilder builder = ClassDef.builder(taskConfig.packageName() + "." + DEFAULT_PREFIX + prefix + MOJO_SUFFIX)
+            .addModifiers(Modifier.PUBLIC)
+            .superclass(ClassTypeDef.of(taskConfig.packageName() + "." + prefix + MOJO_SUFFIX))
+            .addAnnotation(createMojoAnnotation(taskConfig, goal, batch))
+            .addJavadoc("The " + goal + " goal.\n" + taskConfig.taskJavadoc());
+
+        TypeDef booleanType = TypeDef.of(boolean.class);
+        builder.addField(FieldDef.builder(ENABLED_FIELD)
+            .ofType(booleanType)
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(AnnotationDef.builder(PARAMETER_TYPE)
+                .addMember("defaultValue", "true")
+                .addMember("property", taskConfig.mavenPropertyPrefix() + "." + ENABLED_FIELD)
+                .build())
+            .addJavadoc("Whether the goal is enabled.")
+            .build()
+        );
+        builder.addMethod(MethodDef.builder("isEnabled")
+            .overrides()
+            .addModifiers(Modifier.PROTECTED)
+            .returns(booleanType)
+            .build((t, params) -> t.field(ENABLED_FIELD, booleanType).returning())
+        );
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            if (batch || !parameter.output()) {
+                continue;
             }
-            if (parameter.required()) {
-                ann.addMember("required", true);
+            builder.addField(createParameterField(taskConfig, parameter));
+            builder.addMethod(MethodDef.builder("get" + NameUtils.capitalize(parameter.name()))
+                .overrides()
+                .addModifiers(Modifier.PROTECTED)
+                .returns(parameter.type())
+                .build((t, params) -> t.field(parameter.name(), parameter.type()).returning())
+            );
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create the Mojo descriptor with the narrowest requirements, so Maven does not resolve
+     * dependencies or serialize parallel builds unnecessarily.
+     */
+    private AnnotationDef createMojoAnnotation(MavenTaskConfig taskConfig, String goal, boolean batch) {
+        AnnotationDefBuilder ann = AnnotationDef.builder(MOJO_TYPE)
+            .addMember("name", goal)
+            .addMember("threadSafe", taskConfig.threadSafe())
+            .addMember("requiresDependencyResolution",
+                RESOLUTION_SCOPE_TYPE.getStaticField(resolutionScope(taskConfig), RESOLUTION_SCOPE_TYPE));
+        if (!requiresProject(taskConfig, batch)) {
+            ann.addMember("requiresProject", false);
+        }
+        if (taskConfig.defaultPhase() != null) {
+            String phase = taskConfig.defaultPhase().toUpperCase(Locale.ENGLISH).replace('-', '_');
+            ann.addMember("defaultPhase", LIFECYCLE_PHASE_TYPE.getStaticField(phase, LIFECYCLE_PHASE_TYPE));
+        }
+        return ann.build();
+    }
+
+    private static String resolutionScope(MavenTaskConfig taskConfig) {
+        int scope = 0;
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            if (parameter.defaultValue() == null) {
+                continue;
             }
-            if (parameter.globalProperty() != null) {
-                ann.addMember("property",  taskConfig.mavenPropertyPrefix()
-                    + "." + MavenPluginUtils.toDotSeparated(parameter.globalProperty()));
+            for (Map.Entry<String, String> entry: RESOLUTION_SCOPES.entrySet()) {
+                if (parameter.defaultValue().contains(entry.getKey())) {
+                    scope = Math.max(scope, ORDERED_RESOLUTION_SCOPES.indexOf(entry.getValue()));
+                }
             }
-            FieldDef field = FieldDef.builder(parameter.source().getName())
-                .ofType(parameter.type())
-                .addModifiers(Modifier.PROTECTED)
-                .addAnnotation(ann.build())
-                .addJavadoc(parameter.javadoc())
-                .build();
-            builder.addField(field);
         }
+        return ORDERED_RESOLUTION_SCOPES.get(scope);
+    }
+
+    private static boolean requiresProject(MavenTaskConfig taskConfig, boolean batch) {
+        return (!batch && tracksState(taskConfig)) || taskConfig.parameters().stream()
+            .anyMatch(p -> p.defaultValue() != null && p.defaultValue().contains("${project"));
     }
 
     private MethodDef createExecuteMethod(MavenTaskConfig taskConfig) {
@@ -119,31 +395,242 @@ public class MavenMojoBuilder {
             .addJavadoc(taskConfig.methodJavadoc())
             .build((t, params) -> t.invoke("isEnabled", TypeDef.of(boolean.class))
                 .ifFalse(
-                    t.invoke("getLog", ClassTypeDef.of("org.apache.maven.plugin.logging.Log"))
+                    t.invoke("getLog", LOG_TYPE)
                         .invoke("debug", TypeDef.VOID, ExpressionDef.constant(taskConfig.namePrefix() + MOJO_SUFFIX + " is disabled")),
-                    runTask(taskConfig, t)
+                    skipWhenEmpty(taskConfig, t, skipWhenUpToDate(taskConfig, t, runTask(taskConfig, t)))
                 ));
     }
 
+    /**
+     * Whether the execution state is tracked.
+     * Only tasks that declare outputs are skipped, as other tasks may have side effects that cannot be checked.
+     */
+    private static boolean tracksState(MavenTaskConfig taskConfig) {
+        return taskConfig.parameters().stream().anyMatch(ParameterConfig::output);
+    }
+
+    private void addStateParameters(ClassDefBuilder builder) {
+        builder.addField(FieldDef.builder(STATE_DIRECTORY_FIELD)
+            .ofType(TypeDef.of(File.class))
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(AnnotationDef.builder(PARAMETER_TYPE)
+                .addMember("defaultValue", "${project.build.directory}/plugin-state")
+                .addMember("readonly", true)
+                .build())
+            .addJavadoc("The directory the execution state is recorded in, to skip executions when nothing changed.")
+            .build()
+        );
+        builder.addField(FieldDef.builder(EXECUTION_ID_FIELD)
+            .ofType(TypeDef.STRING)
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(AnnotationDef.builder(PARAMETER_TYPE)
+                .addMember("defaultValue", "${mojoExecution.executionId}")
+                .addMember("readonly", true)
+                .build())
+            .addJavadoc("The id of the execution the state is recorded for.")
+            .build()
+        );
+    }
+
+    /**
+     * Add the members to run the task in an isolated class loader.
+     * The task parameters are passed in a serializable action, which converts them in the isolated class loader.
+     *
+     * @see #buildTaskAction(MavenTaskConfig)
+     */
+    private void addIsolation(MavenTaskConfig taskConfig, ClassDefBuilder builder) {
+        TypeDef fileListType = TypeDef.parameterized(List.class, File.class);
+        builder.addField(FieldDef.builder(PLUGIN_ARTIFACTS_FIELD)
+            .ofType(TypeDef.parameterized(ClassTypeDef.of(List.class), ARTIFACT_TYPE))
+            .addModifiers(Modifier.PROTECTED)
+            .addAnnotation(AnnotationDef.builder(PARAMETER_TYPE)
+                .addMember("defaultValue", "${plugin.artifacts}")
+                .addMember("readonly", true)
+                .build())
+            .addJavadoc("The plugin artifacts, to build the isolated classpath from.")
+            .build()
+        );
+        builder.addMethod(MethodDef.builder(ISOLATED_CLASSPATH_METHOD)
+            .addModifiers(Modifier.PROTECTED)
+            .returns(fileListType)
+            .addJavadoc("Get the isolated classpath of the task.\n"
+                + "@return The plugin artifacts required by " + taskConfig.isolatedDependency())
+            .build((t, params) -> {
+                TypeDef booleanType = TypeDef.of(boolean.class);
+                Local classpath = new Local("classpath", fileListType);
+                Local artifacts = new Local("artifacts", TypeDef.parameterized(ClassTypeDef.of(Iterator.class), ARTIFACT_TYPE));
+                Local artifact = new Local("artifact", ARTIFACT_TYPE);
+                return StatementDef.multi(
+                    classpath.defineAndAssign(TypeDef.parameterized(ArrayList.class, File.class).instantiate()),
+                    artifacts.defineAndAssign(t.field(PLUGIN_ARTIFACTS_FIELD, TypeDef.parameterized(ClassTypeDef.of(List.class), ARTIFACT_TYPE))
+                        .invoke("iterator", artifacts.type())),
+                    new StatementDef.While(
+                        artifacts.invoke("hasNext", booleanType),
+                        StatementDef.multi(
+                            artifact.defineAndAssign(artifacts.invoke("next", ARTIFACT_TYPE)),
+                            new StatementDef.If(
+                                TASK_ISOLATION_TYPE.invokeStatic("isRequired", booleanType,
+                                    artifact.invoke("getDependencyTrail", TypeDef.parameterized(List.class, String.class)),
+                                    ExpressionDef.constant(taskConfig.isolatedDependency())),
+                                classpath.invoke("add", booleanType, artifact.invoke("getFile", TypeDef.of(File.class)))
+                            )
+                        )
+                    ),
+                    classpath.returning()
+                );
+            })
+        );
+    }
+
+    /**
+     * Method for building the action that executes the task with the parameter values of a Mojo.
+     * It is used for executing the task in an isolated class loader or as a batch item.
+     *
+     * @param taskConfig The config
+     * @return The class
+     */
+    public ClassDef buildTaskAction(MavenTaskConfig taskConfig) {
+        ClassDefBuilder builder = ClassDef.builder(taskConfig.packageName() + "." + taskConfig.namePrefix() + TASK_ACTION_SUFFIX)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addSuperinterface(ClassTypeDef.of(Runnable.class))
+            .addSuperinterface(ClassTypeDef.of(Serializable.class))
+            .addJavadoc("The action executing " + taskConfig.namePrefix() + " task with the parameter values of a Mojo.");
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            builder.addField(FieldDef.builder(parameter.name())
+                .ofType(parameter.type())
+                .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+                .build()
+            );
+        }
+        builder.addAllFieldsConstructor(Modifier.PUBLIC);
+        builder.addMethod(MethodDef.builder("run")
+            .overrides()
+            .addModifiers(Modifier.PUBLIC)
+            .build((t, params) -> {
+                Map<String, ExpressionDef> values = new HashMap<>();
+                List<StatementDef> statements = new ArrayList<>();
+                for (ParameterConfig parameter: taskConfig.parameters()) {
+                    values.put(
+                        parameter.name(),
+                        ModelUtils.convertParameterIfRequired(
+                            taskConfig.modelConverters(), parameter, statements, t.field(parameter.name(), parameter.type())
+                        )
+                    );
+                }
+                statements.add(PluginUtils.executeTaskMethod(taskConfig.task(), values));
+                return StatementDef.multi(statements);
+            })
+        );
+        return builder.build();
+    }
+
+    /**
+     * Skip the execution if the inputs and outputs did not change since the previous execution.
+     * Maven has no up-to-date checking, so the state is recorded by the Mojo itself.
+     */
+    private StatementDef skipWhenUpToDate(MavenTaskConfig taskConfig, VariableDef.This t, StatementDef run) {
+        if (!tracksState(taskConfig)) {
+            return run;
+        }
+        String mojoName = taskConfig.namePrefix() + MOJO_SUFFIX;
+        ExpressionDef stateFile = ClassTypeDef.of(File.class).instantiate(
+            t.field(STATE_DIRECTORY_FIELD, TypeDef.of(File.class)),
+            ExpressionDef.constant(mojoName + "-").invoke("concat", TypeDef.STRING,
+                t.field(EXECUTION_ID_FIELD, TypeDef.STRING).invoke("concat", TypeDef.STRING, ExpressionDef.constant(".properties")))
+        );
+        ExpressionDef state = TASK_STATE_TYPE.instantiate(stateFile)
+            .invoke("implementation", TASK_STATE_TYPE,
+                ClassTypeDef.of(taskConfig.task().source()).getStaticField("class", TypeDef.CLASS));
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            state = state.invoke(parameter.output() ? "output" : "input", TASK_STATE_TYPE,
+                ExpressionDef.constant(parameter.name()), parameterValue(t, parameter));
+        }
+        Local stateLocal = new Local("state", TASK_STATE_TYPE);
+        Local reason = new Local("reason", TypeDef.STRING);
+        ExpressionDef log = t.invoke("getLog", LOG_TYPE);
+        return StatementDef.multi(
+            new StatementDef.DefineAndAssign(stateLocal, state),
+            new StatementDef.DefineAndAssign(reason, stateLocal.invoke("getOutOfDateReason", TypeDef.STRING)),
+            reason.compare(OpType.NOT_EQUAL_TO, ExpressionDef.constant(null)).ifFalse(
+                log.invoke("info", TypeDef.VOID, ExpressionDef.constant(mojoName + " is skipped, because its inputs and outputs did not change")),
+                StatementDef.multi(
+                    log.invoke("info", TypeDef.VOID, ExpressionDef.constant(mojoName + " is executed, because ")
+                        .invoke("concat", TypeDef.STRING, reason)),
+                    run,
+                    stateLocal.invoke("save", TypeDef.VOID)
+                )
+            )
+        );
+    }
+
+    /**
+     * Skip the execution if all the file collections that are configured to skip the task are empty.
+     */
+    private StatementDef skipWhenEmpty(MavenTaskConfig taskConfig, VariableDef.This t, StatementDef run) {
+        TypeDef intType = TypeDef.primitive(int.class);
+        ExpressionDef count = null;
+        List<String> names = new ArrayList<>();
+        for (ParameterConfig parameter: taskConfig.parameters()) {
+            if (!parameter.skipWhenEmpty()) {
+                continue;
+            }
+            ExpressionDef size = fileCollection(parameter, parameterValue(t, parameter)).invoke("size", intType);
+            count = count == null ? size : count.math(MathBinaryOperation.OpType.ADDITION, size);
+            names.add(parameter.name());
+        }
+        if (count == null) {
+            return run;
+        }
+        return count.compare(OpType.GREATER_THAN, ExpressionDef.constant(0)).ifFalse(
+            t.invoke("getLog", LOG_TYPE)
+                .invoke("info", TypeDef.VOID, ExpressionDef.constant(taskConfig.namePrefix() + MOJO_SUFFIX
+                    + " is skipped, because there are no files in " + String.join(", ", names))),
+            run
+        );
+    }
+
+    private ExpressionDef parameterValue(VariableDef.This t, ParameterConfig parameter) {
+        if (parameter.internal() || parameter.output()) {
+            String getter = "get" + NameUtils.capitalize(parameter.name());
+            return t.invoke(getter, parameter.type());
+        }
+        return t.field(parameter.name(), parameter.type());
+    }
+
+    /**
+     * Get the files of a file collection, which are empty if the parameter is not set, like in Gradle.
+     */
+    private ExpressionDef fileCollection(ParameterConfig parameter, ExpressionDef value) {
+        ClassTypeDef collectionType = parameter.kind() == ParameterKind.FILE_SET
+            ? ClassTypeDef.of(Set.class) : ClassTypeDef.of(List.class);
+        return ClassTypeDef.of(Objects.class).invokeStatic("requireNonNullElse", parameter.type(),
+            value, collectionType.invokeStatic("of", parameter.type()));
+    }
+
     private StatementDef runTask(MavenTaskConfig taskConfig, VariableDef.This t) {
+        if (taskConfig.isolatedDependency() != null) {
+            List<ExpressionDef> values = new ArrayList<>();
+            for (ParameterConfig parameter: taskConfig.parameters()) {
+                ExpressionDef expression = parameterValue(t, parameter);
+                values.add(parameter.fileCollection() ? fileCollection(parameter, expression) : expression);
+            }
+            return TASK_ISOLATION_TYPE.invokeStatic("run", TypeDef.VOID,
+                ClassTypeDef.of(taskConfig.packageName() + "." + taskConfig.namePrefix() + TASK_ACTION_SUFFIX).instantiate(values),
+                t.invoke(ISOLATED_CLASSPATH_METHOD, TypeDef.parameterized(List.class, File.class)));
+        }
         Map<String, ExpressionDef> params = new HashMap<>();
         List<StatementDef> statements = new ArrayList<>();
         for (ParameterConfig parameter: taskConfig.parameters()) {
-            ExpressionDef expression;
-            if (parameter.internal() || parameter.output()) {
-                String getter = "get" + NameUtils.capitalize(parameter.source().getName());
-                expression = t.invoke(getter, parameter.type());
-            } else {
-                expression = t.field(parameter.source().getName(), parameter.type());
+            ExpressionDef expression = parameterValue(t, parameter);
+            if (parameter.fileCollection()) {
+                expression = fileCollection(parameter, expression);
             }
             params.put(
-                parameter.source().getName(),
-                ModelUtils.convertParameterIfRequired(
-                    parameter.source().getType(), parameter.source().getName() + "Param", statements, expression
-                )
+                parameter.name(),
+                ModelUtils.convertParameterIfRequired(taskConfig.modelConverters(), parameter, statements, expression)
             );
         }
-        statements.add(PluginUtils.executeTaskMethod(taskConfig.source(), taskConfig.methodName(), params));
+        statements.add(PluginUtils.executeTaskMethod(taskConfig.task(), params));
         return StatementDef.multi(statements);
     }
 
@@ -18,16 +18,24 @@ package io.micronaut.sourcegen.generator.visitors.maven;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.Element;
 import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.TypeElementVisitor;
 import io.micronaut.inject.visitor.VisitorContext;
 import io.micronaut.sourcegen.annotations.GenerateMavenMojo;
 import io.micronaut.sourcegen.generator.SourceGenerator;
 import io.micronaut.sourcegen.generator.SourceGenerators;
-import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
+import io.micronaut.sourcegen.generator.visitors.JavadocUtils;
+import io.micronaut.sourcegen.generator.visitors.ModelRegistry;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils;
+import io.micronaut.sourcegen.generator.visitors.PluginUtils.OriginatingDefinition;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats.Measurement;
+import io.micronaut.sourcegen.generator.visitors.ProcessingStats.TriggerStats;
 import io.micronaut.sourcegen.generator.visitors.maven.MavenPluginUtils.MavenTaskConfig;
-import io.micronaut.sourcegen.model.ObjectDef;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -43,11 +51,10 @@ import java.util.Set;
 public final class MavenMojoGenerationTriggerAnnotationVisitor implements TypeElementVisitor<Object, Object> {
 
     private final Set<String> processed = new HashSet<>();
-    private final Set<String> generated = new HashSet<>();
 
     @Override
     public @NonNull VisitorKind getVisitorKind() {
-        return VisitorKind.ISOLATING;
+        return VisitorKind.AGGREGATING;
     }
 
     @Override
@@ -63,26 +70,40 @@ public final class MavenMojoGenerationTriggerAnnotationVisitor implements TypeEl
         );
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(ProcessingStats.OPTION);
+    }
+
+    @Override
+    public void finish(VisitorContext visitorContext) {
+        ProcessingStats.get(visitorContext).write(visitorContext);
+    }
+
     @Override
     public void visitClass(ClassElement element, VisitorContext context) {
         if (!element.hasAnnotation(GenerateMavenMojo.List.class) || processed.contains(element.getName())) {
             return;
         }
-        context.info("Creating plugin classes");
-
+        JavadocUtils.addSourceType(context, element);
+        context.info("Creating plugin classes for " + element.getName());
+        ProcessingStats stats = ProcessingStats.get(context);
+        TriggerStats triggerStats = stats.startTrigger(element, "maven");
         try {
-            List<ObjectDef> definitions = createDefinitions(context, element);
+            List<OriginatingDefinition> definitions = createDefinitions(context, element, triggerStats);
             SourceGenerator sourceGenerator = SourceGenerators.findByLanguage(context.getLanguage()).orElse(null);
             if (sourceGenerator == null) {
                 throw new ProcessingException(element, "Could not find SourceGenerator for language " + context.getLanguage());
             }
             processed.add(element.getName());
-            for (ObjectDef definition : definitions) {
-                if (generated.contains(definition.getName())) {
+            for (OriginatingDefinition definition : definitions) {
+                if (!PluginUtils.markGenerated(context, definition.definition().getName())) {
                     continue;
                 }
-                generated.add(definition.getName());
-                sourceGenerator.write(definition, context, element);
+                try (Measurement ignored = triggerStats.measure(ProcessingStats.SOURCE_WRITING)) {
+                    sourceGenerator.write(definition.definition(), context, definition.originatingElements());
+                }
+                triggerStats.countGenerated(sourceGenerator, definition.definition());
             }
         } catch (ProcessingException e) {
             throw e;
@@ -93,17 +114,75 @@ public final class MavenMojoGenerationTriggerAnnotationVisitor implements TypeEl
                     throw exception;
                 })
             );
+        } finally {
+            stats.endTrigger();
         }
     }
 
-    private List<ObjectDef> createDefinitions(VisitorContext context, ClassElement element) {
-        List<ObjectDef> definitions = new ArrayList<>();
-        List<MavenTaskConfig> taskConfigs = MavenPluginUtils.getTaskConfigs(element, context);
+    private List<OriginatingDefinition> createDefinitions(VisitorContext context, ClassElement element, TriggerStats triggerStats) {
+        List<OriginatingDefinition> definitions = new ArrayList<>();
+        ModelRegistry modelRegistry = ModelRegistry.of(element, "Maven", MavenPluginUtils.copyModels(element));
+        List<MavenTaskConfig> taskConfigs = triggerStats.measure(
+            ProcessingStats.CONFIG_EXTRACTION, () -> MavenPluginUtils.getTaskConfigs(element, context, modelRegistry)
+        );
+        triggerStats.count(ProcessingStats.MODELS_COUNT, modelRegistry.models().size());
+        triggerStats.count(ProcessingStats.CONVERTER_METHODS_COUNT, modelRegistry.converterMethodsCount());
+        definitions.addAll(PluginUtils.getModelDefinitions(element, modelRegistry));
         for (MavenTaskConfig taskConfig : taskConfigs) {
-            definitions.addAll(taskConfig.generatedModels().stream().map(GeneratedModel::model).toList());
-            definitions.add(new MavenMojoBuilder().build(taskConfig));
+            Element[] originatingElements =
+                PluginUtils.getOriginatingElements(element, List.of(taskConfig.source()), taskConfig.generatedModels());
+            MavenMojoBuilder builder = new MavenMojoBuilder();
+            definitions.add(new OriginatingDefinition(
+                triggerStats.measure(ProcessingStats.BUILDER_PREFIX + "MAVEN_MOJO", () -> builder.build(taskConfig)),
+                originatingElements
+            ));
+            if (taskConfig.goal() != null) {
+                definitions.add(new OriginatingDefinition(
+                    triggerStats.measure(ProcessingStats.BUILDER_PREFIX + "MAVEN_GOAL", () -> builder.buildGoal(taskConfig, false)),
+                    originatingElements
+                ));
+            }
+            if (taskConfig.isolatedDependency() != null || taskConfig.batch()) {
+                definitions.add(new OriginatingDefinition(
+                    triggerStats.measure(ProcessingStats.BUILDER_PREFIX + "MAVEN_TASK_ACTION", () -> builder.buildTaskAction(taskConfig)),
+                    originatingElements
+                ));
+            }
+            if (taskConfig.batch()) {
+                definitions.add(new OriginatingDefinition(
+                    triggerStats.measure(ProcessingStats.BUILDER_PREFIX + "MAVEN_BATCH_ITEM", () -> builder.buildBatchItem(taskConfig)),
+                    originatingElements
+                ));
+                definitions.add(new OriginatingDefinition(
+                    triggerStats.measure(ProcessingStats.BUILDER_PREFIX + "MAVEN_BATCH_MOJO", () -> builder.buildBatch(taskConfig)),
+                    originatingElements
+                ));
+                if (taskConfig.goal() != null) {
+                    definitions.add(new OriginatingDefinition(
+                        triggerStats.measure(ProcessingStats.BUILDER_PREFIX + "MAVEN_GOAL", () -> builder.buildGoal(taskConfig, true)),
+                        originatingElements
+                    ));
+                }
+            }
         }
+        writeBuildCacheConfig(context, element, taskConfigs);
         return definitions;
     }
 
+    private void writeBuildCacheConfig(VisitorContext context, ClassElement element, List<MavenTaskConfig> taskConfigs) {
+        String config = new MavenBuildCacheConfigBuilder().build(element.getName(), taskConfigs);
+        if (config == null) {
+            return;
+        }
+        String path = MavenBuildCacheConfigBuilder.configPath(element.getName());
+        context.visitMetaInfFile(path, element)
+            .ifPresent(generatedFile -> {
+                try (OutputStream outputStream = generatedFile.openOutputStream()) {
+                    outputStream.write(config.getBytes(StandardCharsets.UTF_8));
+                } catch (Exception e) {
+                    throw new ProcessingException(element, "Failed to generate '" + path + "': " + e.getMessage(), e);
+                }
+            });
+    }
+
 }
@@ -24,16 +24,21 @@ import io.micronaut.inject.ast.PropertyElement;
 import io.micronaut.inject.processing.ProcessingException;
 import io.micronaut.inject.visitor.VisitorContext;
 import io.micronaut.sourcegen.annotations.GenerateMavenMojo;
-import io.micronaut.sourcegen.generator.visitors.JavadocUtils;
+import io.micronaut.sourcegen.annotations.PluginTask;
+import io.micronaut.sourcegen.generator.visitors.AnalysedType;
 import io.micronaut.sourcegen.generator.visitors.JavadocUtils.TypeJavadoc;
+import io.micronaut.sourcegen.generator.visitors.ModelRegistry;
 import io.micronaut.sourcegen.generator.visitors.ModelUtils;
 import io.micronaut.sourcegen.generator.visitors.ModelUtils.GeneratedModel;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils;
 import io.micronaut.sourcegen.generator.visitors.PluginUtils.ParameterConfig;
+import io.micronaut.sourcegen.model.ClassTypeDef;
 import io.micronaut.sourcegen.model.TypeDef;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Utils class for Maven plugin generation.
@@ -41,20 +46,54 @@ import java.util.List;
 @Internal
 public final class MavenPluginUtils {
 
+    /**
+     * The ids of the phases of the default, clean and site lifecycles,
+     * matching the constants of {@code org.apache.maven.plugins.annotations.LifecyclePhase}.
+     */
+    private static final List<String> LIFECYCLE_PHASES = List.of(
+        "validate", "initialize", "generate-sources", "process-sources", "generate-resources",
+        "process-resources", "compile", "process-classes", "generate-test-sources", "process-test-sources",
+        "generate-test-resources", "process-test-resources", "test-compile", "process-test-classes", "test",
+        "prepare-package", "package", "pre-integration-test", "integration-test", "post-integration-test",
+        "verify", "install", "deploy",
+        "pre-clean", "clean", "post-clean",
+        "pre-site", "site", "post-site", "site-deploy"
+    );
+
     /**
      * Get task configurations configured for a given element
      * with {@link GenerateMavenMojo} annotations.
      *
      * @param element The element
      * @param context The visitor context
+     * @param modelRegistry The registry of models shared by all Mojos of the element
      * @return The maven task config
      */
     public static @NonNull List<MavenTaskConfig> getTaskConfigs(
-        @NonNull ClassElement element, @NonNull VisitorContext context
+        @NonNull ClassElement element, @NonNull VisitorContext context, @NonNull ModelRegistry modelRegistry
     ) {
         List<AnnotationValue<GenerateMavenMojo>> annotations =
             element.getAnnotationValuesByType(GenerateMavenMojo.class);
-        return annotations.stream().map(a -> getTaskConfig(element, a, context)).toList();
+        return annotations.stream().map(a -> getTaskConfig(element, a, context, modelRegistry)).toList();
+    }
+
+    /**
+     * Whether the Mojos generated from the element copy models or use the original types.
+     * The Mojos of an element share the models, so all the annotations must agree.
+     *
+     * @param element The element
+     * @return Whether to copy models
+     */
+    public static boolean copyModels(@NonNull ClassElement element) {
+        Set<Boolean> values = new HashSet<>();
+        for (AnnotationValue<GenerateMavenMojo> annotation: element.getAnnotationValuesByType(GenerateMavenMojo.class)) {
+            values.add(annotation.booleanValue("copyModels").orElse(true));
+        }
+        if (values.size() > 1) {
+            throw new ProcessingException(element, "All the Mojos generated from " + element.getName()
+                + " share the models, so they must have the same copyModels value");
+        }
+        return !values.contains(false);
     }
 
     /**
@@ -82,32 +121,58 @@ public final class MavenPluginUtils {
     }
 
     private static @NonNull MavenTaskConfig getTaskConfig(
-            @NonNull ClassElement element, @NonNull AnnotationValue<GenerateMavenMojo> annotation, @NonNull VisitorContext context
+            @NonNull ClassElement element, @NonNull AnnotationValue<GenerateMavenMojo> annotation,
+            @NonNull VisitorContext context, @NonNull ModelRegistry modelRegistry
     ) {
-        ClassElement source = annotation.stringValue("source")
-            .flatMap(context::getClassElement).orElse(null);
-        if (source == null) {
-            throw new ProcessingException(element, "Could not load source type defined in @GenerateMavenMojo: "
-                + annotation.stringValue("source"));
-        }
+        ClassElement source = PluginUtils.getTaskSource(element, annotation, context);
 
-        List<GeneratedModel> generatedModels = new ArrayList<>();
-        TypeJavadoc javadoc = JavadocUtils.getTaskJavadoc(context, source);
+        Set<String> usedModels = new HashSet<>();
+        AnalysedType task = AnalysedType.of(context, source);
+        TypeJavadoc javadoc = task.javadoc();
         List<ParameterConfig> parameters = new ArrayList<>();
-        for (PropertyElement property: source.getBeanProperties()) {
-            TypeDef type = ModelUtils.getType(context, element.getPackageName() + ".model",
-                property.getType(), generatedModels);
+        for (PropertyElement property: task.properties()) {
+            TypeDef type = ModelUtils.getType(context, modelRegistry, property, usedModels);
             parameters.add(PluginUtils.getParameterConfig(javadoc, property, type));
         }
 
         String namePrefix = annotation.stringValue("namePrefix").orElse(element.getSimpleName());
-        String methodName = PluginUtils.getTaskExecutable(source).getName();
+        String methodName = task.requiredExecutableName();
         String methodJavadoc = javadoc.elements().get(methodName + "()");
         if (methodJavadoc == null) {
             methodJavadoc = "Main execution of " + namePrefix + " Mojo.";
         }
+        String goal = annotation.stringValue("goal").filter(v -> !v.isEmpty()).orElse(null);
+        String defaultPhase = annotation.stringValue("defaultPhase").filter(v -> !v.isEmpty()).orElse(null);
+        if (goal != null) {
+            for (ParameterConfig parameter: parameters) {
+                if (parameter.internal()) {
+                    throw new ProcessingException(element, "Cannot generate goal " + goal + " for task "
+                        + source.getName() + ", because the internal parameter " + parameter.name()
+                        + " can only be provided by a hand-written Mojo");
+                }
+            }
+        }
+        String isolatedDependency = annotation.stringValue("isolatedDependency").filter(v -> !v.isEmpty()).orElse(null);
+        if (isolatedDependency != null && isolatedDependency.split(":").length != 2) {
+            throw new ProcessingException(element, "The isolated dependency " + isolatedDependency
+                + " must be in the groupId:artifactId format");
+        }
+        if (isolatedDependency != null && !modelRegistry.copyModels()) {
+            throw new ProcessingException(element, "Models can only be used without copying by Mojos that are not isolated, "
+                + "but task " + source.getName() + " is executed with the isolated dependency " + isolatedDependency);
+        }
+        boolean threadSafe = source.booleanValue(PluginTask.class, "threadSafe").orElse(false);
+        boolean batch = annotation.booleanValue("batch").orElse(false);
+        if (batch && !threadSafe) {
+            throw new ProcessingException(element, "A batch Mojo executes the items of task " + source.getName()
+                + " concurrently, so the task must be declared thread-safe with @PluginTask(threadSafe = true)");
+        }
+        if (defaultPhase != null && !LIFECYCLE_PHASES.contains(defaultPhase)) {
+            throw new ProcessingException(element, "The default phase " + defaultPhase + " of task " + source.getName()
+                + " is not a Maven lifecycle phase, expected one of: " + String.join(", ", LIFECYCLE_PHASES));
+        }
         return new MavenTaskConfig(
-            source,
+            task,
             parameters,
             methodName,
             element.getPackageName(),
@@ -116,14 +181,21 @@ public final class MavenPluginUtils {
             annotation.stringValue("mavenPropertyPrefix").orElse(toDotSeparated(namePrefix)),
             javadoc.javadoc().orElse(namePrefix + " Maven Mojo."),
             methodJavadoc,
-            generatedModels
+            modelRegistry.resolve(usedModels),
+            modelRegistry.taskConvertersType(),
+            goal,
+            defaultPhase,
+            isolatedDependency,
+            annotation.stringValue("pluginArtifactId").filter(v -> !v.isEmpty()).orElse(null),
+            batch,
+            threadSafe
         );
     }
 
     /**
      * Configuration for a gradle task type.
      *
-     * @param source The configuration source
+     * @param task The analysed task source
      * @param parameters The parameters
      * @param methodName The run method name
      * @param packageName The package name
@@ -132,10 +204,18 @@ public final class MavenPluginUtils {
      * @param mavenPropertyPrefix The prefix for maven properties
      * @param taskJavadoc The javadoc for the whole task
      * @param methodJavadoc The javadoc for the executable method
-     * @param generatedModels Additional generated models
+     * @param generatedModels The generated models used by the task
+     * @param modelConverters The type of the class with converters of the generated models,
+     *                        or null if models are not copied
+     * @param goal The goal to generate a concrete Mojo for, or null
+     * @param defaultPhase The lifecycle phase the goal is bound to by default, or null
+     * @param isolatedDependency The dependency to run the task in an isolated class loader from, or null
+     * @param pluginArtifactId The artifact id of the Maven plugin, or null
+     * @param batch Whether to generate a batch Mojo
+     * @param threadSafe Whether the task can be executed concurrently
      */
     public record MavenTaskConfig(
-        ClassElement source,
+        @NonNull AnalysedType task,
         List<ParameterConfig> parameters,
         @NonNull String methodName,
         @NonNull String packageName,
@@ -144,8 +224,22 @@ public final class MavenPluginUtils {
         @Nullable String mavenPropertyPrefix,
         @NonNull String taskJavadoc,
         @NonNull String methodJavadoc,
-        @NonNull List<GeneratedModel> generatedModels
+        @NonNull List<GeneratedModel> generatedModels,
+        @Nullable ClassTypeDef modelConverters,
+        @Nullable String goal,
+        @Nullable String defaultPhase,
+        @Nullable String isolatedDependency,
+        @Nullable String pluginArtifactId,
+        boolean batch,
+        boolean threadSafe
     ) {
+
+        /**
+         * @return The source element annotated with {@link io.micronaut.sourcegen.annotations.PluginTask}
+         */
+        public @NonNull ClassElement source() {
+            return task.source();
+        }
     }
 
 }
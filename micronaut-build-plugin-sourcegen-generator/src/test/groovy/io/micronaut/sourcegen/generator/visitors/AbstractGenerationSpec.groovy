@@ -24,6 +24,8 @@ abstract class AbstractGenerationSpec extends AbstractTypeElementSpec {
                         name = name.substring(0, name.length() - ".java".length())
                     }
                     result.put(name, file)
+                } else if (name.startsWith("mem:///CLASS_OUTPUT/META-INF/")) {
+                    result.put(name.substring("mem:///CLASS_OUTPUT/".length()), file)
                 }
             }
             return result;
@@ -1,5 +1,8 @@
 package io.micronaut.sourcegen.generator.visitors
 
+import io.micronaut.sourcegen.generator.visitors.gradle.GradlePluginGenerationTriggerAnnotationVisitor
+import spock.util.environment.RestoreSystemProperties
+
 class GradlePluginGenerationSpec extends AbstractGenerationSpec {
 
     void "test simple gradle plugin generation"() {
@@ -108,7 +111,7 @@ public abstract class WolfTask extends DefaultTask {
  * Specification that is used for configuring Wolf task.
  * Wolf Gradle task.
  */
-public interface WolfSpec {
+public interface WolfSpec extends Named {
   /**
    * @return Configurable slogan parameter.
    */
@@ -125,6 +128,13 @@ public interface WolfSpec {
  * Configures the Wolf execution.
  */
 public interface WolfExtension {
+  /**
+   * The specifications of awooo tasks.
+   * Specifications are configured lazily, when the corresponding task is realized.
+   * @return The container of the specifications
+   */
+  NamedDomainObjectContainer<WolfSpec> getWolfSpecs();
+
   /**
    * Create a task for awooo.
    * Main execution of Wolf task.
@@ -139,54 +149,74 @@ public interface WolfExtension {
  * Default implementation of the {@link test.WolfExtension}.
  */
 public abstract class DefaultWolfExtension implements WolfExtension {
-  protected final Set<String> names = new java.util.HashSet();
-
-  protected final Project project;
+  protected final TaskContainer tasks;
 
-  protected final Configuration classpath;
+  protected final FileCollection classpath;
 
   @Inject
-  public DefaultWolfExtension(Project project, Configuration classpath) {
-    this.project = project;
+  public DefaultWolfExtension(TaskContainer tasks, FileCollection classpath) {
+    this.tasks = tasks;
     this.classpath = classpath;
   }
 
+  @Inject
+  protected abstract ObjectFactory getObjects();
+
   public void awooo(String name, Action<? super WolfSpec> action) {
-    if (!this.names.add(name)) {
+    if (this.getWolfSpecs().getNames().contains(name)) {
       throw new org.gradle.api.GradleException(String.format("An awooo definition with name '%s' was already created", name));
     }
-    WolfSpec spec = this.project.getObjects().newInstance(WolfSpec.class);
-    this.configureSpec(spec);
-    action.execute(spec);
+    NamedDomainObjectProvider<WolfSpec> spec = this.getWolfSpecs().register(name, new WolfSpecConfigurator(this, action));
     TaskProvider<? extends WolfTask> task = this.createWolfTask(name, new WolfTaskConfigurator(spec, this.classpath));
   }
 
   TaskProvider<? extends WolfTask> createWolfTask(String name, Action<WolfTask> configurator) {
-    return this.project.getTasks().register(name, WolfTask.class, configurator);
+    return this.tasks.register(name, WolfTask.class, configurator);
   }
 
   protected void configureSpec(WolfSpec spec) {
     spec.getAge().convention(1);
   }
 
+  protected static class WolfSpecConfigurator implements Action<WolfSpec> {
+    DefaultWolfExtension extension;
+
+    Action<? super WolfSpec> action;
+
+    WolfSpecConfigurator(DefaultWolfExtension extension, Action<? super WolfSpec> action) {
+      this.extension = extension;
+      this.action = action;
+    }
+
+    /**
+     * The configurator for Wolf specification.
+     */
+    public void execute(WolfSpec spec) {
+      this.extension.configureSpec(spec);
+      this.action.execute(spec);
+    }
+  }
+
   protected static class WolfTaskConfigurator implements Action<WolfTask> {
-    WolfSpec spec;
+    NamedDomainObjectProvider<WolfSpec> spec;
 
-    Configuration classpath;
+    FileCollection classpath;
 
-    WolfTaskConfigurator(WolfSpec spec, Configuration classpath) {
+    WolfTaskConfigurator(NamedDomainObjectProvider<WolfSpec> spec, FileCollection classpath) {
       this.spec = spec;
       this.classpath = classpath;
     }
 
     /**
      * The configurator for Wolf task.
+     * The specification is realized only when the task is.
      */
     public void execute(WolfTask arg1) {
+      WolfSpec specValue = this.spec.get();
       arg1.getClasspath().from(this.classpath);
       arg1.setDescription("Configure the awooo");
-      arg1.getSlogan().convention(this.spec.getSlogan());
-      arg1.getAge().convention(this.spec.getAge());
+      arg1.getSlogan().convention(specValue.getSlogan());
+      arg1.getAge().convention(specValue.getAge());
     }
   }
 }"""
@@ -194,7 +224,7 @@ public abstract class DefaultWolfExtension implements WolfExtension {
         var pluginContent = stripImports(files.get("test.WolfPlugin").getCharContent(false))
         pluginContent == """public class WolfPlugin implements Plugin<Project> {
   protected WolfExtension createExtension(Project project, Configuration classpath) {
-    return project.getExtensions().create(WolfExtension.class, "Wolf", DefaultWolfExtension.class, project, classpath);
+    return project.getExtensions().create(WolfExtension.class, "Wolf", DefaultWolfExtension.class, project.getTasks(), classpath);
   }
 
   public void apply(Project project) {
@@ -212,4 +242,501 @@ public abstract class DefaultWolfExtension implements WolfExtension {
 }"""
     }
 
+    void "test gradle task with process isolation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf",
+                isolation = Isolation.PROCESS,
+                maxHeapSize = "512m",
+                jvmArgs = "-XX:+UseSerialGC",
+                workerDaemonKey = "wolves"
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("this.getWorkerExecutor().processIsolation(new WolfClasspathConfigurator(this)).submit(WolfWorkAction.class, new WolfWorkActionParameterConfigurator(this));")
+        taskContent.contains("""  public static class WolfClasspathConfigurator implements Action<ProcessWorkerSpec> {
+    WolfTask task;
+
+    public WolfClasspathConfigurator(WolfTask task) {
+      this.task = task;
+    }
+
+    public void execute(ProcessWorkerSpec spec) {
+      spec.getClasspath().from(this.task.getClasspath());
+      spec.getForkOptions().setMaxHeapSize("512m");
+      spec.getForkOptions().jvmArgs("-XX:+UseSerialGC");
+      spec.getForkOptions().systemProperty("micronaut.plugin.gen.worker.daemon.key", "wolves");
+    }
+  }""")
+    }
+
+    void "test gradle task with class data sharing"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            classDataSharing = true,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf",
+                isolation = Isolation.PROCESS
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var archiveTaskContent = stripImports(files.get("test.WolfClassDataSharingTask").getCharContent(false))
+        archiveTaskContent.contains("public abstract class WolfClassDataSharingTask extends DefaultTask {")
+        archiveTaskContent.contains("public WolfClassDataSharingTask(FileCollection classpath, Provider<RegularFile> archive,")
+        archiveTaskContent.contains("""  @LocalState
+  public abstract RegularFileProperty getArchiveFile();""")
+        archiveTaskContent.contains("PluginClassDataSharing.reset(")
+
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("""  @Internal
+  public abstract RegularFileProperty getClassDataSharingArchive();""")
+        taskContent.contains("spec.getForkOptions().jvmArgs(PluginClassDataSharing.jvmArgs(this.task.getClassDataSharingArchive().getAsFile().getOrNull()));")
+
+        var pluginContent = stripImports(files.get("test.WolfPlugin").getCharContent(false))
+        pluginContent.contains("Provider<RegularFile> classDataSharingArchive = project.getLayout().getBuildDirectory().file(\"wolf-cds/worker.jsa\");")
+        pluginContent.contains("project.getTasks().register(\"wolfClassDataSharing\", WolfClassDataSharingTask.class, classpath, classDataSharingArchive, classDataSharingDigest);")
+        pluginContent.contains("project.getTasks().withType(WolfTask.class).configureEach(new WolfClassDataSharingConfigurator(classDataSharing, classDataSharingArchive));")
+    }
+
+    void "test gradle task without isolation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf",
+                isolation = Isolation.NONE
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("this.getWorkerExecutor().noIsolation().submit(WolfWorkAction.class, new WolfWorkActionParameterConfigurator(this));")
+        !taskContent.contains("ClasspathConfigurator")
+    }
+
+    void "test gradle batch task generation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf",
+                batch = true
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        files.get("test.WolfTask") != null
+
+        var itemContent = stripImports(files.get("test.WolfBatchItem").getCharContent(false))
+        itemContent.contains("public interface WolfBatchItem {")
+        itemContent.contains("""  @Input
+  Property<String> getSlogan();""")
+
+        var batchContent = stripImports(files.get("test.WolfBatchTask").getCharContent(false))
+        batchContent.contains("public abstract class WolfBatchTask extends DefaultTask {")
+        batchContent.contains("""  @Nested
+  public List<WolfBatchItem> getItems() {""")
+        !batchContent.contains("getChunkSize")
+        !batchContent.contains("queue.await();")
+        batchContent.contains("queue.submit(WolfBatchWorkAction.class, new WolfBatchWorkActionParameterConfigurator(this.items.get(i)));")
+        batchContent.contains("params.getSlogan().set(this.item.getSlogan());")
+        batchContent.contains("public static class WolfBatchClasspathConfigurator implements Action<ClassLoaderWorkerSpec> {")
+
+        var extensionContent = stripImports(files.get("test.WolfExtension").getCharContent(false))
+        extensionContent.contains("void awoooBatch(String name, Action<? super WolfBatchTask> action);")
+
+        var defaultExtensionContent = stripImports(files.get("test.DefaultWolfExtension").getCharContent(false))
+        defaultExtensionContent.contains("this.tasks.register(name, WolfBatchTask.class, new WolfBatchTaskConfigurator(this.classpath, action));")
+    }
+
+    @RestoreSystemProperties
+    void "test parallel generation produces the same sources as sequential generation"() {
+        given:
+        var source = """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+        import java.util.List;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = {
+                @GenerateGradlePlugin.GenerateGradleTask(
+                    source = "test.Wolf",
+                    batch = true
+                ),
+                @GenerateGradlePlugin.GenerateGradleTask(
+                    source = "test.Cub",
+                    isolation = GenerateGradlePlugin.Isolation.PROCESS
+                ),
+                @GenerateGradlePlugin.GenerateGradleTask(
+                    source = "test.Pack"
+                )
+            }
+        )
+        @PluginTask(threadSafe = true)
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan,
+                Color color
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+
+        @PluginTask
+        record Cub(
+                List<Color> colors,
+                @PluginTaskParameter(output = true, directory = true, required = true)
+                File outputDir
+        ) {
+
+            @PluginTaskExecutable
+            public void play() {
+            }
+
+        }
+
+        @PluginTask
+        record Pack(
+                @PluginTaskParameter(defaultValue = "3")
+                Integer size
+        ) {
+
+            @PluginTaskExecutable
+            public void hunt() {
+            }
+
+        }
+
+        enum Color {
+            GRAY,
+            WHITE
+        }
+        """
+
+        when:
+        var sequential = generateSources("test.Wolf", source)
+        System.setProperty(GradlePluginGenerationTriggerAnnotationVisitor.PARALLELISM_OPTION, "4")
+        var parallel = generateSources("test.Wolf", source)
+
+        then:
+        sequential.containsKey("test.WolfTask")
+        sequential.containsKey("test.CubTask")
+        sequential.containsKey("test.PackTask")
+        parallel.keySet() == sequential.keySet()
+        sequential.every { name, file ->
+            parallel.get(name).getCharContent(false).toString() == file.getCharContent(false).toString()
+        }
+    }
+
+    @RestoreSystemProperties
+    void "test fail for parallelism #parallelism"() {
+        given:
+        System.setProperty(GradlePluginGenerationTriggerAnnotationVisitor.PARALLELISM_OPTION, parallelism)
+
+        when:
+        generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf"
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var e = thrown(RuntimeException)
+        e.message.contains("Expected a number of threads between 1 and 32767 for option micronaut.plugin.gen.parallelism but found: " + parallelism)
+
+        where:
+        parallelism << ["0", "-2", "32768", "four"]
+    }
+
+    void "test gradle task with incremental directory"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf"
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true, directory = true, incremental = true)
+                File howls
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo(PluginTaskChanges changes) {
+            }
+
+        }
+        """)
+
+        then:
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("""  @InputDirectory
+  @Incremental
+  @PathSensitive(PathSensitivity.ABSOLUTE)
+  public abstract DirectoryProperty getHowls();""")
+        !taskContent.contains("@Input\n  @InputDirectory")
+        taskContent.contains("public void execute(InputChanges inputChanges) {")
+        taskContent.contains("PluginTaskChanges changes = new PluginTaskChanges(inputChanges.isIncremental());")
+        taskContent.contains("Iterator<FileChange> howlsChanges = inputChanges.getFileChanges(this.getHowls()).iterator();")
+        taskContent.contains("changes.addChange(\"howls\", change.getFile(), PluginTaskChanges.ChangeType.valueOf(change.getChangeType().name()));")
+        taskContent.contains("new WolfWorkActionParameterConfigurator(this, changes)")
+        taskContent.contains("params.getTaskChanges().set(this.changes);")
+        taskContent.contains("task.awooo(parameters.getTaskChanges().get());")
+    }
+
+    void "test gradle task with shared resource"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
+        import java.util.List;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf",
+                isolation = Isolation.NONE
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan
+        ) {
+
+            @PluginTaskResource
+            public static Pack createPack() {
+                return new Pack(List.of());
+            }
+
+            @PluginTaskExecutable
+            public void awooo(Pack pack) {
+            }
+
+        }
+
+        record Pack(List<String> members) {
+        }
+        """)
+
+        then:
+        var serviceContent = stripImports(files.get("test.WolfResourceService").getCharContent(false))
+        serviceContent.contains("public abstract class WolfResourceService implements BuildService<BuildServiceParameters.None>, AutoCloseable {")
+        serviceContent.contains("public synchronized Pack getResource() {")
+        serviceContent.contains("Wolf.createPack();")
+        serviceContent.contains("""  public synchronized void close() {
+    PluginTaskResources.close(this.resource);
+    this.resource = null;
+  }""")
+
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("""  @ServiceReference("test.WolfResourceService")
+  public abstract Property<WolfResourceService> getResourceService();""")
+        taskContent.contains("new WolfWorkActionParameterConfigurator(this, this.getResourceService())")
+        taskContent.contains("params.getResourceService().set(this.resourceService);")
+        taskContent.contains("task.awooo(parameters.getResourceService().get().getResource());")
+
+        var pluginContent = stripImports(files.get("test.WolfPlugin").getCharContent(false))
+        pluginContent.contains("project.getGradle().getSharedServices().registerIfAbsent(\"test.WolfResourceService\", WolfResourceService.class);")
+    }
+
+    void "test gradle task with file collection parameters"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+        import java.util.List;
+        import java.util.Set;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf"
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true, skipWhenEmpty = true, pathSensitivity = PluginTaskParameter.PathSensitivity.RELATIVE)
+                List<File> howls,
+                Set<File> echoes
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("""  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  @IgnoreEmptyDirectories
+  @SkipWhenEmpty
+  public abstract ConfigurableFileCollection getHowls();""")
+        taskContent.contains("""  @InputFiles
+  @PathSensitive(PathSensitivity.ABSOLUTE)
+  @IgnoreEmptyDirectories
+  @Optional
+  public abstract ConfigurableFileCollection getEchoes();""")
+        taskContent.contains("params.getHowls().from(this.task.getHowls());")
+        taskContent.contains("Wolf task = new test.Wolf(new ArrayList<File>(parameters.getHowls().getFiles()), parameters.getEchoes().getFiles());")
+
+        var defaultExtensionContent = stripImports(files.get("test.DefaultWolfExtension").getCharContent(false))
+        defaultExtensionContent.contains("arg1.getHowls().from(specValue.getHowls());")
+    }
+
+    void "test relocatable gradle task generation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            relocatable = true,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf",
+                cacheable = false
+            )
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan,
+                @PluginTaskParameter(required = true)
+                File howl,
+                @PluginTaskParameter(required = true, pathSensitivity = PluginTaskParameter.PathSensitivity.NAME_ONLY)
+                File echo
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var taskContent = stripImports(files.get("test.WolfTask").getCharContent(false))
+        taskContent.contains("""@DisableCachingByDefault(
+    because = "The task is configured as not cacheable"
+)
+public abstract class WolfTask extends DefaultTask {""")
+        taskContent.contains("""  @Input
+  public abstract Property<String> getSlogan();""")
+        taskContent.contains("""  @InputFile
+  @PathSensitive(PathSensitivity.RELATIVE)
+  @NormalizeLineEndings
+  public abstract RegularFileProperty getHowl();""")
+        taskContent.contains("""  @InputFile
+  @PathSensitive(PathSensitivity.NAME_ONLY)
+  @NormalizeLineEndings
+  public abstract RegularFileProperty getEcho();""")
+    }
+
 }
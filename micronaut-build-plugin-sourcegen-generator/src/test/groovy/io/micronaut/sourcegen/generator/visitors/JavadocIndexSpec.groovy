@@ -0,0 +1,27 @@
+package io.micronaut.sourcegen.generator.visitors
+
+import io.micronaut.sourcegen.generator.visitors.JavadocUtils.TypeJavadoc
+import spock.lang.Specification
+
+class JavadocIndexSpec extends Specification {
+
+    void "test javadoc index lookup"() {
+        given:
+        var javadocs = new TreeMap<String, TypeJavadoc>()
+        javadocs.put("test.Wolf", new TypeJavadoc(Optional.of("A wolf.\nIt howls."), [slogan: "The slogan.", "awooo()": "Howl."]))
+        javadocs.put("test.Color", new TypeJavadoc(Optional.empty(), [:]))
+        javadocs.put("test.Tail", new TypeJavadoc(Optional.of("A tail with ünicode."), [length: "The length."]))
+
+        when:
+        var index = JavadocIndex.read(new ByteArrayInputStream(JavadocIndex.write(javadocs)))
+
+        then:
+        index.find("test.Wolf").get() == javadocs.get("test.Wolf")
+        index.find("test.Color").get() == javadocs.get("test.Color")
+        index.find("test.Tail").get() == javadocs.get("test.Tail")
+        index.find("test.Missing").isEmpty()
+        index.find("a.First").isEmpty()
+        index.find("z.Last").isEmpty()
+    }
+
+}
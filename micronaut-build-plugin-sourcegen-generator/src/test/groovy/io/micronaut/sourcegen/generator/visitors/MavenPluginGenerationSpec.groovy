@@ -69,4 +69,481 @@ public abstract class WolfMojo extends AbstractMojo {
 }"""
     }
 
+    void "test maven plugin generation with source class"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            sourceClass = Wolf.class
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var mojoContent = stripImports(files.get("test.WolfMojo").getCharContent(false))
+        mojoContent.contains("protected String slogan;")
+        mojoContent.contains("Wolf task = new test.Wolf(this.slogan);")
+    }
+
+    void "test maven plugin generation with file collection parameters"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+        import java.util.List;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf"
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(skipWhenEmpty = true)
+                List<File> howls
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var mojoContent = stripImports(files.get("test.WolfMojo").getCharContent(false))
+        mojoContent.contains("protected List<File> howls;")
+        mojoContent.contains("Objects.requireNonNullElse(this.howls, List.of()).size() > 0")
+        mojoContent.contains("this.getLog().info(\"WolfMojo is skipped, because there are no files in howls\");")
+        mojoContent.contains("Wolf task = new test.Wolf(Objects.requireNonNullElse(this.howls, List.of()));")
+    }
+
+    void "test maven plugin generation with state tracking"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf"
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan,
+                @PluginTaskParameter(output = true, directory = true, required = true)
+                File outputDir
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var mojoContent = stripImports(files.get("test.WolfMojo").getCharContent(false))
+        mojoContent.contains("""  @Parameter(
+      defaultValue = "\${project.build.directory}/plugin-state",
+      readonly = true
+  )
+  protected File stateDirectory;""")
+        mojoContent.contains("PluginTaskState state = new PluginTaskState(new File(this.stateDirectory, \"WolfMojo-\".concat(this.executionId.concat(\".properties\")))).implementation(Wolf.class).input(\"slogan\", this.slogan).output(\"outputDir\", this.getOutputDir());")
+        mojoContent.contains("String reason = state.getOutOfDateReason();")
+        mojoContent.contains("this.getLog().info(\"WolfMojo is skipped, because its inputs and outputs did not change\");")
+        mojoContent.contains("this.getLog().info(\"WolfMojo is executed, because \".concat(reason));")
+        mojoContent.contains("state.save();")
+    }
+
+    void "test maven plugin without outputs does not track state"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf"
+        )
+        @PluginTask
+        public record Wolf(
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var mojoContent = stripImports(files.get("test.WolfMojo").getCharContent(false))
+        !mojoContent.contains("stateDirectory")
+        !mojoContent.contains("PluginTaskState")
+    }
+
+    void "test maven plugin goal generation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+        import java.util.List;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            goal = "howl",
+            defaultPhase = "generate-sources"
+        )
+        @PluginTask(threadSafe = true)
+        public record Wolf(
+                @PluginTaskParameter(defaultValue = "\${project.compileClasspathElements}")
+                List<File> pack,
+                @PluginTaskParameter(output = true, directory = true, required = true)
+                File outputDir
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var goalContent = stripImports(files.get("test.DefaultWolfMojo").getCharContent(false))
+        goalContent.contains("""@Mojo(
+    name = "howl",
+    threadSafe = true,
+    requiresDependencyResolution = ResolutionScope.COMPILE,
+    defaultPhase = LifecyclePhase.GENERATE_SOURCES
+)
+public class DefaultWolfMojo extends WolfMojo {""")
+        goalContent.contains("""  @Parameter(
+      defaultValue = "true",
+      property = "wolf.enabled"
+  )
+  protected boolean enabled;""")
+        goalContent.contains("""  protected boolean isEnabled() {
+    return this.enabled;
+  }""")
+        goalContent.contains("protected File outputDir;")
+        goalContent.contains("""  protected File getOutputDir() {
+    return this.outputDir;
+  }""")
+    }
+
+    void "test maven plugin goal without project requirements"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            goal = "howl"
+        )
+        @PluginTask
+        public record Wolf(
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var goalContent = stripImports(files.get("test.DefaultWolfMojo").getCharContent(false))
+        goalContent.contains("""@Mojo(
+    name = "howl",
+    threadSafe = false,
+    requiresDependencyResolution = ResolutionScope.NONE,
+    requiresProject = false
+)""")
+        files.get("test.WolfMojo") != null
+    }
+
+    void "test fail for a default phase that is not a maven lifecycle phase"() {
+        when:
+        generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            goal = "howl",
+            defaultPhase = "generate-howls"
+        )
+        @PluginTask
+        public record Wolf(
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var e = thrown(RuntimeException)
+        e.message.contains("The default phase generate-howls of task test.Wolf is not a Maven lifecycle phase, expected one of: validate, initialize, generate-sources,")
+        e.message.contains("site-deploy")
+    }
+
+    void "test maven plugin generation with isolated dependency"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            isolatedDependency = "test:wolf"
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan,
+                Color color
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+
+        enum Color {
+            GRAY,
+            WHITE
+        }
+        """)
+
+        then:
+        var mojoContent = stripImports(files.get("test.WolfMojo").getCharContent(false))
+        mojoContent.contains("""  @Parameter(
+      defaultValue = "\${plugin.artifacts}",
+      readonly = true
+  )
+  protected List<Artifact> pluginArtifacts;""")
+        mojoContent.contains("""  protected List<File> getIsolatedClasspath() {
+    List<File> classpath = new ArrayList<File>();
+    Iterator<Artifact> artifacts = this.pluginArtifacts.iterator();
+    while (artifacts.hasNext()) {
+      Artifact artifact = artifacts.next();
+      if (PluginTaskIsolation.isRequired(artifact.getDependencyTrail(), "test:wolf")) {
+        classpath.add(artifact.getFile());
+      }
+    }
+    return classpath;
+  }""")
+        mojoContent.contains("PluginTaskIsolation.run(new WolfTaskAction(this.slogan, this.color), this.getIsolatedClasspath());")
+        !mojoContent.contains("Wolf task = new test.Wolf(")
+
+        var actionContent = stripImports(files.get("test.WolfTaskAction").getCharContent(false))
+        actionContent.contains("public final class WolfTaskAction implements Runnable, Serializable {")
+        actionContent.contains("""  public void run() {
+    Color colorParam = WolfMavenModelConverters.convertColor(this.color);
+    Wolf task = new test.Wolf(this.slogan, colorParam);
+    task.awooo();
+  }""")
+    }
+
+    void "test maven build cache configuration generation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import io.micronaut.sourcegen.annotations.PluginTaskParameter.PathSensitivity;
+        import java.io.File;
+        import java.util.List;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            goal = "howl",
+            pluginArtifactId = "wolf-maven-plugin"
+        )
+        @PluginTask
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan,
+                List<File> howls,
+                @PluginTaskParameter(pathSensitivity = PathSensitivity.NONE)
+                File den,
+                @PluginTaskParameter(output = true, directory = true, defaultValue = "\${project.build.directory}/generated/wolf")
+                File outputDir
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        files.get("META-INF/maven/build-cache/test.Wolf.xml").getCharContent(false).toString() == """<?xml version="1.0" encoding="UTF-8"?>
+<!--
+  The maven-build-cache-extension configuration for the goals generated by test.Wolf.
+  Merge it into .mvn/maven-build-cache-config.xml of the projects that use the plugin.
+-->
+<cache xmlns="http://maven.apache.org/BUILD-CACHE-CONFIG/1.0.0">
+    <input>
+        <plugins>
+            <plugin artifactId="wolf-maven-plugin">
+                <dirScan mode="auto">
+                    <includes>
+                        <include tagName="howls" recursive="true"/>
+                    </includes>
+                    <excludes>
+                        <exclude tagName="den"/>
+                        <exclude tagName="outputDir"/>
+                    </excludes>
+                </dirScan>
+            </plugin>
+        </plugins>
+    </input>
+    <executionControl>
+        <reconcile>
+            <plugins>
+                <plugin artifactId="wolf-maven-plugin" goal="howl">
+                    <reconciles>
+                        <reconcile propertyName="slogan"/>
+                    </reconciles>
+                </plugin>
+            </plugins>
+        </reconcile>
+    </executionControl>
+    <output>
+        <attachedOutputs>
+            <dirNames>
+                <dirName>generated/wolf</dirName>
+            </dirNames>
+        </attachedOutputs>
+    </output>
+</cache>
+"""
+    }
+
+    void "test maven build cache configuration requires plugin artifact id"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            goal = "howl"
+        )
+        @PluginTask
+        public record Wolf(
+                String slogan
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        files.get("META-INF/maven/build-cache/test.Wolf.xml") == null
+    }
+
+    void "test maven batch mojo generation"() {
+        when:
+        var files = generateSources("test.Wolf", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.io.File;
+
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf",
+            goal = "howl",
+            batch = true
+        )
+        @PluginTask(threadSafe = true)
+        public record Wolf(
+                @PluginTaskParameter(required = true)
+                String slogan,
+                @PluginTaskParameter(output = true, directory = true, required = true)
+                File outputDir
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+        """)
+
+        then:
+        var itemContent = stripImports(files.get("test.WolfBatchItem").getCharContent(false))
+        itemContent.contains("public class WolfBatchItem {")
+        itemContent.contains("private String slogan;")
+        itemContent.contains("private File outputDir;")
+        itemContent.contains("""  public File getOutputDir() {
+    return this.outputDir;
+  }""")
+
+        var batchContent = stripImports(files.get("test.WolfBatchMojo").getCharContent(false))
+        batchContent.contains("public abstract class WolfBatchMojo extends AbstractMojo {")
+        batchContent.contains("protected List<WolfBatchItem> items;")
+        batchContent.contains("""  @Parameter(
+      property = "wolf.batch.parallelism"
+  )
+  protected Integer parallelism;""")
+        batchContent.contains("""      List<Runnable> actions = new ArrayList<Runnable>(this.items.size());
+      Iterator<WolfBatchItem> itemsIterator = this.items.iterator();
+      while (itemsIterator.hasNext()) {
+        WolfBatchItem item = itemsIterator.next();
+        actions.add(new WolfTaskAction(item.getSlogan(), item.getOutputDir()));
+      }
+      PluginTaskBatch.run("WolfBatchMojo", actions, this.parallelism, null);""")
+        !batchContent.contains("PluginTaskState")
+
+        var goalContent = stripImports(files.get("test.DefaultWolfBatchMojo").getCharContent(false))
+        goalContent.contains("""@Mojo(
+    name = "howlBatch",
+    threadSafe = true,
+    requiresDependencyResolution = ResolutionScope.NONE,
+    requiresProject = false
+)
+public class DefaultWolfBatchMojo extends WolfBatchMojo {""")
+        !goalContent.contains("outputDir")
+
+        files.get("test.WolfTaskAction") != null
+        files.get("test.DefaultWolfMojo") != null
+    }
+
 }
@@ -52,17 +52,9 @@ public enum Color {
 
         var taskContent = stripImports(files.get("test.JaguarTask").getCharContent(false))
         taskContent.contains("""public abstract static class JaguarWorkAction implements WorkAction<JaguarWorkActionParameters> {
-    Color convertColor(test.model.Color value) {
-      if (value == (test.model.Color) (null)) {
-        return null;
-      } else {
-        return Color.valueOf(value.name());
-      }
-    }
-
     public void execute() {
       JaguarWorkActionParameters parameters = this.getParameters();
-      Color colorParam = this.convertColor(parameters.getColor().get());
+      Color colorParam = JaguarGradleModelConverters.convertColor(parameters.getColor().get());
       Jaguar task = new test.Jaguar(colorParam);
       task.meow();
     }
@@ -201,29 +193,23 @@ public class Tail implements Serializable {
         var enumContent = stripImports(files.get("test.model.Color").getCharContent(false))
         enumContent != null
 
+        var convertersContent = stripImports(files.get("test.model.JaguarGradleModelConverters").getCharContent(false))
+        convertersContent.startsWith("""/**
+ * Converters of the plugin models to the types used by tasks.
+ */
+public final class JaguarGradleModelConverters {""")
+        convertersContent.contains("public static test.Color convertColor(Color value)")
+        convertersContent.contains("private static final List<test.Color> COLOR_VALUES = List.of(test.Color.values());")
+        convertersContent.contains("JaguarGradleModelConverters.COLOR_VALUES.get(value.ordinal())")
+        !convertersContent.contains("valueOf(")
+        convertersContent.contains("public static test.Tail convertTail(Tail value)")
+        convertersContent.contains("test.Color ColorParam = JaguarGradleModelConverters.convertColor(value.getColor());")
+
         var taskContent = stripImports(files.get("test.JaguarTask").getCharContent(false))
         taskContent.contains("""public abstract static class JaguarWorkAction implements WorkAction<JaguarWorkActionParameters> {
-    Color convertColor(test.model.Color value) {
-      if (value == (test.model.Color) (null)) {
-        return null;
-      } else {
-        return Color.valueOf(value.name());
-      }
-    }
-
-    Tail convertTail(test.model.Tail value) {
-      if (value == (test.model.Tail) (null)) {
-        return null;
-      } else {
-        Color ColorParam = this.convertColor(value.getColor());
-        Tail result = new test.Tail(value.getDescription(), value.getLength(), ColorParam);
-        return result;
-      }
-    }
-
     public void execute() {
       JaguarWorkActionParameters parameters = this.getParameters();
-      Tail tailParam = this.convertTail(parameters.getTail().get());
+      Tail tailParam = JaguarGradleModelConverters.convertTail(parameters.getTail().get());
       Jaguar task = new test.Jaguar(tailParam);
       task.meow();
     }
@@ -231,4 +217,411 @@ public class Tail implements Serializable {
 """)
     }
 
+    void "test models are shared between tasks of a plugin"() {
+        when:
+        var files = generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = {
+                @GenerateGradlePlugin.GenerateGradleTask(
+                    source = "test.Jaguar"
+                ),
+                @GenerateGradlePlugin.GenerateGradleTask(
+                    source = "test.Cub"
+                )
+            }
+        )
+        @PluginTask
+        public record Jaguar(
+            Color color
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        @PluginTask
+        record Cub(
+            Tail tail
+        ) {
+
+            @PluginTaskExecutable
+            public void play() {
+            }
+
+        }
+
+        record Tail(
+            float length,
+            Color color
+        ) {
+        }
+
+        enum Color {
+            GOLDEN,
+            WHITE
+        }
+        """)
+
+        then:
+        files.get("test.model.Color") != null
+        files.get("test.model.Tail") != null
+
+        var convertersContent = stripImports(files.get("test.model.JaguarGradleModelConverters").getCharContent(false))
+        convertersContent.count("convertColor(Color value)") == 1
+        convertersContent.count("convertTail(Tail value)") == 1
+
+        var jaguarContent = stripImports(files.get("test.JaguarTask").getCharContent(false))
+        jaguarContent.contains("JaguarGradleModelConverters.convertColor(")
+        !jaguarContent.contains("convertTail")
+        !jaguarContent.contains("convertColor(test.model.Color value)")
+
+        var cubContent = stripImports(files.get("test.CubTask").getCharContent(false))
+        cubContent.contains("JaguarGradleModelConverters.convertTail(")
+        !cubContent.contains("convertTail(test.model.Tail value)")
+    }
+
+    void "test generate converters of collections, maps and arrays of models"() {
+        when:
+        var files = generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.util.List;
+        import java.util.Map;
+        import java.util.Set;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Jaguar"
+            )
+        )
+        @PluginTask
+        public record Jaguar(
+            List<Tail> tails,
+            List<Tail> otherTails,
+            Set<Color> colors,
+            Map<String, List<Tail>> tailsByName,
+            Tail[] tailArray,
+            List<String> names
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        record Tail(
+            float length,
+            Color color
+        ) {
+        }
+
+        enum Color {
+            GOLDEN,
+            WHITE
+        }
+        """)
+
+        then:
+        var convertersContent = stripImports(files.get("test.model.JaguarGradleModelConverters").getCharContent(false))
+        convertersContent.count("public static List<test.Tail> convertTailList(List<Tail> value)") == 1
+        convertersContent.contains("public static Set<test.Color> convertColorSet(Set<Color> value)")
+        convertersContent.contains("public static Map<String, List<test.Tail>> convertStringToTailListMap(Map<String, List<Tail>> value)")
+        convertersContent.contains("public static test.Tail[] convertTailArray(Tail[] value)")
+        !convertersContent.contains("convertStringList")
+        convertersContent.contains("iterator.hasNext()")
+        convertersContent.contains("JaguarGradleModelConverters.convertTailList(entry.getValue())")
+        !convertersContent.contains(".get(i)")
+
+        var taskContent = stripImports(files.get("test.JaguarTask").getCharContent(false))
+        taskContent.contains("JaguarGradleModelConverters.convertTailList(")
+        taskContent.contains("JaguarGradleModelConverters.convertColorSet(")
+        taskContent.contains("JaguarGradleModelConverters.convertStringToTailListMap(")
+        taskContent.contains("JaguarGradleModelConverters.convertTailArray(")
+        !taskContent.contains("JaguarGradleModelConverters.convertStringList(")
+    }
+
+    void "test generate converters of queues and enum containers of models"() {
+        when:
+        var files = generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.util.Deque;
+        import java.util.EnumMap;
+        import java.util.EnumSet;
+        import java.util.Queue;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Jaguar"
+            )
+        )
+        @PluginTask
+        public record Jaguar(
+            Queue<Tail> tailQueue,
+            Deque<Tail> tailDeque,
+            EnumSet<Color> colors,
+            EnumMap<Color, Tail> tailsByColor
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        record Tail(
+            float length
+        ) {
+        }
+
+        enum Color {
+            GOLDEN,
+            WHITE
+        }
+        """)
+
+        then:
+        var convertersContent = stripImports(files.get("test.model.JaguarGradleModelConverters").getCharContent(false))
+        convertersContent.contains("public static Queue<test.Tail> convertTailQueue(Queue<Tail> value)")
+        convertersContent.contains("public static Deque<test.Tail> convertTailDeque(Deque<Tail> value)")
+        convertersContent.count("new ArrayDeque(size)") == 2
+        !convertersContent.contains("new ArrayList(size)")
+        convertersContent.contains("public static EnumSet<test.Color> convertColorEnumSet(EnumSet<Color> value)")
+        convertersContent.contains("EnumSet.noneOf(test.Color.class)")
+        convertersContent.contains("public static EnumMap<test.Color, test.Tail> convertColorToTailEnumMap(EnumMap<Color, Tail> value)")
+        convertersContent.contains("new EnumMap(test.Color.class)")
+    }
+
+    void "test fail for containers of models without a known implementation"() {
+        when:
+        generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import java.util.concurrent.BlockingQueue;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Jaguar"
+            )
+        )
+        @PluginTask
+        public record Jaguar(
+            BlockingQueue<Tail> tails
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        record Tail(
+            float length
+        ) {
+        }
+        """)
+
+        then:
+        var e = thrown(RuntimeException)
+        e.message.contains("Cannot convert the models of property tails, because java.util.concurrent.BlockingQueue is not a concrete class")
+    }
+
+    void "test use original models without copying"() {
+        when:
+        var files = generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+        import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
+        import java.util.List;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            copyModels = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Jaguar",
+                isolation = Isolation.NONE
+            )
+        )
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            copyModels = false,
+            source = "test.Jaguar"
+        )
+        @PluginTask
+        public record Jaguar(
+            Tail tail,
+            List<Color> colors
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        record Tail(
+            float length,
+            Color color
+        ) implements java.io.Serializable {
+        }
+
+        enum Color {
+            GOLDEN,
+            WHITE
+        }
+        """)
+
+        then:
+        files.get("test.model.Tail") == null
+        files.get("test.model.Color") == null
+        files.get("test.model.JaguarGradleModelConverters") == null
+        files.get("test.model.JaguarMavenModelConverters") == null
+
+        var taskContent = stripImports(files.get("test.JaguarTask").getCharContent(false))
+        taskContent.contains("Property<Tail> getTail();")
+        !taskContent.contains("ModelConverters")
+
+        var mojoContent = stripImports(files.get("test.JaguarMojo").getCharContent(false))
+        mojoContent.contains("protected Tail tail;")
+        mojoContent.contains("protected List<Color> colors;")
+        !mojoContent.contains("ModelConverters")
+    }
+
+    void "test converters of triggers in the same package are generated separately"() {
+        when:
+        var files = generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Jaguar"
+            )
+        )
+        @PluginTask
+        public record Jaguar(
+            Color color
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Cub"
+            )
+        )
+        @PluginTask
+        record Cub(
+            Tail tail
+        ) {
+
+            @PluginTaskExecutable
+            public void play() {
+            }
+
+        }
+
+        record Tail(
+            float length,
+            Color color
+        ) {
+        }
+
+        enum Color {
+            GOLDEN,
+            WHITE
+        }
+        """)
+
+        then:
+        files.get("test.model.Color") != null
+        files.get("test.model.Tail") != null
+
+        var jaguarConverters = stripImports(files.get("test.model.JaguarGradleModelConverters").getCharContent(false))
+        jaguarConverters.contains("public static test.Color convertColor(Color value)")
+        !jaguarConverters.contains("convertTail")
+
+        var cubConverters = stripImports(files.get("test.model.CubGradleModelConverters").getCharContent(false))
+        cubConverters.contains("public static test.Color convertColor(Color value)")
+        cubConverters.contains("public static test.Tail convertTail(Tail value)")
+
+        stripImports(files.get("test.JaguarTask").getCharContent(false))
+            .contains("JaguarGradleModelConverters.convertColor(")
+        stripImports(files.get("test.CubTask").getCharContent(false))
+            .contains("CubGradleModelConverters.convertTail(")
+    }
+
+    void "test gradle and maven triggers on the same class generate separate converters"() {
+        when:
+        var files = generateSources("test.Jaguar", """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Jaguar"
+            )
+        )
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Jaguar"
+        )
+        @PluginTask
+        public record Jaguar(
+            Tail tail
+        ) {
+
+            @PluginTaskExecutable
+            public void meow() {
+            }
+
+        }
+
+        record Tail(
+            float length,
+            Color color
+        ) {
+        }
+
+        enum Color {
+            GOLDEN,
+            WHITE
+        }
+        """)
+
+        then:
+        files.get("test.model.Color") != null
+        files.get("test.model.Tail") != null
+
+        var gradleConverters = stripImports(files.get("test.model.JaguarGradleModelConverters").getCharContent(false))
+        gradleConverters.contains("public static test.Tail convertTail(Tail value)")
+        var mavenConverters = stripImports(files.get("test.model.JaguarMavenModelConverters").getCharContent(false))
+        mavenConverters.contains("public static test.Tail convertTail(Tail value)")
+
+        var taskContent = stripImports(files.get("test.JaguarTask").getCharContent(false))
+        taskContent.contains("JaguarGradleModelConverters.convertTail(")
+        !taskContent.contains("JaguarMavenModelConverters")
+
+        var mojoContent = stripImports(files.get("test.JaguarMojo").getCharContent(false))
+        mojoContent.contains("JaguarMavenModelConverters.convertTail(")
+        !mojoContent.contains("JaguarGradleModelConverters")
+    }
+
 }
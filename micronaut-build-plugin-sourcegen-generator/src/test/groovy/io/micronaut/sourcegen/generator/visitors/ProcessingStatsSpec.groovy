@@ -0,0 +1,105 @@
+package io.micronaut.sourcegen.generator.visitors
+
+import spock.util.environment.RestoreSystemProperties
+
+class ProcessingStatsSpec extends AbstractGenerationSpec {
+
+    static final String STATS_FILE = "META-INF/" + ProcessingStats.STATS_FILE
+
+    static final String SOURCE = """
+        package test;
+        import io.micronaut.sourcegen.annotations.*;
+
+        @GenerateGradlePlugin(
+            micronautPlugin = false,
+            tasks = @GenerateGradlePlugin.GenerateGradleTask(
+                source = "test.Wolf"
+            )
+        )
+        @GenerateMavenMojo(
+            micronautPlugin = false,
+            source = "test.Wolf"
+        )
+        @PluginTask
+        public record Wolf(
+                String slogan,
+                Color color
+        ) {
+
+            @PluginTaskExecutable
+            public void awooo() {
+            }
+
+        }
+
+        enum Color {
+            GRAY,
+            WHITE
+        }
+        """
+
+    @RestoreSystemProperties
+    void "test stats are written when enabled"() {
+        given:
+        System.setProperty(ProcessingStats.OPTION, "true")
+
+        when:
+        var files = generateSources("test.Wolf", SOURCE)
+
+        then:
+        var json = files.get(STATS_FILE).getCharContent(false).toString()
+        json.startsWith("{\n  \"triggers\": [")
+        json.count("\"name\": \"test.Wolf\"") == 2
+
+        var gradle = triggerJson(json, "gradle")
+        phase(gradle, ProcessingStats.CONFIG_EXTRACTION) == 1
+        phase(gradle, ProcessingStats.MODEL_COPYING) >= 1
+        phase(gradle, ProcessingStats.BUILDER_PREFIX + "GRADLE_TASK") == 1
+        phase(gradle, ProcessingStats.BUILDER_PREFIX + "GRADLE_PLUGIN") == 1
+        phase(gradle, ProcessingStats.SOURCE_WRITING) >= 1
+        count(gradle, ProcessingStats.MODELS_COUNT) == 1
+        count(gradle, ProcessingStats.CONVERTER_METHODS_COUNT) == 1
+        count(gradle, ProcessingStats.GENERATED_TYPES_COUNT) > 0
+        count(gradle, ProcessingStats.GENERATED_LINES_COUNT) > 0
+
+        var maven = triggerJson(json, "maven")
+        phase(maven, ProcessingStats.CONFIG_EXTRACTION) == 1
+        phase(maven, ProcessingStats.BUILDER_PREFIX + "MAVEN_MOJO") == 1
+        phase(maven, ProcessingStats.SOURCE_WRITING) >= 1
+        !maven.contains("GRADLE_")
+        count(maven, ProcessingStats.MODELS_COUNT) == 1
+        count(maven, ProcessingStats.CONVERTER_METHODS_COUNT) == 1
+        count(maven, ProcessingStats.GENERATED_TYPES_COUNT) > 0
+        count(maven, ProcessingStats.GENERATED_LINES_COUNT) > 0
+    }
+
+    void "test stats are not written by default"() {
+        when:
+        var files = generateSources("test.Wolf", SOURCE)
+
+        then:
+        files.get("test.WolfTask") != null
+        files.get("test.WolfMojo") != null
+        !files.containsKey(STATS_FILE)
+    }
+
+    private static String triggerJson(String json, String generator) {
+        for (String trigger: json.split("\n    \\{\n")) {
+            if (trigger.contains("\"generator\": \"" + generator + "\"")) {
+                return trigger
+            }
+        }
+        throw new AssertionError("No stats of the " + generator + " trigger in: " + json)
+    }
+
+    private static long phase(String trigger, String name) {
+        var matcher = trigger =~ /"${name}": \{"wallTimeNanos": \d+, "allocatedBytes": -?\d+, "invocations": (\d+)}/
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0
+    }
+
+    private static long count(String trigger, String name) {
+        var matcher = trigger =~ /"${name}": (\d+)/
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.sourcegen.example.plugin;
+
+import io.micronaut.sourcegen.annotations.PluginTask;
+import io.micronaut.sourcegen.annotations.PluginTaskChanges;
+import io.micronaut.sourcegen.annotations.PluginTaskExecutable;
+import io.micronaut.sourcegen.annotations.PluginTaskParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A task that copies the files of a directory incrementally.
+ * Only the files that changed since the previous execution are copied,
+ * and their paths are written to the {@value #REPORT_FILE} file of the output directory.
+ *
+ * @param inputDirectory The directory with the files to copy
+ * @param outputDirectory The directory to copy the files to
+ */
+@PluginTask
+public record CopyChangedFilesTask(
+    @PluginTaskParameter(required = true, directory = true, incremental = true)
+    File inputDirectory,
+    @PluginTaskParameter(output = true, directory = true, required = true)
+    File outputDirectory
+) {
+
+    /**
+     * The name of the file listing the files copied by the last execution.
+     */
+    public static final String REPORT_FILE = "copied.txt";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CopyChangedFilesTask.class);
+
+    /**
+     * Copy the changed files.
+     *
+     * @param changes The changes of the input directory
+     */
+    @PluginTaskExecutable
+    public void copyChangedFiles(PluginTaskChanges changes) {
+        Path input = inputDirectory.toPath();
+        Path output = outputDirectory.toPath();
+        try {
+            List<Path> copied = new ArrayList<>();
+            if (changes.isIncremental()) {
+                for (File removed: changes.getRemoved("inputDirectory")) {
+                    Files.deleteIfExists(output.resolve(input.relativize(removed.toPath())));
+                }
+                copied.addAll(changes.getAdded("inputDirectory").stream().map(File::toPath).toList());
+                copied.addAll(changes.getModified("inputDirectory").stream().map(File::toPath).toList());
+            } else {
+                try (Stream<Path> files = Files.walk(input)) {
+                    copied.addAll(files.toList());
+                }
+            }
+            List<String> report = new ArrayList<>();
+            for (Path file: copied) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                Path relative = input.relativize(file);
+                Path target = output.resolve(relative);
+                Files.createDirectories(target.getParent());
+                Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                report.add(relative.toString().replace(File.separatorChar, '/'));
+            }
+            LOG.info("Copied {} files to {}", report.size(), outputDirectory);
+            Files.writeString(output.resolve(REPORT_FILE), report.stream().sorted().collect(Collectors.joining("\n")));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -32,7 +32,7 @@ import java.io.IOException;
  * The properties are parameters and the single method defines the task execution.
  * The plugin generates a simple record.
  */
-@PluginTask
+@PluginTask(threadSafe = true)
 public final class GenerateSimpleResourceTask {
 
     private static final Logger LOG = LoggerFactory.getLogger(GenerateSimpleResourceTask.class.getName());
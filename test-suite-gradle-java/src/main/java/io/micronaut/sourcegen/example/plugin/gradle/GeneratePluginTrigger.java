@@ -17,7 +17,9 @@ package io.micronaut.sourcegen.example.plugin.gradle;
 
 // tag::content[]
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin;
+import io.micronaut.sourcegen.example.plugin.GenerateSimpleResourceTask;
 import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.GenerateGradleTask;
+import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.Isolation;
 
 @GenerateGradlePlugin(
     namePrefix = "Test", // <1>
@@ -31,7 +33,14 @@ import io.micronaut.sourcegen.annotations.GenerateGradlePlugin.GenerateGradleTas
         @GenerateGradleTask(
             namePrefix = "GenerateSimpleResource",
             extensionMethodName = "generateSimpleResource",
-            source = "io.micronaut.sourcegen.example.plugin.GenerateSimpleResourceTask" // <3>
+            sourceClass = GenerateSimpleResourceTask.class, // <3>
+            isolation = Isolation.PROCESS, // <4>
+            maxHeapSize = "256m"
+        ),
+        @GenerateGradleTask(
+            namePrefix = "CopyChangedFiles",
+            extensionMethodName = "copyChangedFiles",
+            source = "io.micronaut.sourcegen.example.plugin.CopyChangedFilesTask"
         )
     }
 )
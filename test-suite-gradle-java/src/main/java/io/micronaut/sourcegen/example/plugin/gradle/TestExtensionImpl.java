@@ -18,13 +18,17 @@ package io.micronaut.sourcegen.example.plugin.gradle;
 // tag::begin[]
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
-import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.plugins.ExtensionContainer;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.plugins.PluginManager;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
 
+import javax.inject.Inject;
 import java.util.function.Consumer;
 
 /**
@@ -32,10 +36,24 @@ import java.util.function.Consumer;
  */
 public abstract class TestExtensionImpl extends DefaultTestExtension { // <1>
 
-    public TestExtensionImpl(Project project, Configuration classpath) {
-        super(project, classpath);
+    private final PluginManager pluginManager;
+    private final ExtensionContainer extensions;
+
+    @Inject
+    public TestExtensionImpl(
+            TaskContainer tasks, FileCollection classpath, PluginManager pluginManager, ExtensionContainer extensions
+    ) {
+        super(tasks, classpath);
+        this.pluginManager = pluginManager;
+        this.extensions = extensions;
     }
 
+    /**
+     * @return The project layout, injected by Gradle so that the project is not captured
+     */
+    @Inject
+    protected abstract ProjectLayout getLayout();
+
 // end::begin[]
 
 // tag::generateRecordWithName[]
@@ -86,7 +104,7 @@ public abstract class TestExtensionImpl extends DefaultTestExtension { // <1>
         TaskProvider<? extends GenerateSimpleRecordTask> task = super.createGenerateSimpleRecordTask(name, t -> {
             configurator.execute(t);
             t.getOutputFolder().convention(
-                project.getLayout().getBuildDirectory().dir("generated/" + t.getName())
+                getLayout().getBuildDirectory().dir("generated/" + t.getName())
             );
         });
         withJavaSourceSets(sourceSets -> { // <3>
@@ -112,7 +130,7 @@ public abstract class TestExtensionImpl extends DefaultTestExtension { // <1>
         TaskProvider<? extends GenerateSimpleResourceTask> task = super.createGenerateSimpleResourceTask(name, t -> {
             configurator.execute(t);
             t.getOutputFolder().convention(
-                project.getLayout().getBuildDirectory().dir("generated/" + t.getName())
+                getLayout().getBuildDirectory().dir("generated/" + t.getName())
             );
         });
         withJavaSourceSets(sourceSets -> {
@@ -124,8 +142,8 @@ public abstract class TestExtensionImpl extends DefaultTestExtension { // <1>
 
 // tag::withJavaSourceSets[]
     private void withJavaSourceSets(Consumer<? super SourceSetContainer> consumer) {
-        project.getPlugins().withId("java", unused -> {
-            var javaPluginExtension =  project.getExtensions().findByType(JavaPluginExtension.class);
+        pluginManager.withPlugin("java", unused -> {
+            var javaPluginExtension = extensions.findByType(JavaPluginExtension.class);
             if (javaPluginExtension == null) {
                 throw new GradleException("No Java plugin extension found");
             }
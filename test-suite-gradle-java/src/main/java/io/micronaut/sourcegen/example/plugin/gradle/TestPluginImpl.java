@@ -27,7 +27,8 @@ public class TestPluginImpl extends TestPlugin {
     @Override
     protected TestExtension createExtension(Project project, Configuration classpath) {
         return project.getExtensions().create(
-            TestExtensionImpl.class, "test", TestExtensionImpl.class, project, classpath
+            TestExtensionImpl.class, "test", TestExtensionImpl.class,
+            project.getTasks(), classpath, project.getPluginManager(), project.getExtensions()
         );
     }
 }
@@ -4,6 +4,8 @@ import org.gradle.testkit.runner.TaskOutcome;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -130,6 +132,100 @@ class TestPluginTest extends AbstractPluginTest {
         assertEquals("Hello!\n", content(generatedResource2));
     }
 
+    @Test
+    void generateWithConfigurationCache() {
+        settingsFile("rootProject.name = 'test-project'");
+        buildFile("""
+        plugins {
+            id "io.micronaut.sourcegen.test"
+            id "java"
+        }
+
+        test {
+            generateRecordWithName("MyRecord", "io.micronaut.test", spec -> {
+                spec.getProperties().put("title", "java.lang.String")
+            })
+            generateResource("generateHello", "META-INF/hello.txt", "Hello!");
+        }
+
+        dependencies {
+        }
+        """);
+
+        var result = configureRunner(":build", "--configuration-cache").build();
+
+        assertEquals(TaskOutcome.SUCCESS, result.task(":generateMyRecord").getOutcome());
+        assertEquals(TaskOutcome.SUCCESS, result.task(":generateHello").getOutcome());
+        assertTrue(result.getOutput().contains("Configuration cache entry stored."));
+
+        result = configureRunner(":build", "--configuration-cache").build();
+
+        assertTrue(result.getOutput().contains("Reusing configuration cache."));
+        assertTrue(file("build/classes/java/main/io/micronaut/test/MyRecord.class").exists());
+    }
+
+    @Test
+    void configureSpecsLazily() {
+        settingsFile("rootProject.name = 'test-project'");
+        buildFile("""
+        plugins {
+            id "io.micronaut.sourcegen.test"
+        }
+
+        test {
+            generateSimpleResourceSpecs.configureEach { spec ->
+                spec.getContent().convention("Default!")
+            }
+            generateSimpleResource("generateHello", spec -> {
+                spec.getFileName().set("META-INF/hello.txt")
+            })
+            generateSimpleResource("generateUnused", spec -> {
+                throw new GradleException("The unused specification must not be configured")
+            })
+        }
+        """);
+
+        var result = configureRunner(":generateHello").build();
+
+        assertEquals(TaskOutcome.SUCCESS, result.task(":generateHello").getOutcome());
+        File generatedResource = file("build/generated/generateHello/META-INF/hello.txt");
+        assertTrue(generatedResource.exists());
+        assertEquals("Default!", content(generatedResource));
+    }
+
+    @Test
+    void copyOnlyChangedFiles() throws IOException {
+        settingsFile("rootProject.name = 'test-project'");
+        buildFile("""
+        plugins {
+            id "io.micronaut.sourcegen.test"
+        }
+
+        test {
+            copyChangedFiles("copyFiles", spec -> {
+                spec.getInputDirectory().set(file("files"))
+                spec.getOutputDirectory().set(layout.buildDirectory.dir("copied"))
+            })
+        }
+        """);
+        Files.createDirectories(file("files").toPath());
+        Files.writeString(file("files/a.txt").toPath(), "A");
+        Files.writeString(file("files/b.txt").toPath(), "B");
+
+        var result = configureRunner(":copyFiles").build();
+
+        assertEquals(TaskOutcome.SUCCESS, result.task(":copyFiles").getOutcome());
+        assertEquals("a.txt\nb.txt", content(file("build/copied/copied.txt")));
+
+        Files.writeString(file("files/b.txt").toPath(), "B2");
+        result = configureRunner(":copyFiles").build();
+
+        assertEquals(TaskOutcome.SUCCESS, result.task(":copyFiles").getOutcome());
+        assertEquals("b.txt", content(file("build/copied/copied.txt")));
+        assertEquals("A", content(file("build/copied/a.txt")));
+        assertEquals("B2", content(file("build/copied/b.txt")));
+    }
+
     @Test
     void failOnRequiredProperty() {
         settingsFile("rootProject.name = 'test-project'");
@@ -33,6 +33,26 @@ import io.micronaut.sourcegen.annotations.GenerateMavenMojo;
     source = "io.micronaut.sourcegen.example.plugin.GenerateSimpleResourceTask",
     mavenPropertyPrefix = "test.generate.simple.resource"
 )
+@GenerateMavenMojo( // <3>
+    namePrefix = "GenerateResource",
+    goal = "generateResource",
+    defaultPhase = "generate-resources",
+    pluginArtifactId = "test",
+    batch = true,
+    micronautPlugin = false,
+    source = "io.micronaut.sourcegen.example.plugin.GenerateSimpleResourceTask",
+    mavenPropertyPrefix = "test.generate.resource"
+)
+@GenerateMavenMojo( // <4>
+    namePrefix = "GenerateIsolatedResource",
+    goal = "generateIsolatedResource",
+    defaultPhase = "generate-resources",
+    pluginArtifactId = "test",
+    isolatedDependency = "io.micronaut.test:test-suite-common-java",
+    micronautPlugin = false,
+    source = "io.micronaut.sourcegen.example.plugin.GenerateSimpleResourceTask",
+    mavenPropertyPrefix = "test.generate.isolated.resource"
+)
 public final class GenerateMojoTrigger {
 }
 // end::content[]
@@ -1,6 +1,7 @@
 package io.micronaut.sourcegen.example.plugin.maven;
 
 import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.plugin.testing.ResolverExpressionEvaluatorStub;
 import org.codehaus.plexus.component.configurator.ComponentConfigurator;
@@ -12,6 +13,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 abstract class AbstractMavenPluginTest extends AbstractMojoTestCase {
 
@@ -19,6 +22,28 @@ abstract class AbstractMavenPluginTest extends AbstractMojoTestCase {
     public File baseDir;
 
     public Mojo findConfiguredMojo(String goal, File configurationPom) throws Exception {
+        return findConfiguredMojo(goal, configurationPom, baseDir);
+    }
+
+    public Mojo findConfiguredMojo(String goal, File configurationPom, File outputFolder) throws Exception {
+        PlexusConfiguration configuration = extractPluginConfiguration("test", configurationPom);
+        configuration.addChild("outputFolder", outputFolder.getAbsolutePath());
+        // The state is recorded outside the output folder, which is hashed as an output
+        configuration.addChild("stateDirectory", file("plugin-state/" + outputFolder.getName()).getAbsolutePath());
+        configuration.addChild("executionId", "default");
+        return configureMojo(goal, configuration);
+    }
+
+    public Mojo findConfiguredBatchMojo(String goal, File configurationPom, List<File> outputFolders) throws Exception {
+        PlexusConfiguration configuration = extractPluginConfiguration("test", configurationPom);
+        PlexusConfiguration[] items = configuration.getChild("items").getChildren();
+        for (int i = 0; i < items.length; ++i) {
+            items[i].addChild("outputFolder", outputFolders.get(i).getAbsolutePath());
+        }
+        return configureMojo(goal, configuration);
+    }
+
+    private Mojo configureMojo(String goal, PlexusConfiguration configuration) throws Exception {
         Mojo mojo = lookupMojo(
             "io.micronaut.test",
             "test",
@@ -26,8 +51,6 @@ abstract class AbstractMavenPluginTest extends AbstractMojoTestCase {
             goal,
             null
         );
-        PlexusConfiguration configuration = extractPluginConfiguration("test", configurationPom);
-        configuration.addChild("outputFolder", baseDir.getAbsolutePath());
         ComponentConfigurator configurator = getContainer().lookup(ComponentConfigurator.class, "basic" );
         configurator.configureComponent(
             mojo,
@@ -38,6 +61,22 @@ abstract class AbstractMavenPluginTest extends AbstractMojoTestCase {
         return mojo;
     }
 
+    /**
+     * Execute the Mojo and collect the messages it logs with the info level.
+     */
+    List<String> execute(Mojo mojo) throws Exception {
+        List<String> messages = new ArrayList<>();
+        mojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+                super.info(content);
+            }
+        });
+        mojo.execute();
+        return messages;
+    }
+
     File file(String relativePath) {
         return baseDir.toPath().resolve(relativePath).toFile();
     }
@@ -1,8 +1,28 @@
 package io.micronaut.sourcegen.example.plugin.maven;
 
+import io.micronaut.sourcegen.example.plugin.GenerateSimpleResourceTask;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TestMavenPluginTest extends AbstractMavenPluginTest {
 
@@ -58,4 +78,183 @@ class TestMavenPluginTest extends AbstractMavenPluginTest {
         assertEquals(content(generated2), "Hello!\n");
     }
 
+    @Test
+    void generateResourceInParallelReactor() throws Exception {
+        assertTrue(newMojoExecution("generateResource").getMojoDescriptor().isThreadSafe());
+
+        // Execute the goal for a reactor of 4 modules, like mvn -T 4 would
+        File pom = new File("src/test/resources/test-resource-pom.xml");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> modules = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                Mojo mojo = findConfiguredMojo("generateResource", pom, file("module" + i));
+                assertTrue(mojo instanceof DefaultGenerateResourceMojo);
+                modules.add(executor.submit(() -> {
+                    mojo.execute();
+                    return null;
+                }));
+            }
+            for (Future<?> module: modules) {
+                module.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 4; ++i) {
+            File generated = file("module" + i + "/META-INF/hello.txt");
+            assertTrue(generated.exists());
+            assertEquals(content(generated), "Hello!");
+        }
+    }
+
+    @Test
+    void generateResourceIsSkippedWhenUnchanged() throws Exception {
+        File pom = new File("src/test/resources/test-resource-pom.xml");
+        File output = file("output");
+        File generated = file("output/META-INF/hello.txt");
+
+        List<String> log = execute(findConfiguredMojo("generateResource", pom, output));
+        assertTrue(log.contains("GenerateResourceMojo is executed, because there is no recorded state"));
+        assertEquals(content(generated), "Hello!");
+
+        // The task would write the file again if it were executed
+        assertTrue(generated.setLastModified(1000));
+        log = execute(findConfiguredMojo("generateResource", pom, output));
+        assertTrue(log.contains("GenerateResourceMojo is skipped, because its inputs and outputs did not change"));
+        assertEquals(1000, generated.lastModified());
+    }
+
+    @Test
+    void generateResourceIsExecutedWhenInputChanged() throws Exception {
+        File pom = new File("src/test/resources/test-resource-pom.xml");
+        File output = file("output");
+        execute(findConfiguredMojo("generateResource", pom, output));
+
+        Mojo mojo = findConfiguredMojo("generateResource", pom, output);
+        setVariableValueToObject(mojo, "content", "Bye!");
+        List<String> log = execute(mojo);
+        assertTrue(log.contains("GenerateResourceMojo is executed, because input 'content' changed"));
+        assertEquals(content(file("output/META-INF/hello.txt")), "Bye!");
+    }
+
+    @Test
+    void generateResourceIsExecutedWhenOutputChanged() throws Exception {
+        File pom = new File("src/test/resources/test-resource-pom.xml");
+        File output = file("output");
+        File generated = file("output/META-INF/hello.txt");
+        execute(findConfiguredMojo("generateResource", pom, output));
+
+        Files.writeString(generated.toPath(), "Changed");
+        List<String> log = execute(findConfiguredMojo("generateResource", pom, output));
+        assertTrue(log.contains("GenerateResourceMojo is executed, because output 'outputFolder' changed"));
+        assertEquals(content(generated), "Hello!");
+
+        assertTrue(generated.delete());
+        log = execute(findConfiguredMojo("generateResource", pom, output));
+        assertTrue(log.contains("GenerateResourceMojo is executed, because output 'outputFolder' changed"));
+        assertEquals(content(generated), "Hello!");
+    }
+
+    @Test
+    void generateIsolatedResource() throws Exception {
+        File pom = new File("src/test/resources/test-resource-pom.xml");
+
+        Mojo mojo = findConfiguredMojo("generateIsolatedResource", pom, file("output"));
+        assertTrue(mojo instanceof DefaultGenerateIsolatedResourceMojo);
+        setVariableValueToObject(mojo, "pluginArtifacts", List.of(
+            pluginArtifact(GenerateSimpleResourceTask.class, "io.micronaut.test:test-suite-common-java:jar:1.0.0"),
+            pluginArtifact(LoggerFactory.class, "io.micronaut.test:test-suite-common-java:jar:1.0.0", "org.slf4j:slf4j-api:jar:2.0.0"),
+            pluginArtifact(MavenProject.class, "org.apache.maven:maven-core:jar:3.9.0")
+        ));
+        mojo.execute();
+
+        assertEquals(content(file("output/META-INF/hello.txt")), "Hello!");
+    }
+
+    @Test
+    void generateIsolatedResourceDoesNotUsePluginRealm() throws Exception {
+        File pom = new File("src/test/resources/test-resource-pom.xml");
+
+        // The task is available to the plugin, but not on the classpath of the isolated dependency
+        Mojo mojo = findConfiguredMojo("generateIsolatedResource", pom, file("output"));
+        setVariableValueToObject(mojo, "pluginArtifacts", List.of(
+            pluginArtifact(GenerateSimpleResourceTask.class, "io.micronaut.test:other:jar:1.0.0")
+        ));
+        NoClassDefFoundError error = assertThrows(NoClassDefFoundError.class, mojo::execute);
+
+        assertTrue(error.getMessage().contains("GenerateSimpleResourceTask"));
+        assertFalse(file("output/META-INF/hello.txt").exists());
+    }
+
+    @Test
+    void generateResourceBuildCacheConfig() throws Exception {
+        Document config;
+        try (InputStream stream = getClass().getClassLoader()
+                .getResourceAsStream("META-INF/maven/build-cache/io.micronaut.sourcegen.example.plugin.maven.GenerateMojoTrigger.xml")) {
+            assertNotNull(stream);
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            config = factory.newDocumentBuilder().parse(stream);
+        }
+
+        Element reconcilePlugin = (Element) config.getElementsByTagName("reconcile").item(0);
+        Element plugin = (Element) reconcilePlugin.getElementsByTagName("plugin").item(0);
+        assertEquals("test", plugin.getAttribute("artifactId"));
+        assertEquals("generateResource", plugin.getAttribute("goal"));
+        NodeList reconciles = plugin.getElementsByTagName("reconcile");
+        List<String> properties = new ArrayList<>();
+        for (int i = 0; i < reconciles.getLength(); ++i) {
+            properties.add(((Element) reconciles.item(i)).getAttribute("propertyName"));
+        }
+        assertEquals(List.of("fileName", "content", "ending", "repeat"), properties);
+
+        Element exclude = (Element) config.getElementsByTagName("exclude").item(0);
+        assertEquals("outputFolder", exclude.getAttribute("tagName"));
+    }
+
+    @Test
+    void generateResourceBatch() throws Exception {
+        File pom = new File("src/test/resources/test-resource-batch-pom.xml");
+
+        Mojo mojo = findConfiguredBatchMojo("generateResourceBatch", pom,
+            List.of(file("hello"), file("bye"), file("again")));
+        assertTrue(mojo instanceof DefaultGenerateResourceBatchMojo);
+        mojo.execute();
+
+        assertEquals(content(file("hello/META-INF/hello.txt")), "Hello!");
+        assertEquals(content(file("bye/META-INF/bye.txt")), "Bye!\n");
+        assertEquals(content(file("again/META-INF/again.txt")), "Hello again!");
+    }
+
+    @Test
+    void generateResourceBatchAggregatesFailures() throws Exception {
+        File pom = new File("src/test/resources/test-resource-batch-pom.xml");
+        File notDirectory = file("not-a-directory");
+        assertTrue(notDirectory.createNewFile());
+
+        Mojo mojo = findConfiguredBatchMojo("generateResourceBatch", pom,
+            List.of(notDirectory, file("bye"), notDirectory));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, mojo::execute);
+
+        assertTrue(exception.getMessage().startsWith("2 of 3 items of GenerateResourceBatchMojo failed (items 1, 3)"));
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals(content(file("bye/META-INF/bye.txt")), "Bye!\n");
+    }
+
+    /**
+     * Create an artifact of the plugin located with the class and required by the dependency trail.
+     */
+    private static Artifact pluginArtifact(Class<?> type, String... dependencyTrail) throws Exception {
+        Artifact artifact = new DefaultArtifact("io.micronaut.test", type.getSimpleName(), "1.0.0", "runtime", "jar", null,
+            new DefaultArtifactHandler("jar"));
+        artifact.setFile(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        List<String> trail = new ArrayList<>();
+        trail.add("io.micronaut.test:test:maven-plugin:1.0.0");
+        trail.addAll(List.of(dependencyTrail));
+        artifact.setDependencyTrail(trail);
+        return artifact;
+    }
+
 }